@@ -16,6 +16,11 @@
 
 package com.iexec.blockchain.api;
 
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskBatchItem;
+import com.iexec.blockchain.command.batch.TaskInitializeBatchItem;
+import com.iexec.blockchain.command.status.CommandStatusQuery;
+import com.iexec.blockchain.command.status.CommandStatusResult;
 import com.iexec.common.chain.adapter.CommandStatus;
 import com.iexec.common.chain.adapter.args.TaskContributeArgs;
 import com.iexec.common.chain.adapter.args.TaskFinalizeArgs;
@@ -26,6 +31,8 @@ import com.iexec.commons.poco.chain.ChainTask;
 import feign.Param;
 import feign.RequestLine;
 
+import java.util.List;
+
 /**
  * Interface allowing to instantiate a Feign client targeting Blockchain adapter API REST endpoints.
  * <p>
@@ -55,24 +62,59 @@ public interface BlockchainAdapterApiClient {
     @RequestLine("GET /tasks/initialize/{chainTaskId}/status")
     CommandStatus getStatusForInitializeTaskRequest(@Param("chainTaskId") String chainTaskId);
 
+    @RequestLine("GET /tasks/initialize/{chainTaskId}/status?await={await}&timeout={timeout}")
+    CommandStatus awaitStatusForInitializeTaskRequest(@Param("chainTaskId") String chainTaskId,
+                                                      @Param("await") String await,
+                                                      @Param("timeout") String timeout);
+
     @RequestLine("POST /tasks/contribute/{chainTaskId}")
     String requestContributeTask(@Param("chainTaskId") String chainTaskId, TaskContributeArgs taskContributeArgs);
 
     @RequestLine("GET /tasks/contribute/{chainTaskId}/status")
     CommandStatus getStatusForContributeTaskRequest(@Param("chainTaskId") String chainTaskId);
 
+    @RequestLine("GET /tasks/contribute/{chainTaskId}/status?await={await}&timeout={timeout}")
+    CommandStatus awaitStatusForContributeTaskRequest(@Param("chainTaskId") String chainTaskId,
+                                                      @Param("await") String await,
+                                                      @Param("timeout") String timeout);
+
     @RequestLine("POST /tasks/reveal/{chainTaskId}")
     String requestRevealTask(@Param("chainTaskId") String chainTaskId, TaskRevealArgs taskRevealArgs);
 
     @RequestLine("GET /tasks/reveal/{chainTaskId}/status")
     CommandStatus getStatusForRevealTaskRequest(@Param("chainTaskId") String chainTaskId);
 
+    @RequestLine("GET /tasks/reveal/{chainTaskId}/status?await={await}&timeout={timeout}")
+    CommandStatus awaitStatusForRevealTaskRequest(@Param("chainTaskId") String chainTaskId,
+                                                  @Param("await") String await,
+                                                  @Param("timeout") String timeout);
+
     @RequestLine("POST /tasks/finalize/{chainTaskId}")
     String requestFinalizeTask(@Param("chainTaskId") String chainTaskId, TaskFinalizeArgs taskFinalizeArgs);
 
     @RequestLine("GET /tasks/finalize/{chainTaskId}/status")
     CommandStatus getStatusForFinalizeTaskRequest(@Param("chainTaskId") String chainTaskId);
 
+    @RequestLine("GET /tasks/finalize/{chainTaskId}/status?await={await}&timeout={timeout}")
+    CommandStatus awaitStatusForFinalizeTaskRequest(@Param("chainTaskId") String chainTaskId,
+                                                    @Param("await") String await,
+                                                    @Param("timeout") String timeout);
+
+    @RequestLine("POST /tasks/status")
+    List<CommandStatusResult> getStatusesForTaskRequests(List<CommandStatusQuery> queries);
+
+    @RequestLine("POST /tasks/initialize/batch")
+    List<BatchItemResult> requestInitializeTasks(List<TaskInitializeBatchItem> items);
+
+    @RequestLine("POST /tasks/contribute/batch")
+    List<BatchItemResult> requestContributeTasks(List<TaskBatchItem<TaskContributeArgs>> items);
+
+    @RequestLine("POST /tasks/reveal/batch")
+    List<BatchItemResult> requestRevealTasks(List<TaskBatchItem<TaskRevealArgs>> items);
+
+    @RequestLine("POST /tasks/finalize/batch")
+    List<BatchItemResult> requestFinalizeTasks(List<TaskBatchItem<TaskFinalizeArgs>> items);
+
     // endregion
 
     // region unauthenticated APIs
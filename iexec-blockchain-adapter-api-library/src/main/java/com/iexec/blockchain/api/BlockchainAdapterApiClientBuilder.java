@@ -1,10 +1,15 @@
 package com.iexec.blockchain.api;
 
 import com.iexec.common.utils.FeignBuilder;
+import feign.Client;
+import feign.Feign;
 import feign.Logger;
 
 /**
  * Creates Feign client instances to query REST endpoints described in {@link BlockchainAdapterApiClient}.
+ * <p>
+ * Clients honour {@code ETag} and {@code Cache-Control} response headers, see {@link ConditionalCachingClient}.
+ * They exchange JSON bodies unless another {@link WireFormat} is requested.
  */
 public class BlockchainAdapterApiClientBuilder {
 
@@ -17,7 +22,18 @@ public class BlockchainAdapterApiClientBuilder {
      * @return Feign client for {@link BlockchainAdapterApiClient} apis.
      */
     public static BlockchainAdapterApiClient getInstance(Logger.Level logLevel, String url) {
-        return FeignBuilder.createBuilder(logLevel)
+        return getInstance(logLevel, url, WireFormat.JSON);
+    }
+
+    /**
+     * Create an unauthenticated feign client to query apis described in {@link BlockchainAdapterApiClient}.
+     * @param logLevel Feign logging level to configure.
+     * @param url Url targeted by the client.
+     * @param wireFormat Encoding of request and response bodies.
+     * @return Feign client for {@link BlockchainAdapterApiClient} apis.
+     */
+    public static BlockchainAdapterApiClient getInstance(Logger.Level logLevel, String url, WireFormat wireFormat) {
+        return configure(FeignBuilder.createBuilder(logLevel), wireFormat)
                 .target(BlockchainAdapterApiClient.class, url);
     }
 
@@ -31,8 +47,34 @@ public class BlockchainAdapterApiClientBuilder {
      */
     public static BlockchainAdapterApiClient getInstanceWithBasicAuth(Logger.Level logLevel, String url,
                                                                       String username, String password) {
-        return FeignBuilder.createBuilderWithBasicAuth(logLevel, username, password)
+        return getInstanceWithBasicAuth(logLevel, url, username, password, WireFormat.JSON);
+    }
+
+    /**
+     * Create an authenticated feign client to query apis described in {@link BlockchainAdapterApiClient}.
+     * @param logLevel Feign logging level to configure.
+     * @param url Url targeted by the client.
+     * @param username Basic authentication username.
+     * @param password Basic authentication password.
+     * @param wireFormat Encoding of request and response bodies.
+     * @return Feign client with basic authentication for {@link BlockchainAdapterApiClient} apis.
+     */
+    public static BlockchainAdapterApiClient getInstanceWithBasicAuth(Logger.Level logLevel, String url,
+                                                                      String username, String password,
+                                                                      WireFormat wireFormat) {
+        return configure(FeignBuilder.createBuilderWithBasicAuth(logLevel, username, password), wireFormat)
                 .target(BlockchainAdapterApiClient.class, url);
     }
 
+    private static Feign.Builder configure(Feign.Builder builder, WireFormat wireFormat) {
+        builder.client(new ConditionalCachingClient(new Client.Default(null, null)));
+        if (wireFormat == WireFormat.CBOR) {
+            final CborCodec cborCodec = new CborCodec();
+            builder.encoder(cborCodec)
+                    .decoder(cborCodec)
+                    .requestInterceptor(cborCodec);
+        }
+        return builder;
+    }
+
 }
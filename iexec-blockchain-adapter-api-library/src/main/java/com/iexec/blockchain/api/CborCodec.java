@@ -0,0 +1,84 @@
+package com.iexec.blockchain.api;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Util;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * Feign encoder, decoder and request interceptor exchanging {@code application/cbor} bodies.
+ * <p>
+ * Plain {@link String} responses are sent as text by the server whatever the negotiated format,
+ * they are read as UTF-8 text. JSON is accepted with a lower quality, so that endpoints only
+ * producing JSON answer with it, such responses are read as JSON.
+ */
+public class CborCodec implements Encoder, Decoder, RequestInterceptor {
+
+    static final String CBOR_MEDIA_TYPE = "application/cbor";
+    static final String JSON_MEDIA_TYPE = "application/json";
+    static final String ACCEPT = CBOR_MEDIA_TYPE + ", " + JSON_MEDIA_TYPE + ";q=0.5";
+
+    private final ObjectMapper mapper = new ObjectMapper(new CBORFactory())
+            .registerModule(new HexBinaryModule())
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ObjectMapper jsonMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) {
+        try {
+            template.body(mapper.writerFor(mapper.constructType(bodyType)).writeValueAsBytes(object), null);
+        } catch (IOException e) {
+            throw new EncodeException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (response.body() == null) {
+            return Util.emptyValueOf(type);
+        }
+        final byte[] body = Util.toByteArray(response.body().asInputStream());
+        if (body.length == 0) {
+            return Util.emptyValueOf(type);
+        }
+        if (type == String.class) {
+            return new String(body, StandardCharsets.UTF_8);
+        }
+        final ObjectMapper responseMapper = isJson(response) ? jsonMapper : mapper;
+        try {
+            return responseMapper.readValue(body, responseMapper.constructType(type));
+        } catch (IOException e) {
+            throw new DecodeException(response.status(), e.getMessage(), response.request(), e);
+        }
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        template.removeHeader("Accept");
+        template.header("Accept", ACCEPT);
+        if (template.body() != null) {
+            template.removeHeader("Content-Type");
+            template.header("Content-Type", CBOR_MEDIA_TYPE);
+        }
+    }
+
+    private static boolean isJson(Response response) {
+        final Collection<String> contentTypes = response.headers().get("Content-Type");
+        return contentTypes != null && contentTypes.stream()
+                .anyMatch(contentType -> contentType.startsWith(JSON_MEDIA_TYPE));
+    }
+}
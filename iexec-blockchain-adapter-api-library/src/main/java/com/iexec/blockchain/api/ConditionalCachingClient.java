@@ -0,0 +1,137 @@
+package com.iexec.blockchain.api;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Feign {@link Client} honouring {@code ETag} and {@code Cache-Control: max-age} headers on {@code GET} requests.
+ * <p>
+ * A response is replayed without any network call while it is fresh. Once stale, it is revalidated with
+ * an {@code If-None-Match} header and replayed again if the server answers {@code 304 Not Modified}.
+ */
+public class ConditionalCachingClient implements Client {
+
+    static final int DEFAULT_MAX_ENTRIES = 256;
+    private static final Pattern MAX_AGE_PATTERN = Pattern.compile("max-age=(\\d+)");
+
+    private final Client delegate;
+    private final Clock clock;
+    private final Map<String, CachedResponse> cache;
+
+    public ConditionalCachingClient(Client delegate) {
+        this(delegate, Clock.systemUTC(), DEFAULT_MAX_ENTRIES);
+    }
+
+    ConditionalCachingClient(Client delegate, Clock clock, int maxEntries) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (request.httpMethod() != Request.HttpMethod.GET) {
+            return delegate.execute(request, options);
+        }
+        final String key = request.url();
+        final CachedResponse cached = cache.get(key);
+        if (cached != null && cached.expiresAt > clock.millis()) {
+            return cached.toResponse(request);
+        }
+        Request sent = request;
+        if (cached != null && cached.eTag != null) {
+            Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+            headers.put("If-None-Match", List.of(cached.eTag));
+            sent = Request.create(request.httpMethod(), request.url(), headers,
+                    request.body(), request.charset(), request.requestTemplate());
+        }
+        final Response response = delegate.execute(sent, options);
+        if (response.status() == 304 && cached != null) {
+            response.close();
+            final CachedResponse revalidated = cached.withExpiration(getExpiration(response.headers()));
+            cache.put(key, revalidated);
+            return revalidated.toResponse(request);
+        }
+        if (response.status() != 200) {
+            cache.remove(key);
+            return response;
+        }
+        final String eTag = getFirstHeader(response.headers(), "ETag");
+        final long expiresAt = getExpiration(response.headers());
+        if (eTag == null && expiresAt <= clock.millis()) {
+            cache.remove(key);
+            return response;
+        }
+        final byte[] body = response.body() != null
+                ? Util.toByteArray(response.body().asInputStream())
+                : new byte[0];
+        response.close();
+        final CachedResponse stored = new CachedResponse(response.status(), response.reason(),
+                response.headers(), body, eTag, expiresAt);
+        cache.put(key, stored);
+        return stored.toResponse(request);
+    }
+
+    private long getExpiration(Map<String, Collection<String>> headers) {
+        final String cacheControl = getFirstHeader(headers, "Cache-Control");
+        if (cacheControl == null) {
+            return 0;
+        }
+        final Matcher matcher = MAX_AGE_PATTERN.matcher(cacheControl);
+        return matcher.find() ? clock.millis() + Long.parseLong(matcher.group(1)) * 1000 : 0;
+    }
+
+    private static String getFirstHeader(Map<String, Collection<String>> headers, String name) {
+        return headers.entrySet().stream()
+                .filter(entry -> name.equalsIgnoreCase(entry.getKey()))
+                .flatMap(entry -> entry.getValue().stream())
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static class CachedResponse {
+        private final int status;
+        private final String reason;
+        private final Map<String, Collection<String>> headers;
+        private final byte[] body;
+        private final String eTag;
+        private final long expiresAt;
+
+        private CachedResponse(int status, String reason, Map<String, Collection<String>> headers,
+                               byte[] body, String eTag, long expiresAt) {
+            this.status = status;
+            this.reason = reason;
+            this.headers = headers;
+            this.body = body;
+            this.eTag = eTag;
+            this.expiresAt = expiresAt;
+        }
+
+        private CachedResponse withExpiration(long expiresAt) {
+            return new CachedResponse(status, reason, headers, body, eTag, expiresAt);
+        }
+
+        private Response toResponse(Request request) {
+            return Response.builder()
+                    .status(status)
+                    .reason(reason)
+                    .headers(headers)
+                    .body(body)
+                    .request(request)
+                    .build();
+        }
+    }
+}
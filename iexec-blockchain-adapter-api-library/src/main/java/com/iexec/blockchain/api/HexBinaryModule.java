@@ -0,0 +1,89 @@
+package com.iexec.blockchain.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+import java.io.IOException;
+
+/**
+ * Jackson module writing lowercase {@code 0x} prefixed hex strings as raw bytes, for binary formats such as CBOR.
+ * <p>
+ * Chain task IDs, digests and signatures are then half their textual size on the wire. Byte strings are read back
+ * as lowercase {@code 0x} prefixed hex strings. Other strings, including mixed-case checksummed addresses,
+ * are kept as text so that every string is read back unchanged.
+ */
+public class HexBinaryModule extends SimpleModule {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public HexBinaryModule() {
+        super("HexBinaryModule");
+        addSerializer(String.class, new HexStringSerializer());
+        addDeserializer(String.class, new HexStringDeserializer());
+    }
+
+    static boolean isLowerCaseHex(String value) {
+        if (value.length() <= 2 || value.length() % 2 != 0 || !value.startsWith("0x")) {
+            return false;
+        }
+        for (int i = 2; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static byte[] toBytes(String hex) {
+        byte[] bytes = new byte[(hex.length() - 2) / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 + 2 * i, 4 + 2 * i), 16);
+        }
+        return bytes;
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(2 + 2 * bytes.length).append("0x");
+        for (byte b : bytes) {
+            hex.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+        return hex.toString();
+    }
+
+    private static class HexStringSerializer extends StdScalarSerializer<String> {
+        private HexStringSerializer() {
+            super(String.class);
+        }
+
+        @Override
+        public void serialize(String value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (isLowerCaseHex(value)) {
+                gen.writeBinary(toBytes(value));
+            } else {
+                gen.writeString(value);
+            }
+        }
+    }
+
+    private static class HexStringDeserializer extends StdScalarDeserializer<String> {
+        private HexStringDeserializer() {
+            super(String.class);
+        }
+
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_EMBEDDED_OBJECT && p.getEmbeddedObject() instanceof byte[]) {
+                return toHex((byte[]) p.getEmbeddedObject());
+            }
+            return StringDeserializer.instance.deserialize(p, ctxt);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.iexec.blockchain.api;
+
+/**
+ * Encoding of request and response bodies exchanged with the Blockchain Adapter API.
+ */
+public enum WireFormat {
+    /**
+     * Textual JSON, supported by every server version.
+     */
+    JSON,
+    /**
+     * Binary CBOR with hex strings sent as raw bytes, see {@link HexBinaryModule}.
+     * Requires a server supporting {@code application/cbor}.
+     */
+    CBOR
+}
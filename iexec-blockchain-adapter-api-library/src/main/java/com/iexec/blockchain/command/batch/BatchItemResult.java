@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a batch command submission.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+
+    /**
+     * Blockchain ID of the object targeted by the command, may be empty for invalid arguments.
+     */
+    private String chainObjectId;
+    /**
+     * Whether the command was received and queued.
+     */
+    private boolean accepted;
+    /**
+     * Reason of the rejection, null when accepted.
+     */
+    private String error;
+
+    public static BatchItemResult accepted(String chainObjectId) {
+        return new BatchItemResult(chainObjectId, true, null);
+    }
+
+    public static BatchItemResult rejected(String chainObjectId, String error) {
+        return new BatchItemResult(chainObjectId, false, error);
+    }
+
+}
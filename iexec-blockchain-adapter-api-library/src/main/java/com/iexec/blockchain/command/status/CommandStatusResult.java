@@ -0,0 +1,39 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.status;
+
+import com.iexec.blockchain.tool.Status;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status of one command of a bulk status request.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommandStatusResult {
+
+    private TaskCommandType commandType;
+    private String chainTaskId;
+    /**
+     * Current status, null if the command is unknown.
+     */
+    private Status status;
+
+}
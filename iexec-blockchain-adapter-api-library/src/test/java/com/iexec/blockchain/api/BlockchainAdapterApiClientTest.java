@@ -1,9 +1,17 @@
 package com.iexec.blockchain.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.iexec.common.config.PublicChainConfig;
+import com.sun.net.httpserver.HttpServer;
 import feign.Logger;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
 class BlockchainAdapterApiClientTest {
 
     @Test
@@ -14,4 +22,42 @@ class BlockchainAdapterApiClientTest {
                 .getInstanceWithBasicAuth(Logger.Level.FULL, "localhost", "username", "password"));
     }
 
+    @Test
+    void shouldGetJsonOnlyPublicChainConfigInCborMode() throws Exception {
+        final PublicChainConfig expectedConfig = PublicChainConfig.builder()
+                .sidechain(true)
+                .chainId(65535)
+                .chainNodeUrl("http://localhost:8545")
+                .iexecHubContractAddress("0xC129e7917b7c7DeDfAa5Fff1FB18d5D7050fE8ca")
+                .blockTime(Duration.ofSeconds(5))
+                .build();
+        final byte[] body = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .writeValueAsBytes(expectedConfig);
+        final HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // like the REST API, the endpoint only produces JSON
+        server.createContext("/config/chain", exchange -> {
+            final String accept = exchange.getRequestHeaders().getFirst("Accept");
+            if (accept == null || !accept.contains("application/json")) {
+                exchange.sendResponseHeaders(406, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        server.start();
+        try {
+            final BlockchainAdapterApiClient client = BlockchainAdapterApiClientBuilder.getInstance(
+                    Logger.Level.NONE, "http://localhost:" + server.getAddress().getPort(), WireFormat.CBOR);
+            Assertions.assertEquals(expectedConfig, client.getPublicChainConfig());
+        } finally {
+            server.stop(0);
+        }
+    }
+
 }
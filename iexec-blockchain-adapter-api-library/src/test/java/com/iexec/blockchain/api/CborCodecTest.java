@@ -0,0 +1,88 @@
+package com.iexec.blockchain.api;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iexec.blockchain.command.batch.TaskInitializeBatchItem;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+class CborCodecTest {
+
+    private static final String CHAIN_DEAL_ID = "0x000000000000000000000000000000000000000000000000000000000000dea1";
+    private static final String CHECKSUMMED_ADDRESS = "0x3eca1B216A7DF1C7689aEb259fFB83ADFB894E7f";
+    private static final Type ITEMS_TYPE = new TypeReference<List<TaskInitializeBatchItem>>() {}.getType();
+
+    private final CborCodec codec = new CborCodec();
+
+    @Test
+    void shouldEncodeThenDecodeSameValue() throws IOException {
+        final List<TaskInitializeBatchItem> items = List.of(new TaskInitializeBatchItem(CHAIN_DEAL_ID, 3));
+        final RequestTemplate template = new RequestTemplate();
+
+        codec.encode(items, ITEMS_TYPE, template);
+
+        Assertions.assertEquals(items, codec.decode(respondWith(template.body()), ITEMS_TYPE));
+        Assertions.assertTrue(template.body().length
+                < new ObjectMapper().writeValueAsBytes(items).length - 32);
+    }
+
+    @Test
+    void shouldKeepNonLowerCaseHexStringsAsText() throws IOException {
+        final RequestTemplate template = new RequestTemplate();
+
+        codec.encode(List.of(CHECKSUMMED_ADDRESS, "0x", "0xabc"), List.class, template);
+
+        Assertions.assertEquals(List.of(CHECKSUMMED_ADDRESS, "0x", "0xabc"),
+                codec.decode(respondWith(template.body()), List.class));
+    }
+
+    @Test
+    void shouldDecodeStringResponseAsText() throws IOException {
+        Assertions.assertEquals(CHAIN_DEAL_ID,
+                codec.decode(respondWith(CHAIN_DEAL_ID.getBytes(StandardCharsets.UTF_8)), String.class));
+    }
+
+    @Test
+    void shouldNegotiateCbor() {
+        final RequestTemplate template = new RequestTemplate();
+        template.header("Content-Type", "application/json");
+        template.body(new byte[]{1}, null);
+
+        codec.apply(template);
+
+        Assertions.assertEquals(List.of(CborCodec.ACCEPT), List.copyOf(template.headers().get("Accept")));
+        Assertions.assertEquals(List.of(CborCodec.CBOR_MEDIA_TYPE), List.copyOf(template.headers().get("Content-Type")));
+    }
+
+    @Test
+    void shouldDecodeJsonResponseOfEndpointWithoutCbor() throws IOException {
+        final byte[] body = new ObjectMapper().writeValueAsBytes(List.of(new TaskInitializeBatchItem(CHAIN_DEAL_ID, 3)));
+
+        Assertions.assertEquals(List.of(new TaskInitializeBatchItem(CHAIN_DEAL_ID, 3)),
+                codec.decode(respondWith(body, CborCodec.JSON_MEDIA_TYPE), ITEMS_TYPE));
+    }
+
+    private static Response respondWith(byte[] body) {
+        return respondWith(body, CborCodec.CBOR_MEDIA_TYPE);
+    }
+
+    private static Response respondWith(byte[] body, String contentType) {
+        return Response.builder()
+                .status(200)
+                .headers(Map.of("Content-Type", List.of(contentType)))
+                .body(body)
+                .request(Request.create(Request.HttpMethod.GET, "http://localhost/tasks",
+                        Collections.emptyMap(), null, null, null))
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.iexec.blockchain.api;
+
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+class ConditionalCachingClientTest {
+
+    private static final String URL = "http://localhost/tasks/0x01";
+    private static final String ETAG = "\"ACTIVE-12\"";
+    private static final Request.Options OPTIONS = new Request.Options();
+
+    private final List<Request> sentRequests = new ArrayList<>();
+
+    @Test
+    void shouldReplayFreshResponseWithoutCall() throws IOException {
+        ConditionalCachingClient client = new ConditionalCachingClient(
+                respondWith(200, Map.of("ETag", List.of(ETAG), "Cache-Control", List.of("max-age=5"))),
+                fixedClock(), 10);
+        Assertions.assertEquals("body", read(client.execute(get(), OPTIONS)));
+        Assertions.assertEquals("body", read(client.execute(get(), OPTIONS)));
+        Assertions.assertEquals(1, sentRequests.size());
+    }
+
+    @Test
+    void shouldRevalidateStaleResponseWithETag() throws IOException {
+        ConditionalCachingClient client = new ConditionalCachingClient(
+                (request, options) -> {
+                    sentRequests.add(request);
+                    if (request.headers().containsKey("If-None-Match")) {
+                        return response(request, 304, Map.of("ETag", List.of(ETAG)), null);
+                    }
+                    return response(request, 200, Map.of("ETag", List.of(ETAG)), "body");
+                },
+                fixedClock(), 10);
+        Assertions.assertEquals("body", read(client.execute(get(), OPTIONS)));
+        Response revalidated = client.execute(get(), OPTIONS);
+        Assertions.assertEquals(200, revalidated.status());
+        Assertions.assertEquals("body", read(revalidated));
+        Assertions.assertEquals(2, sentRequests.size());
+        Assertions.assertEquals(List.of(ETAG), sentRequests.get(1).headers().get("If-None-Match"));
+    }
+
+    @Test
+    void shouldNotCacheResponseWithoutCachingHeaders() throws IOException {
+        ConditionalCachingClient client = new ConditionalCachingClient(
+                respondWith(200, Map.of()), fixedClock(), 10);
+        client.execute(get(), OPTIONS);
+        client.execute(get(), OPTIONS);
+        Assertions.assertEquals(2, sentRequests.size());
+        Assertions.assertFalse(sentRequests.get(1).headers().containsKey("If-None-Match"));
+    }
+
+    @Test
+    void shouldNotCacheNonGetRequests() throws IOException {
+        ConditionalCachingClient client = new ConditionalCachingClient(
+                respondWith(200, Map.of("ETag", List.of(ETAG), "Cache-Control", List.of("max-age=5"))),
+                fixedClock(), 10);
+        Request post = Request.create(Request.HttpMethod.POST, URL, Map.of(), null, StandardCharsets.UTF_8, null);
+        client.execute(post, OPTIONS);
+        client.execute(post, OPTIONS);
+        Assertions.assertEquals(2, sentRequests.size());
+    }
+
+    private feign.Client respondWith(int status, Map<String, Collection<String>> headers) {
+        return (request, options) -> {
+            sentRequests.add(request);
+            return response(request, status, headers, "body");
+        };
+    }
+
+    private static Response response(Request request, int status, Map<String, Collection<String>> headers,
+                                     String body) {
+        Response.Builder builder = Response.builder()
+                .status(status)
+                .headers(headers)
+                .request(request);
+        if (body != null) {
+            builder.body(body, StandardCharsets.UTF_8);
+        }
+        return builder.build();
+    }
+
+    private static Request get() {
+        return Request.create(Request.HttpMethod.GET, URL, Map.of(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static String read(Response response) throws IOException {
+        return new String(Util.toByteArray(response.body().asInputStream()), StandardCharsets.UTF_8);
+    }
+
+    private static Clock fixedClock() {
+        return Clock.fixed(Instant.ofEpochSecond(1_000), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain;
+
+import com.iexec.blockchain.command.generic.CommandArchive;
+import com.iexec.blockchain.command.generic.CommandStore;
+import com.iexec.blockchain.command.generic.EmbeddedCommandStore;
+import com.iexec.blockchain.command.generic.MongoCommandStore;
+import com.iexec.blockchain.command.task.initialize.TaskInitialize;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeArgs;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeRepository;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeStorageService;
+import com.iexec.blockchain.tool.Status;
+import com.iexec.commons.poco.chain.ChainUtils;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare transitions per second of the MongoDB and embedded command stores.
+ * Each command goes through the received, processing and final transitions.
+ */
+@Slf4j
+@Testcontainers
+class CommandStoreBenchmarkTests {
+
+    private static final String CHAIN_DEAL_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000dea1";
+    private static final int COMMANDS = 1000;
+
+    @Container
+    static GenericContainer<?> mongo = new GenericContainer<>("library/mongo:4.4")
+            .withExposedPorts(27017);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldCompareTransitionsPerSecond() throws Exception {
+        try (MongoClient client = MongoClients.create(
+                "mongodb://" + mongo.getHost() + ":" + mongo.getMappedPort(27017))) {
+            MongoTemplate mongoTemplate = new MongoTemplate(client, "benchmark");
+            TaskInitializeRepository repository = new MongoRepositoryFactory(mongoTemplate)
+                    .getRepository(TaskInitializeRepository.class);
+            CommandStore<TaskInitialize> mongoStore = new MongoCommandStore<>(TaskInitialize.class,
+                    repository, new CommandArchive(mongoTemplate, Duration.ZERO), mongoTemplate);
+            double mongoRate = run("mongo", mongoStore);
+
+            try (EmbeddedCommandStore<TaskInitialize> embeddedStore = new EmbeddedCommandStore<>(
+                    TaskInitialize.class, EmbeddedCommandStore.createStandaloneConverter(), directory)) {
+                double embeddedRate = run("embedded", embeddedStore);
+                log.info("Command store benchmark [mongo:{} transitions/s, embedded:{} transitions/s]",
+                        Math.round(mongoRate), Math.round(embeddedRate));
+            }
+        }
+    }
+
+    private double run(String name, CommandStore<TaskInitialize> store) {
+        TaskInitializeStorageService storageService = new TaskInitializeStorageService(store, event -> {
+        });
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setStatus("0x1");
+        long start = System.nanoTime();
+        for (int taskIndex = 0; taskIndex < COMMANDS; taskIndex++) {
+            String chainTaskId = ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, taskIndex);
+            storageService.updateToReceived(new TaskInitializeArgs(chainTaskId, CHAIN_DEAL_ID, taskIndex));
+            storageService.updateToProcessing(chainTaskId);
+            storageService.updateToFinal(chainTaskId, receipt);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertThat(storageService.getStatusForCommand(
+                ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, COMMANDS - 1)))
+                .contains(Status.SUCCESS);
+        log.info("Ran {} transitions on {} store in {}s", 3 * COMMANDS, name, seconds);
+        return 3 * COMMANDS / seconds;
+    }
+
+}
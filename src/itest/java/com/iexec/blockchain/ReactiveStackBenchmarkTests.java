@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain;
+
+import com.iexec.blockchain.command.task.initialize.TaskInitializeArgs;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeStorageService;
+import com.iexec.blockchain.reactive.ReactiveApiServer;
+import com.iexec.commons.poco.chain.ChainUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.DockerComposeContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare requests per second of the servlet and reactive APIs under the same
+ * concurrent load of command status polls.
+ */
+@Slf4j
+@Testcontainers
+@ActiveProfiles({"itest", "reactive"})
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "reactive.port=0")
+class ReactiveStackBenchmarkTests {
+
+    private static final String CHAIN_DEAL_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000dea1";
+    private static final int COMMANDS = 100;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int REQUESTS = 20_000;
+    private static final int IN_FLIGHT_REQUESTS = 256;
+
+    @Container
+    static DockerComposeContainer<?> environment = new DockerComposeContainer<>(new File("docker-compose.yml"))
+            .withExposedService("ibaa-chain", 8545, Wait.forListeningPort())
+            .withExposedService("ibaa-blockchain-adapter-mongo", 13012, Wait.forListeningPort());
+
+    @DynamicPropertySource
+    static void registerProperties(DynamicPropertyRegistry registry) {
+        registry.add("chain.id", () -> "65535");
+        registry.add("chain.hubAddress", () -> "0xC129e7917b7c7DeDfAa5Fff1FB18d5D7050fE8ca");
+        registry.add("chain.nodeAddress", () -> "http://localhost:" + environment.getServicePort("ibaa-chain", 8545));
+        registry.add("spring.data.mongodb.port", () -> environment.getServicePort("ibaa-blockchain-adapter-mongo", 13012));
+    }
+
+    @LocalServerPort
+    private int servletPort;
+
+    @Autowired
+    private ReactiveApiServer reactiveApiServer;
+
+    @Autowired
+    private TaskInitializeStorageService storageService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void shouldCompareRequestsPerSecond() throws Exception {
+        List<String> chainTaskIds = new ArrayList<>();
+        for (int taskIndex = 0; taskIndex < COMMANDS; taskIndex++) {
+            String chainTaskId = ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, taskIndex);
+            storageService.updateToReceived(new TaskInitializeArgs(chainTaskId, CHAIN_DEAL_ID, taskIndex));
+            chainTaskIds.add(chainTaskId);
+        }
+
+        run("servlet", servletPort, chainTaskIds, WARMUP_REQUESTS);
+        run("reactive", reactiveApiServer.getPort(), chainTaskIds, WARMUP_REQUESTS);
+        double servletRate = run("servlet", servletPort, chainTaskIds, REQUESTS);
+        double reactiveRate = run("reactive", reactiveApiServer.getPort(), chainTaskIds, REQUESTS);
+        log.info("Web stack benchmark [servlet:{} requests/s, reactive:{} requests/s]",
+                Math.round(servletRate), Math.round(reactiveRate));
+    }
+
+    private double run(String name, int port, List<String> chainTaskIds, int requests) throws Exception {
+        String authorization = "Basic " + Base64.getEncoder().encodeToString(
+                (IntegrationTests.USER + ":" + IntegrationTests.PASSWORD).getBytes(StandardCharsets.UTF_8));
+        Semaphore inFlight = new Semaphore(IN_FLIGHT_REQUESTS);
+        AtomicInteger succeeded = new AtomicInteger();
+        List<CompletableFuture<?>> responses = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                            + "/tasks/initialize/" + chainTaskIds.get(i % chainTaskIds.size()) + "/status"))
+                    .header("Authorization", authorization)
+                    .build();
+            inFlight.acquire();
+            responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, throwable) -> {
+                        inFlight.release();
+                        if (response != null && response.statusCode() == 200) {
+                            succeeded.incrementAndGet();
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(responses.toArray(new CompletableFuture[0])).join();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertThat(succeeded).hasValue(requests);
+        log.info("Ran {} status requests on {} API in {}s", requests, name, seconds);
+        return requests / seconds;
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.tool.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Cold storage tier for finished commands.
+ * <p>
+ * Each command collection has a sibling archive collection suffixed with
+ * {@value #ARCHIVE_SUFFIX}. Finished commands ({@link Status#SUCCESS} or
+ * {@link Status#FAILURE}) are moved there once they are older than the
+ * retention period, keeping the hot collections and their indexes small.
+ */
+@Slf4j
+@Component
+@Profile("!embedded")
+public class CommandArchive {
+
+    public static final String ARCHIVE_SUFFIX = "Archive";
+    static final List<Status> FINAL_STATUSES = List.of(Status.SUCCESS, Status.FAILURE);
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration archiveExpiry;
+    private final Set<String> indexedCollections = ConcurrentHashMap.newKeySet();
+
+    public CommandArchive(MongoTemplate mongoTemplate,
+                          @Value("${command.retention.archive-expiry}") Duration archiveExpiry) {
+        this.mongoTemplate = mongoTemplate;
+        this.archiveExpiry = archiveExpiry;
+    }
+
+    /**
+     * Move a batch of finished commands from the hot collection to the
+     * archive collection.
+     * <p>
+     * A command is first inserted in the archive, then removed from the hot
+     * collection. If a previous run was interrupted between both steps, the
+     * duplicate insertion is ignored and the removal is replayed.
+     *
+     * @param type        command type, mapped to its hot collection
+     * @param finalBefore only commands finished before this date are moved
+     * @param batchSize   maximum number of commands moved by this call
+     * @return number of commands moved to the archive
+     */
+    public <C extends Command<?>> int archiveFinalCommands(Class<C> type,
+                                                           Instant finalBefore,
+                                                           int batchSize) {
+        String archiveCollection = getArchiveCollectionName(type);
+        ensureArchiveIndexes(archiveCollection);
+        Query query = new Query(where("status").in(FINAL_STATUSES)
+                .and("finalDate").lt(finalBefore))
+                .limit(batchSize);
+        List<C> commands = mongoTemplate.find(query, type);
+        int archived = 0;
+        for (C command : commands) {
+            try {
+                mongoTemplate.insert(command, archiveCollection);
+            } catch (DuplicateKeyException e) {
+                log.warn("Command already archived [collection:{}, chainObjectId:{}]",
+                        archiveCollection, command.getChainObjectId());
+            }
+            mongoTemplate.remove(new Query(where("_id").is(command.getId())), type);
+            archived++;
+        }
+        return archived;
+    }
+
+    /**
+     * Look up a command in the archive tier.
+     *
+     * @param type          command type, mapped to its archive collection
+     * @param chainObjectId blockchain object ID of the command
+     * @return archived command if found
+     */
+    public <C extends Command<?>> Optional<C> findByChainObjectId(Class<C> type,
+                                                                  String chainObjectId) {
+        Query query = new Query(where("chainObjectId").is(chainObjectId));
+        return Optional.ofNullable(
+                mongoTemplate.findOne(query, type, getArchiveCollectionName(type)));
+    }
+
+    /**
+     * Look up the status of several commands in the archive tier with a
+     * single query returning only statuses.
+     *
+     * @param type           command type, mapped to its archive collection
+     * @param chainObjectIds blockchain object IDs of the commands
+     * @return status of archived commands by blockchain object ID
+     */
+    public <C extends Command<?>> Map<String, Status> findStatusesByChainObjectIds(
+            Class<C> type, Collection<String> chainObjectIds) {
+        Query query = new Query(where("chainObjectId").in(chainObjectIds));
+        query.fields().include("chainObjectId").include("status");
+        return mongoTemplate.find(query, type, getArchiveCollectionName(type)).stream()
+                .collect(Collectors.toMap(Command::getChainObjectId, Command::getStatus));
+    }
+
+    String getArchiveCollectionName(Class<?> type) {
+        return mongoTemplate.getCollectionName(type) + ARCHIVE_SUFFIX;
+    }
+
+    private void ensureArchiveIndexes(String archiveCollection) {
+        if (!indexedCollections.add(archiveCollection)) {
+            return;
+        }
+        mongoTemplate.indexOps(archiveCollection)
+                .ensureIndex(new Index().on("chainObjectId", Sort.Direction.ASC).unique());
+        if (!archiveExpiry.isZero()) {
+            mongoTemplate.indexOps(archiveCollection)
+                    .ensureIndex(new Index().on("finalDate", Sort.Direction.ASC)
+                            .expire(archiveExpiry));
+        }
+    }
+
+}
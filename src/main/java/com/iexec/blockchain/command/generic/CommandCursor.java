@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iexec.blockchain.command.generic;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Position of a command in creation order, used for keyset pagination.
+ * <p>
+ * Commands are ordered by creation date, then by ID for commands created
+ * at the same date. The next page starts right after the cursor, so pages
+ * stay consistent while new commands are received.
+ */
+@Value
+public class CommandCursor {
+
+    static final Comparator<Command<?>> ORDER = Comparator
+            .comparing((Command<?> command) -> command.getCreationDate())
+            .thenComparing(Command::getId);
+    private static final String SEPARATOR = "_";
+
+    Instant creationDate;
+    String id;
+
+    public static CommandCursor of(Command<?> command) {
+        return new CommandCursor(command.getCreationDate(), command.getId());
+    }
+
+    /**
+     * Read a cursor returned by {@link #encode()}.
+     *
+     * @param value encoded cursor
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static CommandCursor decode(String value) {
+        String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        int separator = decoded.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == decoded.length() - 1) {
+            throw new IllegalArgumentException("Invalid command cursor: " + value);
+        }
+        long epochMilli = Long.parseLong(decoded.substring(0, separator));
+        return new CommandCursor(Instant.ofEpochMilli(epochMilli), decoded.substring(separator + 1));
+    }
+
+    /**
+     * Write the cursor as an opaque URL-safe string.
+     *
+     * @return encoded cursor
+     */
+    public String encode() {
+        String value = creationDate.toEpochMilli() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    boolean isBefore(Command<?> command) {
+        int dateOrder = creationDate.compareTo(command.getCreationDate());
+        return dateOrder < 0 || (dateOrder == 0 && id.compareTo(command.getId()) < 0);
+    }
+
+}
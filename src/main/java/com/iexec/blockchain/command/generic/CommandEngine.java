@@ -17,12 +17,17 @@
 package com.iexec.blockchain.command.generic;
 
 
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.tool.ChainReadContext;
 import com.iexec.blockchain.tool.QueueService;
 import com.iexec.blockchain.tool.Status;
 import lombok.extern.slf4j.Slf4j;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 public abstract class CommandEngine<C extends Command<A>, A extends CommandArgs> {
@@ -30,27 +35,31 @@ public abstract class CommandEngine<C extends Command<A>, A extends CommandArgs>
     private final CommandBlockchain<A> blockchainService;
     private final CommandStorage<C, A> updaterService;
     private final QueueService queueService;
+    private final ChainReadContext chainReadContext;
 
     protected CommandEngine(
             CommandBlockchain<A> blockchainService,
             CommandStorage<C, A> updaterService,
-            QueueService queueService
+            QueueService queueService,
+            ChainReadContext chainReadContext
     ) {
         this.blockchainService = blockchainService;
         this.updaterService = updaterService;
         this.queueService = queueService;
+        this.chainReadContext = chainReadContext;
     }
 
     /**
      * Start blockchain command. Request is synchronously updated to
      * received, then rest of the workflow is done asynchronously.
+     * On-chain checks read a single block, the current head.
      *
      * @param args input arguments for the blockchain command
      * @return blockchain object ID if successful
      */
     public String startBlockchainCommand(A args, boolean isPriority) {
         String chainObjectId = args.getChainObjectId();
-        if (!blockchainService.canSendBlockchainCommand(args)) {
+        if (!chainReadContext.pinToHead(() -> blockchainService.canSendBlockchainCommand(args))) {
             log.error("Starting blockchain command failed (failing on-chain" +
                             " checks) [chainObjectId:{}, commandArgs:{}]",
                     chainObjectId, args);
@@ -73,6 +82,88 @@ public abstract class CommandEngine<C extends Command<A>, A extends CommandArgs>
         return chainObjectId;
     }
 
+    /**
+     * Start a batch of blockchain commands. On-chain checks of the whole
+     * batch read a single block, so that reads shared by several commands
+     * are only sent once. Received commands are stored with a single insert.
+     *
+     * @param argsList   input arguments for the blockchain commands
+     * @param isPriority whether commands are queued with priority
+     * @return result of each command by blockchain object ID
+     */
+    public Map<String, BatchItemResult> startBlockchainCommands(List<A> argsList, boolean isPriority) {
+        Map<String, BatchItemResult> results = new LinkedHashMap<>();
+        List<A> checkedArgs = chainReadContext.pinToHead(() -> argsList.stream()
+                .filter(args -> {
+                    if (blockchainService.canSendBlockchainCommand(args)) {
+                        return true;
+                    }
+                    results.put(args.getChainObjectId(), BatchItemResult.rejected(
+                            args.getChainObjectId(), "failing on-chain checks"));
+                    return false;
+                })
+                .collect(Collectors.toList()));
+        Set<String> received = checkedArgs.isEmpty()
+                ? Set.of()
+                : new HashSet<>(updaterService.updateAllToReceived(checkedArgs));
+        for (A args : checkedArgs) {
+            String chainObjectId = args.getChainObjectId();
+            if (received.remove(chainObjectId)) {
+                log.info("Received command [chainObjectId:{}, commandArgs:{}]",
+                        chainObjectId, args);
+                queueService.addExecutionToQueue(() -> triggerBlockchainCommand(args), isPriority);
+                results.put(chainObjectId, BatchItemResult.accepted(chainObjectId));
+            } else {
+                results.putIfAbsent(chainObjectId, BatchItemResult.rejected(
+                        chainObjectId, "already received"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Validate and start a batch of blockchain commands received from the API.
+     * Results are keyed by blockchain object ID, so only the first item of
+     * an ID is started, the following ones are rejected as duplicates.
+     *
+     * @param items           batch items as received
+     * @param toArgs          validation and conversion of an item, empty if invalid
+     * @param chainObjectIdOf blockchain object ID reported for an invalid item
+     * @param isPriority      whether commands are queued with priority
+     * @return result of each item, in the order of the batch
+     */
+    protected <I> List<BatchItemResult> startBatch(List<I> items,
+                                                   Function<I, Optional<A>> toArgs,
+                                                   Function<I, String> chainObjectIdOf,
+                                                   boolean isPriority) {
+        List<Optional<A>> argsList = items.stream()
+                .map(toArgs)
+                .collect(Collectors.toList());
+        Set<String> batchChainObjectIds = new HashSet<>();
+        List<Boolean> duplicates = argsList.stream()
+                .map(args -> args.isPresent() && !batchChainObjectIds.add(args.get().getChainObjectId()))
+                .collect(Collectors.toList());
+        List<A> uniqueArgs = new ArrayList<>(batchChainObjectIds.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (!duplicates.get(i)) {
+                argsList.get(i).ifPresent(uniqueArgs::add);
+            }
+        }
+        Map<String, BatchItemResult> results = startBlockchainCommands(uniqueArgs, isPriority);
+        List<BatchItemResult> orderedResults = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (duplicates.get(i)) {
+                orderedResults.add(BatchItemResult.rejected(
+                        argsList.get(i).get().getChainObjectId(), "duplicate in batch"));
+                continue;
+            }
+            orderedResults.add(argsList.get(i)
+                    .map(args -> results.get(args.getChainObjectId()))
+                    .orElse(BatchItemResult.rejected(chainObjectIdOf.apply(items.get(i)), "invalid arguments")));
+        }
+        return orderedResults;
+    }
+
     /**
      * Trigger blockchain command process by :
      * - firing the corresponding blockchain transaction
@@ -107,6 +198,9 @@ public abstract class CommandEngine<C extends Command<A>, A extends CommandArgs>
                     chainObjectId, args);
             return;
         }
+        // before the final status is visible, so follow-up pre-flights are
+        // pinned at least to the block of this transaction
+        chainReadContext.onTransactionMined(receipt);
         updaterService.updateToFinal(chainObjectId, receipt);
     }
 
@@ -120,4 +214,37 @@ public abstract class CommandEngine<C extends Command<A>, A extends CommandArgs>
         return updaterService.getStatusForCommand(chainObjectId);
     }
 
+    /**
+     * Get current status of several async blockchain commands.
+     *
+     * @param chainObjectIds blockchain object IDs
+     * @return status of known commands by blockchain object ID
+     */
+    public Map<String, Status> getStatusesForCommands(Collection<String> chainObjectIds) {
+        return updaterService.getStatusesForCommands(chainObjectIds);
+    }
+
+    /**
+     * Get a page of commands in creation order.
+     *
+     * @param filter selection of commands
+     * @param after  position of the last command of the previous page,
+     *               null for the first page
+     * @param limit  maximum number of returned commands
+     * @return commands following the cursor
+     */
+    public List<C> getCommands(CommandFilter filter, CommandCursor after, int limit) {
+        return updaterService.getCommands(filter, after, limit);
+    }
+
+    /**
+     * Stream commands in creation order. The stream must be closed.
+     *
+     * @param filter selection of commands
+     * @return lazily read commands
+     */
+    public Stream<C> streamCommands(CommandFilter filter) {
+        return updaterService.streamCommands(filter);
+    }
+
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.tool.Status;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Selection of the commands of a type listed or exported by operators.
+ * Unset criteria match every command.
+ */
+@Value
+@Builder
+public class CommandFilter {
+    Status status;
+    /**
+     * Commands created at or after this date.
+     */
+    Instant from;
+    /**
+     * Commands created strictly before this date.
+     */
+    Instant to;
+
+    boolean matches(Command<?> command) {
+        return (status == null || status == command.getStatus())
+                && (from == null || !command.getCreationDate().isBefore(from))
+                && (to == null || command.getCreationDate().isBefore(to));
+    }
+}
@@ -1,7 +1,10 @@
 package com.iexec.blockchain.command.generic;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CommandRepository<C extends Command<? extends CommandArgs>>
@@ -9,4 +12,12 @@ public interface CommandRepository<C extends Command<? extends CommandArgs>>
 
     Optional<C> findByChainObjectId(String chainObjectId);
 
+    List<C> findByChainObjectIdIn(Collection<String> chainObjectIds);
+
+    /**
+     * Find commands with only their blockchain object ID and status.
+     */
+    @Query(value = "{ 'chainObjectId': { $in: ?0 } }", fields = "{ 'chainObjectId': 1, 'status': 1 }")
+    List<C> findStatusesByChainObjectIdIn(Collection<String> chainObjectIds);
+
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Periodically move finished commands older than the retention period
+ * from the hot collections to their archive collections.
+ */
+@Slf4j
+@Service
+public class CommandRetentionService {
+
+    private final List<CommandStorage<?, ?>> commandStorages;
+    private final boolean enabled;
+    private final Duration period;
+    private final int batchSize;
+
+    public CommandRetentionService(List<CommandStorage<?, ?>> commandStorages,
+                                   @Value("${command.retention.enabled}") boolean enabled,
+                                   @Value("${command.retention.period}") Duration period,
+                                   @Value("${command.retention.batch-size}") int batchSize) {
+        this.commandStorages = commandStorages;
+        this.enabled = enabled;
+        this.period = period;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${command.retention.check-interval}")
+    void archiveFinalCommands() {
+        if (!enabled) {
+            return;
+        }
+        Instant finalBefore = Instant.now().minus(period);
+        for (CommandStorage<?, ?> commandStorage : commandStorages) {
+            String commandType = commandStorage.getCommandType().getSimpleName();
+            int total = 0;
+            int archived;
+            do {
+                archived = commandStorage.archiveFinalCommands(finalBefore, batchSize);
+                total += archived;
+            } while (archived == batchSize);
+            if (total > 0) {
+                log.info("Archived finished commands [type:{}, count:{}, finalBefore:{}]",
+                        commandType, total, finalBefore);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.tool.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+/**
+ * Hold status requests until a command reaches one of the awaited statuses.
+ * <p>
+ * Requests are completed by the {@link CommandTransition} published once the
+ * status is stored, without occupying a request thread while waiting.
+ */
+@Service
+public class CommandStatusAwaitService {
+
+    private final Map<String, List<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    public CommandStatusAwaitService(MeterRegistry meterRegistry) {
+        Gauge.builder("command.status.waiters", waiters,
+                        map -> map.values().stream().mapToInt(List::size).sum())
+                .description("Number of status requests waiting for a command transition")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Wait for a command to reach one of the awaited statuses.
+     * <p>
+     * The request completes with the current status when it already matches,
+     * as soon as a matching transition is stored, or with the current status
+     * on timeout. It completes with {@code 404} on timeout if the command is
+     * still unknown.
+     *
+     * @param commandType     simple name of the command class
+     * @param chainObjectId   blockchain object ID of the command
+     * @param awaitedStatuses statuses completing the request
+     * @param timeout         maximum waiting duration
+     * @param currentStatus   storage read of the current status
+     * @return pending result
+     */
+    public DeferredResult<ResponseEntity<Status>> await(String commandType,
+                                                        String chainObjectId,
+                                                        Set<Status> awaitedStatuses,
+                                                        Duration timeout,
+                                                        Supplier<Optional<Status>> currentStatus) {
+        DeferredResult<ResponseEntity<Status>> result = new DeferredResult<>(timeout.toMillis());
+        String key = getKey(commandType, chainObjectId);
+        Waiter waiter = new Waiter(awaitedStatuses, result);
+        result.onTimeout(() -> result.setResult(toResponse(currentStatus.get())));
+        result.onCompletion(() -> removeWaiter(key, waiter));
+        // register before reading to never miss a transition stored in between
+        waiters.compute(key, (k, commandWaiters) -> {
+            List<Waiter> updatedWaiters = commandWaiters != null ? commandWaiters : new CopyOnWriteArrayList<>();
+            updatedWaiters.add(waiter);
+            return updatedWaiters;
+        });
+        currentStatus.get()
+                .filter(awaitedStatuses::contains)
+                .ifPresent(status -> result.setResult(ResponseEntity.ok(status)));
+        if (result.hasResult()) {
+            removeWaiter(key, waiter);
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onCommandTransition(CommandTransition transition) {
+        String key = getKey(transition.getCommandType(), transition.getChainObjectId());
+        List<Waiter> commandWaiters = waiters.get(key);
+        if (commandWaiters == null) {
+            return;
+        }
+        for (Waiter waiter : commandWaiters) {
+            if (waiter.awaitedStatuses.contains(transition.getStatus())) {
+                waiter.result.setResult(ResponseEntity.ok(transition.getStatus()));
+                removeWaiter(key, waiter);
+            }
+        }
+    }
+
+    int getWaiterCount() {
+        return waiters.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void removeWaiter(String key, Waiter waiter) {
+        waiters.computeIfPresent(key, (k, commandWaiters) -> {
+            commandWaiters.remove(waiter);
+            return commandWaiters.isEmpty() ? null : commandWaiters;
+        });
+    }
+
+    private static ResponseEntity<Status> toResponse(Optional<Status> status) {
+        return status.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static String getKey(String commandType, String chainObjectId) {
+        return commandType + ":" + chainObjectId;
+    }
+
+    private static class Waiter {
+        private final Set<Status> awaitedStatuses;
+        private final DeferredResult<ResponseEntity<Status>> result;
+
+        private Waiter(Set<Status> awaitedStatuses, DeferredResult<ResponseEntity<Status>> result) {
+            this.awaitedStatuses = awaitedStatuses;
+            this.result = result;
+        }
+    }
+
+}
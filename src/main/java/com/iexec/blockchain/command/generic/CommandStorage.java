@@ -17,47 +17,131 @@
 package com.iexec.blockchain.command.generic;
 
 
+import com.iexec.blockchain.metric.StorageCaller;
 import com.iexec.blockchain.tool.Status;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
 import java.time.Instant;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 public abstract class CommandStorage<C extends Command<A>, A extends CommandArgs>
         implements CommandFactory<C> {
 
-    private final CommandRepository<C> commandRepository;
+    private final CommandStore<C> commandStore;
+    private final ApplicationEventPublisher eventPublisher;
 
-    protected CommandStorage(CommandRepository<C> commandRepository) {
-        this.commandRepository = commandRepository;
+    protected CommandStorage(CommandStore<C> commandStore,
+                             ApplicationEventPublisher eventPublisher) {
+        this.commandStore = commandStore;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Locally set status to received and store blockchain command arguments for
-     * future use.
+     * future use. A command already stored in the hot or the archive tier is
+     * not received again.
      *
      * @param args input arguments for the blockchain command
      * @return true on successful update
      */
     public boolean updateToReceived(A args) {
-        String chainObjectId = args.getChainObjectId();
+        return StorageCaller.call("updateToReceived", () -> {
+            String chainObjectId = args.getChainObjectId();
 
-        if (commandRepository.findByChainObjectId(chainObjectId).isPresent()) {
-            return false;
+            if (commandStore.findByChainObjectId(chainObjectId).isPresent()
+                    || commandStore.findArchivedByChainObjectId(chainObjectId).isPresent()) {
+                return false;
+            }
+
+            C command = newReceivedCommand(args, Instant.now());
+            commandStore.save(command);
+            publishTransition(command, command.getCreationDate());
+            return true;
+        });
+    }
+
+    /**
+     * Locally set status to received for a batch of commands with a single
+     * status-only lookup per storage tier and a single insert. Commands
+     * already stored in any tier, or repeated in the batch, are not received
+     * again.
+     *
+     * @param argsList input arguments for the blockchain commands
+     * @return blockchain object IDs of received commands
+     */
+    public Set<String> updateAllToReceived(List<A> argsList) {
+        return StorageCaller.call("updateAllToReceived", () -> {
+            Map<String, A> newArgs = new LinkedHashMap<>();
+            argsList.forEach(args -> newArgs.putIfAbsent(args.getChainObjectId(), args));
+            commandStore.findStatusesByChainObjectIds(newArgs.keySet())
+                    .keySet()
+                    .forEach(newArgs::remove);
+            if (newArgs.isEmpty()) {
+                return Set.of();
+            }
+            Instant creationDate = Instant.now();
+            List<C> commands = newArgs.values().stream()
+                    .map(args -> newReceivedCommand(args, creationDate))
+                    .collect(Collectors.toList());
+            List<C> inserted;
+            try {
+                inserted = commandStore.insertAll(commands);
+            } catch (DuplicateKeyException e) {
+                log.warn("Batch insert of received commands partially failed, " +
+                        "inserting remaining ones one by one [size:{}]", commands.size());
+                inserted = insertRemaining(commands);
+            }
+            inserted.forEach(command -> publishTransition(command, command.getCreationDate()));
+            return inserted.stream()
+                    .map(Command::getChainObjectId)
+                    .collect(Collectors.toSet());
+        });
+    }
+
+    /**
+     * Recover from a partial batch insert: commands stored with the ID given
+     * by this batch were inserted by it, others are saved one by one.
+     */
+    private List<C> insertRemaining(List<C> commands) {
+        Map<String, C> stored = commandStore.findByChainObjectIds(commands.stream()
+                        .map(Command::getChainObjectId)
+                        .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(Command::getChainObjectId, Function.identity()));
+        List<C> inserted = new ArrayList<>();
+        for (C command : commands) {
+            C storedCommand = stored.get(command.getChainObjectId());
+            if (storedCommand == null) {
+                try {
+                    inserted.add(commandStore.save(command));
+                } catch (DuplicateKeyException e) {
+                    log.warn("Command received concurrently [chainObjectId:{}]", command.getChainObjectId());
+                }
+            } else if (Objects.equals(storedCommand.getId(), command.getId())) {
+                inserted.add(storedCommand);
+            }
         }
+        return inserted;
+    }
 
+    private C newReceivedCommand(A args, Instant creationDate) {
         C command = this.newCommandInstance();
+        command.setId(new ObjectId().toHexString());
         command.setStatus(Status.RECEIVED);
-        command.setChainObjectId(chainObjectId);
+        command.setChainObjectId(args.getChainObjectId());
         command.setArgs(args);
-        command.setCreationDate(Instant.now());
-
-        commandRepository.save(command);
-        return true;
+        command.setCreationDate(creationDate);
+        return command;
     }
 
     /**
@@ -68,18 +152,21 @@ public abstract class CommandStorage<C extends Command<A>, A extends CommandArgs
      * @return true on successful update
      */
     public boolean updateToProcessing(String chainObjectId) {
-        Optional<C> localCommand = commandRepository
-                .findByChainObjectId(chainObjectId)
-                .filter(command -> command.getStatus() != null)
-                .filter(command -> command.getStatus() == Status.RECEIVED);
-        if (localCommand.isEmpty()) {
-            return false;
-        }
-        C command = localCommand.get();
-        command.setStatus(Status.PROCESSING);
-        command.setProcessingDate(Instant.now());
-        commandRepository.save(command);
-        return true;
+        return StorageCaller.call("updateToProcessing", () -> {
+            Optional<C> localCommand = commandStore
+                    .findByChainObjectId(chainObjectId)
+                    .filter(command -> command.getStatus() != null)
+                    .filter(command -> command.getStatus() == Status.RECEIVED);
+            if (localCommand.isEmpty()) {
+                return false;
+            }
+            C command = localCommand.get();
+            command.setStatus(Status.PROCESSING);
+            command.setProcessingDate(Instant.now());
+            commandStore.save(command);
+            publishTransition(command, command.getProcessingDate());
+            return true;
+        });
     }
 
     /**
@@ -92,45 +179,123 @@ public abstract class CommandStorage<C extends Command<A>, A extends CommandArgs
      */
     public void updateToFinal(String chainObjectId,
                               @NonNull TransactionReceipt receipt) {
-        Optional<C> localCommand = commandRepository
-                .findByChainObjectId(chainObjectId)
-                .filter(command -> command.getStatus() != null)
-                .filter(command -> command.getStatus() == Status.PROCESSING);
-        if (localCommand.isEmpty()) {
-            return;
-        }
-        C command = localCommand.get();
-
-        Status status;
-        if (StringUtils.isNotEmpty(receipt.getStatus())
-                && receipt.getStatus().equals("0x1")) {
-            status = Status.SUCCESS;
-            log.info("Success command with transaction receipt " +
-                            "[chainObjectId:{}, command:{}, receipt:{}]",
-                    chainObjectId,
-                    command.getClass().getSimpleName(),
-                    receipt);
-        } else {
-            status = Status.FAILURE;
-            log.info("Failure after transaction sent [chainObjectId:{}, " +
-                            "command:{}, receipt:{}]", chainObjectId,
-                    command.getClass().getSimpleName(), receipt);
-        }
-        command.setStatus(status);
-        command.setTransactionReceipt(receipt);
-        command.setFinalDate(Instant.now());
-        commandRepository.save(command);
+        StorageCaller.run("updateToFinal", () -> {
+            Optional<C> localCommand = commandStore
+                    .findByChainObjectId(chainObjectId)
+                    .filter(command -> command.getStatus() != null)
+                    .filter(command -> command.getStatus() == Status.PROCESSING);
+            if (localCommand.isEmpty()) {
+                return;
+            }
+            C command = localCommand.get();
+
+            Status status;
+            if (StringUtils.isNotEmpty(receipt.getStatus())
+                    && receipt.getStatus().equals("0x1")) {
+                status = Status.SUCCESS;
+                log.info("Success command with transaction receipt " +
+                                "[chainObjectId:{}, command:{}, receipt:{}]",
+                        chainObjectId,
+                        command.getClass().getSimpleName(),
+                        receipt);
+            } else {
+                status = Status.FAILURE;
+                log.info("Failure after transaction sent [chainObjectId:{}, " +
+                                "command:{}, receipt:{}]", chainObjectId,
+                        command.getClass().getSimpleName(), receipt);
+            }
+            command.setStatus(status);
+            command.setTransactionReceipt(receipt);
+            command.setFinalDate(Instant.now());
+            commandStore.save(command);
+            publishTransition(command, command.getFinalDate());
+        });
     }
 
     /**
-     * Get status for the initialize task process (which is async)
+     * Get status for the initialize task process (which is async).
+     * The archive tier is only queried when the command is not found
+     * in the hot tier.
      *
      * @param chainObjectId blockchain object ID on which the blockchain command
      *                      is performed
      */
     public Optional<Status> getStatusForCommand(String chainObjectId) {
-        return commandRepository.findByChainObjectId(chainObjectId)
-                .map(Command::getStatus);
+        return StorageCaller.call("getStatusForCommand", () -> {
+            return commandStore.findByChainObjectId(chainObjectId)
+                    .or(() -> commandStore.findArchivedByChainObjectId(chainObjectId))
+                    .map(Command::getStatus);
+        });
+    }
+
+    /**
+     * Get the status of several commands with one lookup per storage tier.
+     *
+     * @param chainObjectIds blockchain object IDs
+     * @return status of known commands by blockchain object ID
+     */
+    public Map<String, Status> getStatusesForCommands(Collection<String> chainObjectIds) {
+        return StorageCaller.call("getStatusesForCommands", () -> {
+            return commandStore.findStatusesByChainObjectIds(chainObjectIds);
+        });
+    }
+
+    /**
+     * Move commands finished before the given date to the archive tier.
+     *
+     * @param finalBefore only commands finished before this date are moved
+     * @param batchSize   maximum number of commands moved by this call
+     * @return number of archived commands
+     */
+    public int archiveFinalCommands(Instant finalBefore, int batchSize) {
+        return StorageCaller.call("archiveFinalCommands", () -> {
+            return commandStore.archiveFinalCommands(finalBefore, batchSize);
+        });
+    }
+
+    /**
+     * Get a page of commands in creation order.
+     *
+     * @param filter selection of commands
+     * @param after  position of the last command of the previous page,
+     *               null for the first page
+     * @param limit  maximum number of returned commands
+     * @return commands following the cursor
+     */
+    public List<C> getCommands(CommandFilter filter, CommandCursor after, int limit) {
+        return StorageCaller.call("getCommands", () -> {
+            return commandStore.findPage(filter, after, limit);
+        });
+    }
+
+    /**
+     * Stream commands in creation order without loading them all in memory.
+     * The stream must be closed.
+     *
+     * @param filter selection of commands
+     * @return lazily read commands
+     */
+    public Stream<C> streamCommands(CommandFilter filter) {
+        return StorageCaller.call("streamCommands", () -> {
+            return commandStore.stream(filter);
+        });
+    }
+
+    private void publishTransition(C command, Instant date) {
+        TransactionReceipt receipt = command.getTransactionReceipt();
+        eventPublisher.publishEvent(CommandTransition.builder()
+                .commandType(command.getClass().getSimpleName())
+                .chainObjectId(command.getChainObjectId())
+                .status(command.getStatus())
+                .date(date)
+                .transactionHash(receipt != null ? receipt.getTransactionHash() : null)
+                .args(command.getArgs())
+                .build());
+    }
+
+    @SuppressWarnings("unchecked")
+    Class<C> getCommandType() {
+        return (Class<C>) newCommandInstance().getClass();
     }
 
 }
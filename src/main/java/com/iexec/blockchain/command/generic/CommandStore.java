@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.tool.Status;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Storage SPI used by {@link CommandStorage} to persist commands of a single type.
+ * <p>
+ * Implementations:
+ * <ul>
+ * <li>{@link MongoCommandStore}: default, backed by MongoDB
+ * <li>{@link EmbeddedCommandStore}: in-process, backed by an append-only log
+ * on the local file system, enabled with the {@code embedded} profile
+ * </ul>
+ *
+ * @param <C> type of the stored command
+ */
+public interface CommandStore<C extends Command<?>> {
+
+    Optional<C> findByChainObjectId(String chainObjectId);
+
+    default List<C> findByChainObjectIds(Collection<String> chainObjectIds) {
+        return chainObjectIds.stream()
+                .map(this::findByChainObjectId)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Insert or update a command. Implementations must honour the optimistic
+     * locking contract of {@link Command#getVersion()}.
+     *
+     * @param command command to save
+     * @return saved command
+     */
+    C save(C command);
+
+    /**
+     * Insert new commands. Implementations may insert them in a single
+     * round trip, a duplicate key may then leave the batch partially inserted.
+     *
+     * @param commands commands to insert
+     * @return inserted commands
+     */
+    default List<C> insertAll(List<C> commands) {
+        return commands.stream()
+                .map(this::save)
+                .collect(Collectors.toList());
+    }
+
+    Optional<C> findArchivedByChainObjectId(String chainObjectId);
+
+    /**
+     * Get the status of several commands, looked up in the archive tier
+     * when missing from the hot one.
+     *
+     * @param chainObjectIds blockchain object IDs of the commands
+     * @return status of known commands by blockchain object ID
+     */
+    default Map<String, Status> findStatusesByChainObjectIds(Collection<String> chainObjectIds) {
+        Map<String, Status> statuses = new HashMap<>();
+        for (String chainObjectId : new LinkedHashSet<>(chainObjectIds)) {
+            findByChainObjectId(chainObjectId)
+                    .or(() -> findArchivedByChainObjectId(chainObjectId))
+                    .ifPresent(command -> statuses.put(chainObjectId, command.getStatus()));
+        }
+        return statuses;
+    }
+
+    /**
+     * Move finished commands to the archive tier.
+     *
+     * @param finalBefore only commands finished before this date are moved
+     * @param batchSize   maximum number of commands moved by this call
+     * @return number of archived commands
+     */
+    int archiveFinalCommands(Instant finalBefore, int batchSize);
+
+    /**
+     * Find a page of commands of the hot tier, in {@link CommandCursor} order.
+     *
+     * @param filter selection of commands
+     * @param after  position of the last command of the previous page,
+     *               null for the first page
+     * @param limit  maximum number of returned commands
+     * @return commands following the cursor
+     */
+    List<C> findPage(CommandFilter filter, CommandCursor after, int limit);
+
+    /**
+     * Stream every command of the hot tier, in {@link CommandCursor} order.
+     * The stream holds storage resources and must be closed.
+     *
+     * @param filter selection of commands
+     * @return lazily read commands
+     */
+    Stream<C> stream(CommandFilter filter);
+
+}
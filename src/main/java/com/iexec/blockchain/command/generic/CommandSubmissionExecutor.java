@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.command.status.TaskCommandType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Run command submissions out of request threads.
+ * <p>
+ * Submissions perform pre-flight reads on the chain and storage writes, a
+ * slow chain node would otherwise hold every request thread of the server.
+ * Each command type gets its own bounded pool, saturating one of them does
+ * not delay submissions of other types nor read endpoints. A submission
+ * exceeding the capacity of its pool is answered with {@code 503}.
+ */
+@Slf4j
+@Service
+public class CommandSubmissionExecutor {
+
+    static final String METRIC_NAME = "command.submission";
+    static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Map<TaskCommandType, ExecutorService> executors = new EnumMap<>(TaskCommandType.class);
+    private final Map<TaskCommandType, Counter> rejectedSubmissions = new EnumMap<>(TaskCommandType.class);
+
+    public CommandSubmissionExecutor(MeterRegistry meterRegistry,
+                                     @Value("${command.submission.threads}") int threads,
+                                     @Value("${command.submission.queue-size}") int queueSize) {
+        for (TaskCommandType commandType : TaskCommandType.values()) {
+            Tags tags = Tags.of("command", commandType.getCommandName());
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueSize));
+            executors.put(commandType, ExecutorServiceMetrics.monitor(meterRegistry, executor, METRIC_NAME, tags));
+            rejectedSubmissions.put(commandType, Counter.builder(METRIC_NAME + ".rejected")
+                    .description("Number of command submissions rejected because their pool was saturated")
+                    .tags(tags)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Let accepted submissions finish, so that no command is left between
+     * its pre-flight checks and its storage. Submissions still running after
+     * {@value #SHUTDOWN_TIMEOUT_SECONDS} seconds are interrupted.
+     */
+    @PreDestroy
+    void shutdown() {
+        executors.values().forEach(ExecutorService::shutdown);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+        try {
+            for (ExecutorService executor : executors.values()) {
+                if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    log.warn("Command submissions still running after shutdown timeout, interrupting them");
+                    executors.values().forEach(ExecutorService::shutdownNow);
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            executors.values().forEach(ExecutorService::shutdownNow);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Run a submission on the pool of its command type.
+     *
+     * @param commandType type of the submitted command
+     * @param submission  pre-flight checks and storage of the command
+     * @param <T>         type of the response body
+     * @return pending response, or {@code 503} if the pool is saturated
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> submit(TaskCommandType commandType,
+                                                           Supplier<ResponseEntity<T>> submission) {
+        try {
+            return CompletableFuture.supplyAsync(submission, executors.get(commandType));
+        } catch (RejectedExecutionException e) {
+            log.warn("Command submission rejected, pool is saturated [commandType:{}]", commandType);
+            rejectedSubmissions.get(commandType).increment();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.tool.Status;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Application event published by {@link CommandStorage} once a command
+ * status change has been stored.
+ */
+@Value
+@Builder
+public class CommandTransition {
+    /**
+     * Simple name of the command class, e.g. {@code TaskInitialize}.
+     */
+    String commandType;
+    String chainObjectId;
+    Status status;
+    Instant date;
+    /**
+     * Only available for final transitions.
+     */
+    String transactionHash;
+    CommandArgs args;
+}
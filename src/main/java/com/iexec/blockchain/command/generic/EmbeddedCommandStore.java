@@ -0,0 +1,359 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * In-process {@link CommandStore} for single-node deployments.
+ * <p>
+ * Every write is appended as a JSON line to a log file and applied to an
+ * in-memory index keyed by {@code chainObjectId}. Reads are served from the
+ * index only. The index is periodically written to a snapshot file, after
+ * which the log is truncated. On startup, the snapshot is loaded and the log
+ * is replayed on top of it.
+ * <p>
+ * Commands are mapped to BSON documents with the same {@link MongoConverter}
+ * as the MongoDB store, so both stores share the same persistent format.
+ */
+@Slf4j
+public class EmbeddedCommandStore<C extends Command<?>> implements CommandStore<C>, Closeable {
+
+    private static final String OPERATION = "op";
+    private static final String DOCUMENT = "doc";
+    private static final String CHAIN_OBJECT_ID = "chainObjectId";
+    private static final String FINAL_DATE = "finalDate";
+    private static final String SAVE = "save";
+    private static final String ARCHIVE = "archive";
+    private static final String ARCHIVED = "archived";
+    private static final JsonWriterSettings JSON_WRITER_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    private final Class<C> commandType;
+    private final MongoConverter converter;
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final Duration archiveExpiry;
+    private final Map<String, Document> commands = new ConcurrentHashMap<>();
+    private final Map<String, Document> archivedCommands = new ConcurrentHashMap<>();
+    private BufferedWriter logWriter;
+    private long logSize;
+
+    public EmbeddedCommandStore(Class<C> commandType,
+                                MongoConverter converter,
+                                Path directory) throws IOException {
+        this(commandType, converter, directory, Duration.ZERO);
+    }
+
+    /**
+     * @param archiveExpiry archived commands finished for longer are dropped
+     *                      on the next snapshot, {@code 0} to keep them forever
+     */
+    public EmbeddedCommandStore(Class<C> commandType,
+                                MongoConverter converter,
+                                Path directory,
+                                Duration archiveExpiry) throws IOException {
+        this.commandType = commandType;
+        this.converter = converter;
+        this.archiveExpiry = archiveExpiry;
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve(commandType.getSimpleName() + ".log");
+        this.snapshotFile = directory.resolve(commandType.getSimpleName() + ".snapshot");
+        replay(snapshotFile);
+        logSize = replay(logFile);
+        logWriter = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8, CREATE, APPEND);
+        log.info("Loaded embedded command store [type:{}, commands:{}, archived:{}, logSize:{}]",
+                commandType.getSimpleName(), commands.size(), archivedCommands.size(), logSize);
+    }
+
+    /**
+     * Create a converter with the same mapping as the MongoDB one but
+     * without any connection to a database.
+     *
+     * @return standalone converter
+     */
+    public static MongoConverter createStandaloneConverter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter =
+                new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    @Override
+    public Optional<C> findByChainObjectId(String chainObjectId) {
+        return Optional.ofNullable(commands.get(chainObjectId))
+                .map(document -> converter.read(commandType, document));
+    }
+
+    @Override
+    public synchronized C save(C command) {
+        String chainObjectId = command.getChainObjectId();
+        Long storedVersion = findByChainObjectId(chainObjectId)
+                .map(Command::getVersion)
+                .orElse(null);
+        if (command.getVersion() == null) {
+            if (commands.containsKey(chainObjectId)) {
+                throw new DuplicateKeyException("Command already exists [chainObjectId:" + chainObjectId + "]");
+            }
+            if (command.getId() == null) {
+                command.setId(new ObjectId().toHexString());
+            }
+            command.setVersion(0L);
+        } else if (!command.getVersion().equals(storedVersion)) {
+            throw new OptimisticLockingFailureException("Command was updated concurrently [chainObjectId:"
+                    + chainObjectId + ", version:" + command.getVersion() + "]");
+        } else {
+            command.setVersion(command.getVersion() + 1);
+        }
+        Document document = new Document();
+        converter.write(command, document);
+        append(new Document(OPERATION, SAVE).append(DOCUMENT, document));
+        commands.put(chainObjectId, document);
+        return command;
+    }
+
+    @Override
+    public Optional<C> findArchivedByChainObjectId(String chainObjectId) {
+        return Optional.ofNullable(archivedCommands.get(chainObjectId))
+                .map(document -> converter.read(commandType, document));
+    }
+
+    @Override
+    public synchronized int archiveFinalCommands(Instant finalBefore, int batchSize) {
+        List<String> chainObjectIds = commands.values().stream()
+                .map(document -> converter.read(commandType, document))
+                .filter(command -> CommandArchive.FINAL_STATUSES.contains(command.getStatus()))
+                .filter(command -> command.getFinalDate() != null
+                        && command.getFinalDate().isBefore(finalBefore))
+                .limit(batchSize)
+                .map(Command::getChainObjectId)
+                .collect(Collectors.toList());
+        for (String chainObjectId : chainObjectIds) {
+            append(new Document(OPERATION, ARCHIVE).append(CHAIN_OBJECT_ID, chainObjectId));
+            archive(chainObjectId);
+        }
+        return chainObjectIds.size();
+    }
+
+    /**
+     * Filter and sort the whole index, the embedded store being meant for
+     * the command volumes of a single node.
+     */
+    @Override
+    public List<C> findPage(CommandFilter filter, CommandCursor after, int limit) {
+        return stream(filter)
+                .filter(command -> after == null || after.isBefore(command))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<C> stream(CommandFilter filter) {
+        return commands.values().stream()
+                .map(document -> converter.read(commandType, document))
+                .filter(filter::matches)
+                .sorted(CommandCursor.ORDER);
+    }
+
+    /**
+     * Read every command still kept, archived ones included, in no
+     * particular order.
+     */
+    public Stream<C> streamWithArchived() {
+        return Stream.concat(commands.values().stream(), archivedCommands.values().stream())
+                .map(document -> converter.read(commandType, document));
+    }
+
+    /**
+     * Write the whole index to a new snapshot file, then truncate the log.
+     * <p>
+     * The snapshot is written to a temporary file first and atomically moved
+     * over the previous one, so a crash never leaves a partial snapshot. If a
+     * crash happens before the log is truncated, replaying the log on top of
+     * the new snapshot is harmless since every operation is idempotent.
+     * <p>
+     * Archived commands older than the archive expiry are left out of the
+     * snapshot, as the MongoDB TTL index does for the archive collections.
+     */
+    @Scheduled(fixedDelayString = "${command.store.embedded.snapshot-interval}")
+    public synchronized void snapshot() {
+        int expired = dropExpiredArchivedCommands();
+        if (logSize == 0 && expired == 0) {
+            return;
+        }
+        Path tmpFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8,
+                    CREATE, TRUNCATE_EXISTING, WRITE)) {
+                for (Document document : commands.values()) {
+                    writeLine(writer, new Document(OPERATION, SAVE).append(DOCUMENT, document));
+                }
+                for (Document document : archivedCommands.values()) {
+                    writeLine(writer, new Document(OPERATION, ARCHIVED).append(DOCUMENT, document));
+                }
+            }
+            Files.move(tmpFile, snapshotFile, ATOMIC_MOVE, REPLACE_EXISTING);
+            logWriter.close();
+            logWriter = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8,
+                    CREATE, TRUNCATE_EXISTING, WRITE);
+            log.info("Snapshot of embedded command store written [type:{}, commands:{}, archived:{}, " +
+                            "expired:{}, compactedLogSize:{}]", commandType.getSimpleName(),
+                    commands.size(), archivedCommands.size(), expired, logSize);
+            logSize = 0;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to snapshot embedded command store [type:"
+                    + commandType.getSimpleName() + "]", e);
+        }
+    }
+
+    /**
+     * Drop archived commands from memory only: if the next snapshot is not
+     * written, they are replayed on restart and dropped again.
+     *
+     * @return number of dropped commands
+     */
+    private int dropExpiredArchivedCommands() {
+        if (archiveExpiry.isZero()) {
+            return 0;
+        }
+        Date expiryDate = Date.from(Instant.now().minus(archiveExpiry));
+        List<String> expired = archivedCommands.entrySet().stream()
+                .filter(entry -> {
+                    Date finalDate = entry.getValue().getDate(FINAL_DATE);
+                    return finalDate != null && finalDate.before(expiryDate);
+                })
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        expired.forEach(archivedCommands::remove);
+        return expired.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        logWriter.close();
+    }
+
+    private void append(Document record) {
+        try {
+            writeLine(logWriter, record);
+            logWriter.flush();
+            logSize++;
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Failed to append to embedded command store log [type:"
+                    + commandType.getSimpleName() + "]", e);
+        }
+    }
+
+    private void writeLine(BufferedWriter writer, Document record) throws IOException {
+        writer.write(record.toJson(JSON_WRITER_SETTINGS));
+        writer.newLine();
+    }
+
+    /**
+     * Apply every record of a file to the in-memory index.
+     * A truncated last line, left by a crash during a write, is skipped.
+     *
+     * @return number of applied records
+     */
+    private long replay(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    apply(Document.parse(line));
+                    count++;
+                } catch (JsonParseException e) {
+                    log.warn("Skipping corrupted record in embedded command store [file:{}]", file, e);
+                }
+            }
+        }
+        return count;
+    }
+
+    private void apply(Document record) {
+        String operation = record.getString(OPERATION);
+        if (SAVE.equals(operation)) {
+            Document document = record.get(DOCUMENT, Document.class);
+            commands.put(document.getString(CHAIN_OBJECT_ID), document);
+        } else if (ARCHIVED.equals(operation)) {
+            Document document = record.get(DOCUMENT, Document.class);
+            archivedCommands.put(document.getString(CHAIN_OBJECT_ID), document);
+        } else if (ARCHIVE.equals(operation)) {
+            archive(record.getString(CHAIN_OBJECT_ID));
+        } else {
+            log.warn("Unknown record in embedded command store [type:{}, operation:{}]",
+                    commandType.getSimpleName(), operation);
+        }
+    }
+
+    private void archive(String chainObjectId) {
+        Document document = commands.remove(chainObjectId);
+        if (Objects.nonNull(document)) {
+            archivedCommands.put(chainObjectId, document);
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.tool.Status;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.StreamUtils;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * {@link CommandStore} backed by a MongoDB collection, finished commands
+ * being moved to a {@link CommandArchive} collection.
+ * <p>
+ * Commands are listed in creation order with keyset pagination on
+ * {@code (creationDate, _id)}, served by compound indexes with and without
+ * a leading {@code status}. A {@code (status, finalDate)} index serves the
+ * selection of finished commands to archive.
+ */
+public class MongoCommandStore<C extends Command<?>> implements CommandStore<C> {
+
+    private final Class<C> commandType;
+    private final CommandRepository<C> commandRepository;
+    private final CommandArchive commandArchive;
+    private final MongoTemplate mongoTemplate;
+
+    public MongoCommandStore(Class<C> commandType,
+                             CommandRepository<C> commandRepository,
+                             CommandArchive commandArchive,
+                             MongoTemplate mongoTemplate) {
+        this.commandType = commandType;
+        this.commandRepository = commandRepository;
+        this.commandArchive = commandArchive;
+        this.mongoTemplate = mongoTemplate;
+        mongoTemplate.indexOps(commandType)
+                .ensureIndex(new Index()
+                        .on("status", Sort.Direction.ASC)
+                        .on("creationDate", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC));
+        mongoTemplate.indexOps(commandType)
+                .ensureIndex(new Index()
+                        .on("creationDate", Sort.Direction.ASC)
+                        .on("_id", Sort.Direction.ASC));
+        mongoTemplate.indexOps(commandType)
+                .ensureIndex(new Index()
+                        .on("status", Sort.Direction.ASC)
+                        .on("finalDate", Sort.Direction.ASC));
+    }
+
+    @Override
+    public Optional<C> findByChainObjectId(String chainObjectId) {
+        return commandRepository.findByChainObjectId(chainObjectId);
+    }
+
+    @Override
+    public List<C> findByChainObjectIds(Collection<String> chainObjectIds) {
+        return commandRepository.findByChainObjectIdIn(chainObjectIds);
+    }
+
+    @Override
+    public C save(C command) {
+        return commandRepository.save(command);
+    }
+
+    /**
+     * Insert commands with a single {@code insertMany}.
+     */
+    @Override
+    public List<C> insertAll(List<C> commands) {
+        return commandRepository.insert(commands);
+    }
+
+    @Override
+    public Optional<C> findArchivedByChainObjectId(String chainObjectId) {
+        return commandArchive.findByChainObjectId(commandType, chainObjectId);
+    }
+
+    /**
+     * One {@code $in} query with a status-only projection on the hot
+     * collection, then one on the archive collection for missing commands.
+     */
+    @Override
+    public Map<String, Status> findStatusesByChainObjectIds(Collection<String> chainObjectIds) {
+        Map<String, Status> statuses = commandRepository.findStatusesByChainObjectIdIn(chainObjectIds).stream()
+                .collect(Collectors.toMap(Command::getChainObjectId, Command::getStatus, (a, b) -> a, HashMap::new));
+        List<String> missing = chainObjectIds.stream()
+                .filter(chainObjectId -> !statuses.containsKey(chainObjectId))
+                .distinct()
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            statuses.putAll(commandArchive.findStatusesByChainObjectIds(commandType, missing));
+        }
+        return statuses;
+    }
+
+    @Override
+    public int archiveFinalCommands(Instant finalBefore, int batchSize) {
+        return commandArchive.archiveFinalCommands(commandType, finalBefore, batchSize);
+    }
+
+    @Override
+    public List<C> findPage(CommandFilter filter, CommandCursor after, int limit) {
+        return mongoTemplate.find(toQuery(filter, after).limit(limit), commandType);
+    }
+
+    /**
+     * Read commands from a single cursor, fetched in batches by the driver.
+     */
+    @Override
+    public Stream<C> stream(CommandFilter filter) {
+        return StreamUtils.createStreamFromIterator(
+                mongoTemplate.stream(toQuery(filter, null), commandType));
+    }
+
+    private Query toQuery(CommandFilter filter, CommandCursor after) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getStatus() != null) {
+            criteria.add(where("status").is(filter.getStatus()));
+        }
+        if (filter.getFrom() != null) {
+            criteria.add(where("creationDate").gte(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            criteria.add(where("creationDate").lt(filter.getTo()));
+        }
+        if (after != null) {
+            criteria.add(new Criteria().orOperator(
+                    where("creationDate").gt(after.getCreationDate()),
+                    where("creationDate").is(after.getCreationDate()).and("id").gt(after.getId())));
+        }
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria.toArray(new Criteria[0])));
+        return query.with(Sort.by("creationDate", "id"));
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iexec.blockchain.command.task;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iexec.blockchain.command.generic.Command;
+import com.iexec.blockchain.command.generic.CommandCursor;
+import com.iexec.blockchain.command.generic.CommandFilter;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.tool.Status;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.iexec.blockchain.swagger.OpenApiConfig.SWAGGER_BASIC_AUTH;
+
+@RestController
+@RequestMapping("/commands")
+public class CommandController {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final TaskCommandEngines taskCommandEngines;
+    private final ObjectMapper objectMapper;
+
+    public CommandController(TaskCommandEngines taskCommandEngines,
+                             ObjectMapper objectMapper) {
+        this.taskCommandEngines = taskCommandEngines;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * List commands of a type in creation order. Archived commands are not listed.
+     *
+     * @param type   type of the listed commands
+     * @param status only list commands with this status
+     * @param from   only list commands created at or after this date
+     * @param to     only list commands created before this date
+     * @param cursor {@code nextCursor} of the previous page, absent for the first page
+     * @param limit  maximum number of returned commands, capped to {@value #MAX_LIMIT}
+     * @return page of commands
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping
+    public ResponseEntity<CommandPage> getCommands(
+            @RequestParam TaskCommandType type,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + MAX_LIMIT) int limit) {
+        if (limit <= 0 || isInvalidRange(from, to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        CommandCursor after;
+        try {
+            after = cursor != null ? CommandCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.min(limit, MAX_LIMIT);
+        List<? extends Command<?>> commands = taskCommandEngines.get(type)
+                .getCommands(toFilter(status, from, to), after, pageSize);
+        String nextCursor = commands.size() == pageSize
+                ? CommandCursor.of(commands.get(commands.size() - 1)).encode()
+                : null;
+        return ResponseEntity.ok(new CommandPage(commands, nextCursor));
+    }
+
+    /**
+     * Export commands of a type in creation order as newline-delimited JSON.
+     * <p>
+     * Commands are written to the response as they are read from the storage
+     * cursor, the export runs in constant memory whatever its size.
+     *
+     * @param type     type of the exported commands
+     * @param status   only export commands with this status
+     * @param from     only export commands created at or after this date
+     * @param to       only export commands created before this date
+     * @param response response the commands are written to
+     * @throws IOException if the client disconnects during the export
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportCommands(
+            @RequestParam TaskCommandType type,
+            @RequestParam(required = false) Status status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            HttpServletResponse response) throws IOException {
+        if (isInvalidRange(from, to)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        try (Stream<? extends Command<?>> commands = taskCommandEngines.get(type)
+                .streamCommands(toFilter(status, from, to))) {
+            Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+            Iterator<? extends Command<?>> iterator = commands.iterator();
+            while (iterator.hasNext()) {
+                writer.write(objectMapper.writeValueAsString(iterator.next()));
+                writer.write('\n');
+            }
+            writer.flush();
+        }
+    }
+
+    private static boolean isInvalidRange(Instant from, Instant to) {
+        return from != null && to != null && !from.isBefore(to);
+    }
+
+    private static CommandFilter toFilter(Status status, Instant from, Instant to) {
+        return CommandFilter.builder()
+                .status(status)
+                .from(from)
+                .to(to)
+                .build();
+    }
+
+}
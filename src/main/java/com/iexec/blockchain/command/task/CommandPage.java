@@ -0,0 +1,33 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iexec.blockchain.command.task;
+
+import com.iexec.blockchain.command.generic.Command;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Page of commands listed in creation order.
+ */
+@Value
+public class CommandPage {
+    List<? extends Command<?>> commands;
+    /**
+     * Cursor to pass to get the next page, null when the page is not full.
+     */
+    String nextCursor;
+}
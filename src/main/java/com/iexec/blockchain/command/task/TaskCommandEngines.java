@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.task;
+
+import com.iexec.blockchain.command.generic.CommandEngine;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.contribute.TaskContributeService;
+import com.iexec.blockchain.command.task.finalize.TaskFinalizeService;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeService;
+import com.iexec.blockchain.command.task.reveal.TaskRevealService;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Command engine of each task command type, for endpoints handling every
+ * type alike.
+ */
+@Component
+public class TaskCommandEngines {
+
+    private final Map<TaskCommandType, CommandEngine<?, ?>> commandEngines = new EnumMap<>(TaskCommandType.class);
+
+    public TaskCommandEngines(TaskInitializeService taskInitializeService,
+                              TaskContributeService taskContributeService,
+                              TaskRevealService taskRevealService,
+                              TaskFinalizeService taskFinalizeService) {
+        commandEngines.put(TaskCommandType.INITIALIZE, taskInitializeService);
+        commandEngines.put(TaskCommandType.CONTRIBUTE, taskContributeService);
+        commandEngines.put(TaskCommandType.REVEAL, taskRevealService);
+        commandEngines.put(TaskCommandType.FINALIZE, taskFinalizeService);
+    }
+
+    /**
+     * @param commandType type of the commands
+     * @return engine of the commands of this type
+     */
+    public CommandEngine<?, ?> get(TaskCommandType commandType) {
+        return commandEngines.get(commandType);
+    }
+
+}
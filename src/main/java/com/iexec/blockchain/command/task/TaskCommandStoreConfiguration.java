@@ -0,0 +1,127 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.task;
+
+import com.iexec.blockchain.command.generic.CommandArchive;
+import com.iexec.blockchain.command.generic.CommandStore;
+import com.iexec.blockchain.command.generic.EmbeddedCommandStore;
+import com.iexec.blockchain.command.generic.MongoCommandStore;
+import com.iexec.blockchain.command.task.contribute.TaskContribute;
+import com.iexec.blockchain.command.task.contribute.TaskContributeRepository;
+import com.iexec.blockchain.command.task.finalize.TaskFinalize;
+import com.iexec.blockchain.command.task.finalize.TaskFinalizeRepository;
+import com.iexec.blockchain.command.task.initialize.TaskInitialize;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeRepository;
+import com.iexec.blockchain.command.task.reveal.TaskReveal;
+import com.iexec.blockchain.command.task.reveal.TaskRevealRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Select the {@link CommandStore} implementation backing task commands.
+ * <p>
+ * MongoDB is used by default. The {@code embedded} profile switches to
+ * {@link EmbeddedCommandStore} and disables MongoDB auto-configuration.
+ */
+public class TaskCommandStoreConfiguration {
+
+    private TaskCommandStoreConfiguration() {
+    }
+
+    @Configuration
+    @Profile("!embedded")
+    static class Mongo {
+
+        @Bean
+        CommandStore<TaskInitialize> taskInitializeStore(TaskInitializeRepository repository,
+                                                         CommandArchive commandArchive,
+                                                         MongoTemplate mongoTemplate) {
+            return new MongoCommandStore<>(TaskInitialize.class, repository, commandArchive, mongoTemplate);
+        }
+
+        @Bean
+        CommandStore<TaskContribute> taskContributeStore(TaskContributeRepository repository,
+                                                         CommandArchive commandArchive,
+                                                         MongoTemplate mongoTemplate) {
+            return new MongoCommandStore<>(TaskContribute.class, repository, commandArchive, mongoTemplate);
+        }
+
+        @Bean
+        CommandStore<TaskReveal> taskRevealStore(TaskRevealRepository repository,
+                                                 CommandArchive commandArchive,
+                                                 MongoTemplate mongoTemplate) {
+            return new MongoCommandStore<>(TaskReveal.class, repository, commandArchive, mongoTemplate);
+        }
+
+        @Bean
+        CommandStore<TaskFinalize> taskFinalizeStore(TaskFinalizeRepository repository,
+                                                     CommandArchive commandArchive,
+                                                     MongoTemplate mongoTemplate) {
+            return new MongoCommandStore<>(TaskFinalize.class, repository, commandArchive, mongoTemplate);
+        }
+
+    }
+
+    @Configuration
+    @Profile("embedded")
+    static class Embedded {
+
+        private final Path directory;
+        private final Duration archiveExpiry;
+
+        Embedded(@Value("${command.store.embedded.directory}") Path directory,
+                 @Value("${command.retention.archive-expiry}") Duration archiveExpiry) {
+            this.directory = directory;
+            this.archiveExpiry = archiveExpiry;
+        }
+
+        @Bean
+        MongoConverter embeddedCommandConverter() {
+            return EmbeddedCommandStore.createStandaloneConverter();
+        }
+
+        @Bean
+        EmbeddedCommandStore<TaskInitialize> taskInitializeStore(MongoConverter converter) throws IOException {
+            return new EmbeddedCommandStore<>(TaskInitialize.class, converter, directory, archiveExpiry);
+        }
+
+        @Bean
+        EmbeddedCommandStore<TaskContribute> taskContributeStore(MongoConverter converter) throws IOException {
+            return new EmbeddedCommandStore<>(TaskContribute.class, converter, directory, archiveExpiry);
+        }
+
+        @Bean
+        EmbeddedCommandStore<TaskReveal> taskRevealStore(MongoConverter converter) throws IOException {
+            return new EmbeddedCommandStore<>(TaskReveal.class, converter, directory, archiveExpiry);
+        }
+
+        @Bean
+        EmbeddedCommandStore<TaskFinalize> taskFinalizeStore(MongoConverter converter) throws IOException {
+            return new EmbeddedCommandStore<>(TaskFinalize.class, converter, directory, archiveExpiry);
+        }
+
+    }
+
+}
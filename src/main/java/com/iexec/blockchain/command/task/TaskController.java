@@ -16,20 +16,47 @@
 
 package com.iexec.blockchain.command.task;
 
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskBatchItem;
+import com.iexec.blockchain.command.batch.TaskInitializeBatchItem;
+import com.iexec.blockchain.command.generic.CommandEngine;
+import com.iexec.blockchain.command.generic.CommandStatusAwaitService;
+import com.iexec.blockchain.command.generic.CommandSubmissionExecutor;
+import com.iexec.blockchain.command.status.CommandStatusQuery;
+import com.iexec.blockchain.command.status.CommandStatusResult;
+import com.iexec.blockchain.command.status.TaskCommandType;
 import com.iexec.blockchain.command.task.contribute.TaskContributeService;
 import com.iexec.blockchain.command.task.finalize.TaskFinalizeService;
 import com.iexec.blockchain.command.task.initialize.TaskInitializeService;
 import com.iexec.blockchain.command.task.reveal.TaskRevealService;
+import com.iexec.blockchain.lifecycle.TaskLifecycle;
+import com.iexec.blockchain.lifecycle.TaskLifecycleService;
+import com.iexec.blockchain.tool.ChainConfig;
+import com.iexec.blockchain.tool.ETags;
 import com.iexec.blockchain.tool.IexecHubService;
 import com.iexec.blockchain.tool.Status;
+import com.iexec.blockchain.webhook.WebhookService;
+import com.iexec.blockchain.webhook.WebhookSubscription;
 import com.iexec.common.chain.adapter.args.TaskContributeArgs;
 import com.iexec.common.chain.adapter.args.TaskFinalizeArgs;
 import com.iexec.common.chain.adapter.args.TaskRevealArgs;
 import com.iexec.commons.poco.chain.ChainTask;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static com.iexec.blockchain.swagger.OpenApiConfig.SWAGGER_BASIC_AUTH;
 
@@ -37,57 +64,148 @@ import static com.iexec.blockchain.swagger.OpenApiConfig.SWAGGER_BASIC_AUTH;
 @RequestMapping("/tasks")
 public class TaskController {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+    static final Duration MAX_AWAIT_TIMEOUT = Duration.ofMinutes(5);
+
     private final IexecHubService iexecHubService;
     private final TaskInitializeService taskInitializeService;
     private final TaskContributeService taskContributeService;
     private final TaskRevealService taskRevealService;
     private final TaskFinalizeService taskFinalizeService;
+    private final TaskCommandEngines taskCommandEngines;
+    private final TaskLifecycleService taskLifecycleService;
+    private final CommandStatusAwaitService commandStatusAwaitService;
+    private final CommandSubmissionExecutor commandSubmissionExecutor;
+    private final WebhookService webhookService;
+    private final CacheControl taskCacheControl;
 
-    public TaskController(IexecHubService iexecHubService,
+    public TaskController(ChainConfig chainConfig,
+                          IexecHubService iexecHubService,
                           TaskInitializeService taskInitializeService,
                           TaskContributeService taskContributeService,
                           TaskRevealService taskRevealService,
-                          TaskFinalizeService taskFinalizeService) {
+                          TaskFinalizeService taskFinalizeService,
+                          TaskCommandEngines taskCommandEngines,
+                          TaskLifecycleService taskLifecycleService,
+                          CommandStatusAwaitService commandStatusAwaitService,
+                          CommandSubmissionExecutor commandSubmissionExecutor,
+                          WebhookService webhookService) {
         this.iexecHubService = iexecHubService;
         this.taskInitializeService = taskInitializeService;
         this.taskContributeService = taskContributeService;
         this.taskRevealService = taskRevealService;
         this.taskFinalizeService = taskFinalizeService;
+        this.taskCommandEngines = taskCommandEngines;
+        this.taskLifecycleService = taskLifecycleService;
+        this.commandStatusAwaitService = commandStatusAwaitService;
+        this.commandSubmissionExecutor = commandSubmissionExecutor;
+        this.webhookService = webhookService;
+        this.taskCacheControl = CacheControl.maxAge(chainConfig.getBlockTime(), TimeUnit.SECONDS)
+                .cachePrivate();
     }
 
     /**
      * Read task metadata on the blockchain.
+     * <p>
+     * The response carries a strong ETag built from the task status and the
+     * block identifying its state. A request whose {@code If-None-Match}
+     * header matches it gets a {@code 304} without body. Responses may be
+     * cached for one block time.
      *
      * @param chainTaskId blockchain ID of the task
+     * @param ifNoneMatch ETags of the task held by the caller
      * @return task metadata
      */
     @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
     @GetMapping("/{chainTaskId}")
     public ResponseEntity<ChainTask> getTask(
+            @PathVariable String chainTaskId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<ChainTask> chainTask = iexecHubService.getChainTask(chainTaskId);
+        if (chainTask.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String eTag = "\"" + chainTask.get().getStatus() + "-"
+                + iexecHubService.getChainTaskVersion(chainTaskId) + "\"";
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(taskCacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(taskCacheControl)
+                .body(chainTask.get());
+    }
+
+    /**
+     * Read the status of every command submitted for a task.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @return status, dates and transaction hash of each command
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping("/{chainTaskId}/lifecycle")
+    public ResponseEntity<TaskLifecycle> getTaskLifecycle(
             @PathVariable String chainTaskId) {
-        return iexecHubService.getChainTask(chainTaskId)
+        return taskLifecycleService.getTaskLifecycle(chainTaskId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Read statuses of several asynchronous task commands, with one storage
+     * lookup per command type.
+     *
+     * @param queries command type and blockchain task ID of each command
+     * @return status of each command, null if unknown, in the order of the request
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @PostMapping("/status")
+    public ResponseEntity<List<CommandStatusResult>> getStatusesForTaskRequests(
+            @RequestBody List<CommandStatusQuery> queries) {
+        if (queries.size() > MAX_BATCH_SIZE
+                || queries.stream().anyMatch(query -> query.getCommandType() == null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<TaskCommandType, Map<String, Status>> statuses = queries.stream()
+                .collect(Collectors.groupingBy(CommandStatusQuery::getCommandType,
+                        () -> new EnumMap<>(TaskCommandType.class),
+                        Collectors.mapping(CommandStatusQuery::getChainTaskId, Collectors.toSet())))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        entry -> taskCommandEngines.get(entry.getKey()).getStatusesForCommands(entry.getValue())));
+        return ResponseEntity.ok(queries.stream()
+                .map(query -> new CommandStatusResult(query.getCommandType(), query.getChainTaskId(),
+                        statuses.get(query.getCommandType()).get(query.getChainTaskId())))
+                .collect(Collectors.toList()));
+    }
+
     /**
      * Start the asynchronous `initialize task` blockchain remote call.
      *
      * @param chainDealId blockchain deal ID
      * @param taskIndex   index of the task int the bag
+     * @param callbackUrl URL called back once the command is final
      * @return blockchain task ID if successful
      */
     @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
     @PostMapping("/initialize")
-    public ResponseEntity<String> requestInitializeTask(
+    public CompletableFuture<ResponseEntity<String>> requestInitializeTask(
             @RequestParam String chainDealId,
-            @RequestParam int taskIndex) {
-        String chainTaskId =
-                taskInitializeService.start(chainDealId, taskIndex);
-        if (!chainTaskId.isEmpty()) {
-            return ResponseEntity.ok(chainTaskId);
+            @RequestParam int taskIndex,
+            @RequestParam(required = false) String callbackUrl) {
+        if (isInvalidCallbackUrl(callbackUrl)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        Optional<String> chainTaskId = taskInitializeService.getChainTaskId(chainDealId, taskIndex);
+        if (chainTaskId.isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
-        return ResponseEntity.badRequest().build();
+        return commandSubmissionExecutor.submit(TaskCommandType.INITIALIZE,
+                () -> startWithCallback(callbackUrl, TaskCommandType.INITIALIZE, chainTaskId.get(),
+                        () -> taskInitializeService.start(chainDealId, taskIndex)));
     }
 
     /**
@@ -105,22 +223,69 @@ public class TaskController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Wait for the asynchronous `initialize task` blockchain remote call to reach
+     * one of the awaited statuses, without holding a request thread.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @param await       awaited statuses
+     * @param timeout     maximum waiting duration, e.g. {@code 30s}
+     * @return awaited status, or current status on timeout
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping(value = "/initialize/{chainTaskId}/status", params = "await")
+    public DeferredResult<ResponseEntity<Status>> awaitStatusForInitializeTaskRequest(
+            @PathVariable String chainTaskId,
+            @RequestParam Set<Status> await,
+            @RequestParam(defaultValue = "30s") String timeout) {
+        return awaitStatus(TaskCommandType.INITIALIZE, taskInitializeService, chainTaskId, await, timeout);
+    }
+
+    /**
+     * Start a batch of asynchronous `initialize task` blockchain remote calls.
+     *
+     * @param items       blockchain deal ID and task index of each task
+     * @param callbackUrl URL called back once each accepted command is final
+     * @return result of each item, in the order of the batch
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @PostMapping("/initialize/batch")
+    public CompletableFuture<ResponseEntity<List<BatchItemResult>>> requestInitializeTasks(
+            @RequestBody List<TaskInitializeBatchItem> items,
+            @RequestParam(required = false) String callbackUrl) {
+        if (items.size() > MAX_BATCH_SIZE || isInvalidCallbackUrl(callbackUrl)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return commandSubmissionExecutor.submit(TaskCommandType.INITIALIZE,
+                () -> ResponseEntity.ok(startWithCallbacks(callbackUrl, TaskCommandType.INITIALIZE,
+                        items.stream()
+                                .map(item -> taskInitializeService.getChainTaskId(
+                                        item.getChainDealId(), item.getTaskIndex()))
+                                .flatMap(Optional::stream)
+                                .collect(Collectors.toList()),
+                        () -> taskInitializeService.start(items))));
+    }
+
     /**
      * Start the asynchronous `contribute task` blockchain remote call.
      *
      * @param chainTaskId blockchain task ID
      * @param args        input arguments for `contribute task`
+     * @param callbackUrl URL called back once the command is final
      * @return blockchain task ID if successful
      */
     @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
     @PostMapping("/contribute/{chainTaskId}")
-    public ResponseEntity<String> contributeTask(
+    public CompletableFuture<ResponseEntity<String>> contributeTask(
             @PathVariable String chainTaskId,
-            @RequestBody TaskContributeArgs args) {
-        if (!taskContributeService.start(chainTaskId, args).isEmpty()) {
-            return ResponseEntity.ok(chainTaskId);
+            @RequestBody TaskContributeArgs args,
+            @RequestParam(required = false) String callbackUrl) {
+        if (isInvalidCallbackUrl(callbackUrl)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
-        return ResponseEntity.badRequest().build();
+        return commandSubmissionExecutor.submit(TaskCommandType.CONTRIBUTE,
+                () -> startWithCallback(callbackUrl, TaskCommandType.CONTRIBUTE, chainTaskId,
+                        () -> taskContributeService.start(chainTaskId, args)));
     }
 
     /**
@@ -138,22 +303,65 @@ public class TaskController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Wait for the asynchronous `contribute task` blockchain remote call to reach
+     * one of the awaited statuses, without holding a request thread.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @param await       awaited statuses
+     * @param timeout     maximum waiting duration, e.g. {@code 30s}
+     * @return awaited status, or current status on timeout
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping(value = "/contribute/{chainTaskId}/status", params = "await")
+    public DeferredResult<ResponseEntity<Status>> awaitStatusForContributeTaskRequest(
+            @PathVariable String chainTaskId,
+            @RequestParam Set<Status> await,
+            @RequestParam(defaultValue = "30s") String timeout) {
+        return awaitStatus(TaskCommandType.CONTRIBUTE, taskContributeService, chainTaskId, await, timeout);
+    }
+
+    /**
+     * Start a batch of asynchronous `contribute task` blockchain remote calls.
+     *
+     * @param items       blockchain task ID and input arguments of each contribution
+     * @param callbackUrl URL called back once each accepted command is final
+     * @return result of each item, in the order of the batch
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @PostMapping("/contribute/batch")
+    public CompletableFuture<ResponseEntity<List<BatchItemResult>>> contributeTasks(
+            @RequestBody List<TaskBatchItem<TaskContributeArgs>> items,
+            @RequestParam(required = false) String callbackUrl) {
+        if (items.size() > MAX_BATCH_SIZE || isInvalidCallbackUrl(callbackUrl)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return commandSubmissionExecutor.submit(TaskCommandType.CONTRIBUTE,
+                () -> ResponseEntity.ok(startWithCallbacks(callbackUrl, TaskCommandType.CONTRIBUTE,
+                        items.stream().map(TaskBatchItem::getChainTaskId).collect(Collectors.toList()),
+                        () -> taskContributeService.start(items))));
+    }
+
     /**
      * Start the asynchronous `reveal task` blockchain remote call.
      *
      * @param chainTaskId blockchain task ID
      * @param args        input arguments for `reveal task`
+     * @param callbackUrl URL called back once the command is final
      * @return blockchain task ID if successful
      */
     @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
     @PostMapping("/reveal/{chainTaskId}")
-    public ResponseEntity<String> revealTask(
+    public CompletableFuture<ResponseEntity<String>> revealTask(
             @PathVariable String chainTaskId,
-            @RequestBody TaskRevealArgs args) {
-        if (!taskRevealService.start(chainTaskId, args).isEmpty()) {
-            return ResponseEntity.ok(chainTaskId);
+            @RequestBody TaskRevealArgs args,
+            @RequestParam(required = false) String callbackUrl) {
+        if (isInvalidCallbackUrl(callbackUrl)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
-        return ResponseEntity.badRequest().build();
+        return commandSubmissionExecutor.submit(TaskCommandType.REVEAL,
+                () -> startWithCallback(callbackUrl, TaskCommandType.REVEAL, chainTaskId,
+                        () -> taskRevealService.start(chainTaskId, args)));
     }
 
     /**
@@ -171,22 +379,65 @@ public class TaskController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Wait for the asynchronous `reveal task` blockchain remote call to reach
+     * one of the awaited statuses, without holding a request thread.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @param await       awaited statuses
+     * @param timeout     maximum waiting duration, e.g. {@code 30s}
+     * @return awaited status, or current status on timeout
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping(value = "/reveal/{chainTaskId}/status", params = "await")
+    public DeferredResult<ResponseEntity<Status>> awaitStatusForRevealTaskRequest(
+            @PathVariable String chainTaskId,
+            @RequestParam Set<Status> await,
+            @RequestParam(defaultValue = "30s") String timeout) {
+        return awaitStatus(TaskCommandType.REVEAL, taskRevealService, chainTaskId, await, timeout);
+    }
+
+    /**
+     * Start a batch of asynchronous `reveal task` blockchain remote calls.
+     *
+     * @param items       blockchain task ID and input arguments of each reveal
+     * @param callbackUrl URL called back once each accepted command is final
+     * @return result of each item, in the order of the batch
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @PostMapping("/reveal/batch")
+    public CompletableFuture<ResponseEntity<List<BatchItemResult>>> revealTasks(
+            @RequestBody List<TaskBatchItem<TaskRevealArgs>> items,
+            @RequestParam(required = false) String callbackUrl) {
+        if (items.size() > MAX_BATCH_SIZE || isInvalidCallbackUrl(callbackUrl)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return commandSubmissionExecutor.submit(TaskCommandType.REVEAL,
+                () -> ResponseEntity.ok(startWithCallbacks(callbackUrl, TaskCommandType.REVEAL,
+                        items.stream().map(TaskBatchItem::getChainTaskId).collect(Collectors.toList()),
+                        () -> taskRevealService.start(items))));
+    }
+
     /**
      * Start the asynchronous `finalize task` blockchain remote call.
      *
      * @param chainTaskId blockchain task ID
      * @param args        input arguments for `finalize task`
+     * @param callbackUrl URL called back once the command is final
      * @return blockchain task ID if successful
      */
     @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
     @PostMapping("/finalize/{chainTaskId}")
-    public ResponseEntity<String> requestFinalizeTask(
+    public CompletableFuture<ResponseEntity<String>> requestFinalizeTask(
             @PathVariable String chainTaskId,
-            @RequestBody TaskFinalizeArgs args) {
-        if (!taskFinalizeService.start(chainTaskId, args).isEmpty()) {
-            return ResponseEntity.ok(chainTaskId);
+            @RequestBody TaskFinalizeArgs args,
+            @RequestParam(required = false) String callbackUrl) {
+        if (isInvalidCallbackUrl(callbackUrl)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
-        return ResponseEntity.badRequest().build();
+        return commandSubmissionExecutor.submit(TaskCommandType.FINALIZE,
+                () -> startWithCallback(callbackUrl, TaskCommandType.FINALIZE, chainTaskId,
+                        () -> taskFinalizeService.start(chainTaskId, args)));
     }
 
     /**
@@ -204,4 +455,113 @@ public class TaskController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Wait for the asynchronous `finalize task` blockchain remote call to reach
+     * one of the awaited statuses, without holding a request thread.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @param await       awaited statuses
+     * @param timeout     maximum waiting duration, e.g. {@code 30s}
+     * @return awaited status, or current status on timeout
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping(value = "/finalize/{chainTaskId}/status", params = "await")
+    public DeferredResult<ResponseEntity<Status>> awaitStatusForFinalizeTaskRequest(
+            @PathVariable String chainTaskId,
+            @RequestParam Set<Status> await,
+            @RequestParam(defaultValue = "30s") String timeout) {
+        return awaitStatus(TaskCommandType.FINALIZE, taskFinalizeService, chainTaskId, await, timeout);
+    }
+
+    /**
+     * Start a batch of asynchronous `finalize task` blockchain remote calls.
+     *
+     * @param items       blockchain task ID and input arguments of each finalization
+     * @param callbackUrl URL called back once each accepted command is final
+     * @return result of each item, in the order of the batch
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @PostMapping("/finalize/batch")
+    public CompletableFuture<ResponseEntity<List<BatchItemResult>>> requestFinalizeTasks(
+            @RequestBody List<TaskBatchItem<TaskFinalizeArgs>> items,
+            @RequestParam(required = false) String callbackUrl) {
+        if (items.size() > MAX_BATCH_SIZE || isInvalidCallbackUrl(callbackUrl)) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return commandSubmissionExecutor.submit(TaskCommandType.FINALIZE,
+                () -> ResponseEntity.ok(startWithCallbacks(callbackUrl, TaskCommandType.FINALIZE,
+                        items.stream().map(TaskBatchItem::getChainTaskId).collect(Collectors.toList()),
+                        () -> taskFinalizeService.start(items))));
+    }
+
+    private DeferredResult<ResponseEntity<Status>> awaitStatus(TaskCommandType commandType,
+                                                               CommandEngine<?, ?> commandEngine,
+                                                               String chainTaskId,
+                                                               Set<Status> await,
+                                                               String timeout) {
+        Duration awaitTimeout;
+        try {
+            awaitTimeout = DurationStyle.detectAndParse(timeout);
+        } catch (IllegalArgumentException e) {
+            awaitTimeout = null;
+        }
+        if (await.isEmpty() || awaitTimeout == null || awaitTimeout.isNegative()
+                || awaitTimeout.compareTo(MAX_AWAIT_TIMEOUT) > 0) {
+            DeferredResult<ResponseEntity<Status>> badRequest = new DeferredResult<>();
+            badRequest.setResult(ResponseEntity.badRequest().build());
+            return badRequest;
+        }
+        return commandStatusAwaitService.await(commandType.getCommandName(), chainTaskId,
+                await, awaitTimeout, () -> commandEngine.getStatusForCommand(chainTaskId));
+    }
+
+    private static boolean isInvalidCallbackUrl(String callbackUrl) {
+        return callbackUrl != null && !WebhookService.isValidCallbackUrl(callbackUrl);
+    }
+
+    /**
+     * Start a command, its callback being registered before the command is
+     * queued so that a fast final transition is never missed. The callback
+     * is removed if the command is rejected.
+     */
+    private ResponseEntity<String> startWithCallback(String callbackUrl,
+                                                     TaskCommandType commandType,
+                                                     String chainTaskId,
+                                                     Supplier<String> start) {
+        Optional<WebhookSubscription> callback =
+                webhookService.registerCallback(callbackUrl, commandType.getCommandName(), chainTaskId);
+        boolean started = false;
+        try {
+            started = !start.get().isEmpty();
+        } finally {
+            if (!started) {
+                callback.ifPresent(webhookService::removeCallback);
+            }
+        }
+        return started ? ResponseEntity.ok(chainTaskId) : ResponseEntity.badRequest().build();
+    }
+
+    /**
+     * Start a batch of commands, callbacks being registered before the
+     * commands are queued. Callbacks of rejected items are removed.
+     */
+    private List<BatchItemResult> startWithCallbacks(String callbackUrl,
+                                                     TaskCommandType commandType,
+                                                     Collection<String> chainTaskIds,
+                                                     Supplier<List<BatchItemResult>> start) {
+        Map<String, WebhookSubscription> callbacks = new HashMap<>();
+        try {
+            chainTaskIds.stream().filter(Objects::nonNull).distinct().forEach(chainTaskId -> webhookService
+                    .registerCallback(callbackUrl, commandType.getCommandName(), chainTaskId)
+                    .ifPresent(subscription -> callbacks.put(chainTaskId, subscription)));
+            List<BatchItemResult> results = start.get();
+            results.stream()
+                    .filter(BatchItemResult::isAccepted)
+                    .forEach(result -> callbacks.remove(result.getChainObjectId()));
+            return results;
+        } finally {
+            callbacks.values().forEach(webhookService::removeCallback);
+        }
+    }
+
 }
@@ -17,11 +17,17 @@
 package com.iexec.blockchain.command.task.contribute;
 
 
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskBatchItem;
 import com.iexec.blockchain.command.generic.CommandEngine;
+import com.iexec.blockchain.tool.ChainReadContext;
 import com.iexec.blockchain.tool.QueueService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Optional;
+
 import static com.iexec.blockchain.tool.IexecHubService.*;
 
 @Slf4j
@@ -31,12 +37,28 @@ public class TaskContributeService extends CommandEngine<TaskContribute, TaskCon
     public TaskContributeService(
             TaskContributeBlockchainService blockchainService,
             TaskContributeStorageService storageService,
-            QueueService queueService) {
-        super(blockchainService, storageService, queueService);
+            QueueService queueService,
+            ChainReadContext chainReadContext) {
+        super(blockchainService, storageService, queueService, chainReadContext);
     }
 
     public String start(String chainTaskId,
                         com.iexec.common.chain.adapter.args.TaskContributeArgs args) {
+        return toArgs(chainTaskId, args)
+                .map(commandArgs -> startBlockchainCommand(commandArgs, false))
+                .orElse("");
+    }
+
+    public List<BatchItemResult> start(
+            List<TaskBatchItem<com.iexec.common.chain.adapter.args.TaskContributeArgs>> items) {
+        return startBatch(items,
+                item -> toArgs(item.getChainTaskId(), item.getArgs()),
+                TaskBatchItem::getChainTaskId,
+                false);
+    }
+
+    private Optional<TaskContributeArgs> toArgs(String chainTaskId,
+                                                com.iexec.common.chain.adapter.args.TaskContributeArgs args) {
         if (!isByte32(chainTaskId)
                 || args == null
                 || !isByte32(args.getResultDigest())
@@ -44,14 +66,13 @@ public class TaskContributeService extends CommandEngine<TaskContribute, TaskCon
                 || !isAddress(args.getEnclaveChallenge())
                 || !isSignature(args.getEnclaveSignature())) {
             log.error("At least one bad args [chainTaskId:{}, args:{}]", chainTaskId, args);
-            return "";
+            return Optional.empty();
         }
-        return startBlockchainCommand(new TaskContributeArgs(chainTaskId,
+        return Optional.of(new TaskContributeArgs(chainTaskId,
                 args.getResultDigest(),
                 args.getWorkerpoolSignature(),
                 args.getEnclaveChallenge(),
-                args.getEnclaveSignature()),
-                false);
+                args.getEnclaveSignature()));
     }
 
 }
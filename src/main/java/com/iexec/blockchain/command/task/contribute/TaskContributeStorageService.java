@@ -18,13 +18,16 @@ package com.iexec.blockchain.command.task.contribute;
 
 
 import com.iexec.blockchain.command.generic.CommandStorage;
+import com.iexec.blockchain.command.generic.CommandStore;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TaskContributeStorageService extends CommandStorage<TaskContribute, TaskContributeArgs> {
 
-    public TaskContributeStorageService(TaskContributeRepository taskInitializeRepository) {
-        super(taskInitializeRepository);
+    public TaskContributeStorageService(CommandStore<TaskContribute> commandStore,
+                                        ApplicationEventPublisher eventPublisher) {
+        super(commandStore, eventPublisher);
     }
 
     @Override
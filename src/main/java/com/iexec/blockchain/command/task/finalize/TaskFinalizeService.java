@@ -17,11 +17,17 @@
 package com.iexec.blockchain.command.task.finalize;
 
 
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskBatchItem;
 import com.iexec.blockchain.command.generic.CommandEngine;
+import com.iexec.blockchain.tool.ChainReadContext;
 import com.iexec.blockchain.tool.QueueService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Optional;
+
 import static com.iexec.blockchain.tool.IexecHubService.isByte32;
 
 @Slf4j
@@ -31,21 +37,36 @@ public class TaskFinalizeService extends CommandEngine<TaskFinalize, TaskFinaliz
     public TaskFinalizeService(
             TaskFinalizeBlockchainService blockchainService,
             TaskFinalizeStorageService storageService,
-            QueueService queueService) {
-        super(blockchainService, storageService, queueService);
+            QueueService queueService,
+            ChainReadContext chainReadContext) {
+        super(blockchainService, storageService, queueService, chainReadContext);
     }
 
     public String start(String chainTaskId,
                         com.iexec.common.chain.adapter.args.TaskFinalizeArgs args) {
+        return toArgs(chainTaskId, args)
+                .map(commandArgs -> startBlockchainCommand(commandArgs, true))
+                .orElse("");
+    }
+
+    public List<BatchItemResult> start(
+            List<TaskBatchItem<com.iexec.common.chain.adapter.args.TaskFinalizeArgs>> items) {
+        return startBatch(items,
+                item -> toArgs(item.getChainTaskId(), item.getArgs()),
+                TaskBatchItem::getChainTaskId,
+                true);
+    }
+
+    private Optional<TaskFinalizeArgs> toArgs(String chainTaskId,
+                                              com.iexec.common.chain.adapter.args.TaskFinalizeArgs args) {
         if (!isByte32(chainTaskId)
                 || args == null) {
             log.error("At least one bad args [chainTaskId:{}, args:{}]", chainTaskId, args);
-            return "";
+            return Optional.empty();
         }
-        return startBlockchainCommand(new TaskFinalizeArgs(chainTaskId,
+        return Optional.of(new TaskFinalizeArgs(chainTaskId,
                 args.getResultLink(),
-                args.getCallbackData()),
-                true);
+                args.getCallbackData()));
     }
 
 }
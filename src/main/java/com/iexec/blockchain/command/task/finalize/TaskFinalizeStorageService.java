@@ -18,13 +18,16 @@ package com.iexec.blockchain.command.task.finalize;
 
 
 import com.iexec.blockchain.command.generic.CommandStorage;
+import com.iexec.blockchain.command.generic.CommandStore;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TaskFinalizeStorageService extends CommandStorage<TaskFinalize, TaskFinalizeArgs> {
 
-    public TaskFinalizeStorageService(TaskFinalizeRepository taskInitializeRepository) {
-        super(taskInitializeRepository);
+    public TaskFinalizeStorageService(CommandStore<TaskFinalize> commandStore,
+                                      ApplicationEventPublisher eventPublisher) {
+        super(commandStore, eventPublisher);
     }
 
     @Override
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.task.initialize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.tool.ChainReadContext;
+import com.iexec.blockchain.tool.IexecHubService;
+import com.iexec.blockchain.tool.Status;
+import com.iexec.commons.poco.chain.ChainDeal;
+import com.iexec.commons.poco.chain.ChainUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warm the chain caches when the first {@link TaskInitialize} of a deal is
+ * received. Initialize requests come in bursts for consecutive tasks of a
+ * deal, their pre-flight checks then read the deal, its category and the
+ * tasks from memory.
+ * <p>
+ * Tasks are read pinned to the current head, as pre-flight checks are, so
+ * that pre-flight checks run during the same block share the prefetched
+ * results. Pinned results are dropped on the next block, at most
+ * {@code chain.prefetch.max-tasks} reads are then queued: reads exceeding
+ * it are skipped rather than run for a block which is already gone.
+ */
+@Slf4j
+@Service
+public class DealPrefetcher {
+
+    private static final int PREFETCHED_DEALS_MAX_SIZE = 1000;
+
+    private final IexecHubService iexecHubService;
+    private final ChainReadContext chainReadContext;
+    private final int maxTasks;
+    private final ExecutorService executor;
+    private final Cache<String, Boolean> prefetchedDeals = Caffeine.newBuilder()
+            .maximumSize(PREFETCHED_DEALS_MAX_SIZE)
+            .build();
+
+    public DealPrefetcher(IexecHubService iexecHubService,
+                          ChainReadContext chainReadContext,
+                          @Value("${chain.prefetch.max-tasks}") int maxTasks,
+                          @Value("${chain.prefetch.threads}") int threads) {
+        this.iexecHubService = iexecHubService;
+        this.chainReadContext = chainReadContext;
+        this.maxTasks = maxTasks;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(maxTasks, 1)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener
+    public void onCommandTransition(CommandTransition transition) {
+        if (maxTasks <= 0
+                || transition.getStatus() != Status.RECEIVED
+                || !(transition.getArgs() instanceof TaskInitializeArgs)) {
+            return;
+        }
+        String chainDealId = ((TaskInitializeArgs) transition.getArgs()).getChainDealId();
+        if (prefetchedDeals.asMap().putIfAbsent(chainDealId, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            CompletableFuture.runAsync(() -> prefetch(chainDealId), executor)
+                    .exceptionally(throwable -> {
+                        log.warn("Failed to prefetch deal [chainDealId:{}]", chainDealId, throwable);
+                        prefetchedDeals.invalidate(chainDealId);
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            log.debug("Prefetch queue is full, skipping deal [chainDealId:{}]", chainDealId);
+            prefetchedDeals.invalidate(chainDealId);
+        }
+    }
+
+    /**
+     * Read the deal and its category, then read its tasks in parallel
+     * without waiting for them. Task reads are queued until the queue is
+     * full, the remaining ones are skipped.
+     *
+     * @param chainDealId blockchain ID of the deal
+     */
+    void prefetch(String chainDealId) {
+        Optional<ChainDeal> chainDeal = iexecHubService.getChainDeal(chainDealId);
+        if (chainDeal.isEmpty()) {
+            prefetchedDeals.invalidate(chainDealId);
+            return;
+        }
+        iexecHubService.getChainCategory(chainDeal.get().getChainCategory().getId());
+        int botFirst = chainDeal.get().getBotFirst().intValue();
+        int botSize = Math.min(chainDeal.get().getBotSize().intValue(), maxTasks);
+        int queued = 0;
+        try {
+            for (int taskIndex = botFirst; taskIndex < botFirst + botSize; taskIndex++) {
+                String chainTaskId = ChainUtils.generateChainTaskId(chainDealId, taskIndex);
+                executor.execute(() -> chainReadContext.pinToHead(() -> iexecHubService.getChainTask(chainTaskId)));
+                queued++;
+            }
+        } catch (RejectedExecutionException e) {
+            log.debug("Prefetch queue is full, skipping remaining tasks [chainDealId:{}, queued:{}, skipped:{}]",
+                    chainDealId, queued, botSize - queued);
+        }
+        log.debug("Prefetching deal tasks [chainDealId:{}, tasks:{}]", chainDealId, queued);
+    }
+
+}
@@ -17,11 +17,17 @@
 package com.iexec.blockchain.command.task.initialize;
 
 
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskInitializeBatchItem;
 import com.iexec.blockchain.command.generic.CommandEngine;
+import com.iexec.blockchain.tool.ChainReadContext;
 import com.iexec.blockchain.tool.QueueService;
 import com.iexec.commons.poco.chain.ChainUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Optional;
+
 import static com.iexec.blockchain.tool.IexecHubService.isByte32;
 
 @Service
@@ -30,19 +36,39 @@ public class TaskInitializeService extends CommandEngine<TaskInitialize, TaskIni
     public TaskInitializeService(
             TaskInitializeBlockchainService blockchainService,
             TaskInitializeStorageService updaterService,
-            QueueService queueService) {
-        super(blockchainService, updaterService, queueService);
+            QueueService queueService,
+            ChainReadContext chainReadContext) {
+        super(blockchainService, updaterService, queueService, chainReadContext);
     }
 
     public String start(String chainDealId, int taskIndex) {
+        return toArgs(chainDealId, taskIndex)
+                .map(args -> startBlockchainCommand(args, false))
+                .orElse("");
+    }
+
+    public List<BatchItemResult> start(List<TaskInitializeBatchItem> items) {
+        return startBatch(items,
+                item -> toArgs(item.getChainDealId(), item.getTaskIndex()),
+                item -> "",
+                false);
+    }
+
+    /**
+     * @return blockchain ID of the task, empty if the deal ID or task index is invalid
+     */
+    public Optional<String> getChainTaskId(String chainDealId, int taskIndex) {
+        return toArgs(chainDealId, taskIndex).map(TaskInitializeArgs::getChainTaskId);
+    }
+
+    private Optional<TaskInitializeArgs> toArgs(String chainDealId, int taskIndex) {
         if (!isByte32(chainDealId) || taskIndex < 0) {
-            return "";
+            return Optional.empty();
         }
         String chainTaskId = ChainUtils.generateChainTaskId(chainDealId, taskIndex);
-        return startBlockchainCommand(new TaskInitializeArgs(chainTaskId,
+        return Optional.of(new TaskInitializeArgs(chainTaskId,
                 chainDealId,
-                taskIndex),
-                false);
+                taskIndex));
     }
 
 }
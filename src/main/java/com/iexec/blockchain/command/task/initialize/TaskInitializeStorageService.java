@@ -18,13 +18,16 @@ package com.iexec.blockchain.command.task.initialize;
 
 
 import com.iexec.blockchain.command.generic.CommandStorage;
+import com.iexec.blockchain.command.generic.CommandStore;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TaskInitializeStorageService extends CommandStorage<TaskInitialize, TaskInitializeArgs> {
 
-    public TaskInitializeStorageService(TaskInitializeRepository taskInitializeRepository) {
-        super(taskInitializeRepository);
+    public TaskInitializeStorageService(CommandStore<TaskInitialize> commandStore,
+                                        ApplicationEventPublisher eventPublisher) {
+        super(commandStore, eventPublisher);
     }
 
     @Override
@@ -17,11 +17,17 @@
 package com.iexec.blockchain.command.task.reveal;
 
 
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskBatchItem;
 import com.iexec.blockchain.command.generic.CommandEngine;
+import com.iexec.blockchain.tool.ChainReadContext;
 import com.iexec.blockchain.tool.QueueService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Optional;
+
 import static com.iexec.blockchain.tool.IexecHubService.isByte32;
 
 @Slf4j
@@ -31,21 +37,36 @@ public class TaskRevealService extends CommandEngine<TaskReveal, TaskRevealArgs>
     public TaskRevealService(
             TaskRevealBlockchainService blockchainService,
             TaskRevealStorageService storageService,
-            QueueService queueService) {
-        super(blockchainService, storageService, queueService);
+            QueueService queueService,
+            ChainReadContext chainReadContext) {
+        super(blockchainService, storageService, queueService, chainReadContext);
     }
 
     public String start(String chainTaskId,
                         com.iexec.common.chain.adapter.args.TaskRevealArgs args) {
+        return toArgs(chainTaskId, args)
+                .map(commandArgs -> startBlockchainCommand(commandArgs, false))
+                .orElse("");
+    }
+
+    public List<BatchItemResult> start(
+            List<TaskBatchItem<com.iexec.common.chain.adapter.args.TaskRevealArgs>> items) {
+        return startBatch(items,
+                item -> toArgs(item.getChainTaskId(), item.getArgs()),
+                TaskBatchItem::getChainTaskId,
+                false);
+    }
+
+    private Optional<TaskRevealArgs> toArgs(String chainTaskId,
+                                            com.iexec.common.chain.adapter.args.TaskRevealArgs args) {
         if (!isByte32(chainTaskId)
                 || args == null
                 || !isByte32(args.getResultDigest())) {
             log.error("At least one bad args [chainTaskId:{}, args:{}]", chainTaskId, args);
-            return "";
+            return Optional.empty();
         }
-        return startBlockchainCommand(new TaskRevealArgs(chainTaskId,
-                args.getResultDigest()),
-                false);
+        return Optional.of(new TaskRevealArgs(chainTaskId,
+                args.getResultDigest()));
     }
 
 }
@@ -18,13 +18,16 @@ package com.iexec.blockchain.command.task.reveal;
 
 
 import com.iexec.blockchain.command.generic.CommandStorage;
+import com.iexec.blockchain.command.generic.CommandStore;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
 public class TaskRevealStorageService extends CommandStorage<TaskReveal, TaskRevealArgs> {
 
-    public TaskRevealStorageService(TaskRevealRepository taskInitializeRepository) {
-        super(taskInitializeRepository);
+    public TaskRevealStorageService(CommandStore<TaskReveal> commandStore,
+                                    ApplicationEventPublisher eventPublisher) {
+        super(commandStore, eventPublisher);
     }
 
     @Override
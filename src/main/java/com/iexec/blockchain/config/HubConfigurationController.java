@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.config;
+
+import com.iexec.blockchain.tool.HubConstants;
+import com.iexec.blockchain.tool.IexecHubService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.iexec.blockchain.swagger.OpenApiConfig.SWAGGER_BASIC_AUTH;
+
+@RestController
+@RequestMapping("/config/hub")
+public class HubConfigurationController {
+
+    private final IexecHubService iexecHubService;
+
+    public HubConfigurationController(IexecHubService iexecHubService) {
+        this.iexecHubService = iexecHubService;
+    }
+
+    /**
+     * Read the hub constants snapshot.
+     *
+     * @return snapshot, 503 if it could not be loaded
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping
+    public ResponseEntity<HubConstants> getHubConstants() {
+        return iexecHubService.getHubConstants()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Reload the hub constants snapshot, after a governance action on the hub.
+     *
+     * @return new snapshot, 503 if it could not be loaded
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @PostMapping("/refresh")
+    public ResponseEntity<HubConstants> refreshHubConstants() {
+        return iexecHubService.refreshHubConstants()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+}
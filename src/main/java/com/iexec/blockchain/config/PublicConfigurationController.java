@@ -16,29 +16,30 @@
 
 package com.iexec.blockchain.config;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.iexec.blockchain.tool.ChainConfig;
+import com.iexec.blockchain.tool.ETags;
 import com.iexec.common.config.PublicChainConfig;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.*;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/config")
 public class PublicConfigurationController {
-    private final ChainConfig chainConfig;
+    private final CacheControl cacheControl;
+    private final byte[] publicChainConfigBytes;
+    private final String publicChainConfigETag;
 
-    public PublicConfigurationController(ChainConfig chainConfig) {
-        this.chainConfig = chainConfig;
-    }
-
-    /**
-     * Unauthenticated endpoint.
-     */
-    @GetMapping("/chain")
-    public ResponseEntity<PublicChainConfig> getPublicChainConfig() {
+    public PublicConfigurationController(ChainConfig chainConfig, ObjectMapper objectMapper)
+            throws JsonProcessingException {
         final Integer blockTime = chainConfig.getBlockTime();
         final PublicChainConfig publicChainConfig = PublicChainConfig
                 .builder()
@@ -48,6 +49,34 @@ public class PublicConfigurationController {
                 .iexecHubContractAddress(chainConfig.getHubAddress())
                 .blockTime(Duration.ofSeconds(blockTime))
                 .build();
-        return ResponseEntity.ok(publicChainConfig);
+        this.publicChainConfigBytes = objectMapper.writeValueAsBytes(publicChainConfig);
+        this.publicChainConfigETag = "\"" + DigestUtils.md5DigestAsHex(publicChainConfigBytes) + "\"";
+        this.cacheControl = CacheControl.maxAge(blockTime, TimeUnit.SECONDS).cachePublic();
+    }
+
+    /**
+     * Unauthenticated endpoint.
+     * <p>
+     * The configuration never changes during the lifetime of the service, it is
+     * serialized once at startup and served with a strong ETag. A request whose
+     * {@code If-None-Match} header matches it gets a {@code 304} without body.
+     *
+     * @param ifNoneMatch ETags of the configuration held by the caller
+     * @return serialized {@link PublicChainConfig}
+     */
+    @GetMapping(value = "/chain", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getPublicChainConfig(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ETags.matches(ifNoneMatch, publicChainConfigETag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(publicChainConfigETag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(publicChainConfigETag)
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(publicChainConfigBytes);
     }
 }
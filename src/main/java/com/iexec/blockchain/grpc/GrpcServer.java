@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serve {@link TaskCommandGrpcService} over HTTP/2 on a dedicated port,
+ * next to the REST API.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "grpc.enabled", havingValue = "true")
+public class GrpcServer implements SmartLifecycle {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Server server;
+    private final ExecutorService executor;
+    private volatile boolean running;
+
+    public GrpcServer(TaskCommandGrpcService taskCommandGrpcService,
+                      @Value("${grpc.port}") int port,
+                      @Value("${grpc.threads}") int threads,
+                      @Value("${spring.security.user.name}") String username,
+                      @Value("${spring.security.user.password}") String password) {
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.server = ServerBuilder.forPort(port)
+                .executor(executor)
+                .addService(ServerInterceptors.intercept(taskCommandGrpcService,
+                        new BasicAuthInterceptor(username, password)))
+                .build();
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start gRPC server", e);
+        }
+        running = true;
+        log.info("gRPC server started [port:{}]", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            server.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+}
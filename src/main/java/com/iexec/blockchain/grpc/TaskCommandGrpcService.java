@@ -0,0 +1,394 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.grpc;
+
+import com.google.protobuf.ByteString;
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskBatchItem;
+import com.iexec.blockchain.command.batch.TaskInitializeBatchItem;
+import com.iexec.blockchain.command.generic.CommandSubmissionExecutor;
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.TaskCommandEngines;
+import com.iexec.blockchain.command.task.contribute.TaskContributeService;
+import com.iexec.blockchain.command.task.finalize.TaskFinalizeService;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeService;
+import com.iexec.blockchain.command.task.reveal.TaskRevealService;
+import com.iexec.blockchain.tool.Status;
+import com.iexec.common.chain.adapter.args.TaskContributeArgs;
+import com.iexec.common.chain.adapter.args.TaskFinalizeArgs;
+import com.iexec.common.chain.adapter.args.TaskRevealArgs;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.web3j.utils.Numeric;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * gRPC counterpart of the task command endpoints of the REST API, backed by
+ * the same command engines.
+ * <p>
+ * A {@code Submit} stream carries submissions one way and their outcomes and
+ * status updates the other way. Submissions run on the pools of the
+ * {@link CommandSubmissionExecutor}, like the ones of the REST API, so that
+ * commands multiplexed on a stream are processed concurrently. Outcomes are
+ * sent in completion order, each one carries the ID of its request. Status
+ * updates of followed commands are pushed on each stored
+ * {@link CommandTransition}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "grpc.enabled", havingValue = "true")
+public class TaskCommandGrpcService extends TaskCommandServiceGrpc.TaskCommandServiceImplBase {
+
+    static final int MAX_STATUS_QUERIES = 1000;
+
+    private final TaskInitializeService taskInitializeService;
+    private final TaskContributeService taskContributeService;
+    private final TaskRevealService taskRevealService;
+    private final TaskFinalizeService taskFinalizeService;
+    private final TaskCommandEngines taskCommandEngines;
+    private final CommandSubmissionExecutor commandSubmissionExecutor;
+    private final Map<String, Set<Follower>> followers = new ConcurrentHashMap<>();
+
+    public TaskCommandGrpcService(TaskInitializeService taskInitializeService,
+                                  TaskContributeService taskContributeService,
+                                  TaskRevealService taskRevealService,
+                                  TaskFinalizeService taskFinalizeService,
+                                  TaskCommandEngines taskCommandEngines,
+                                  CommandSubmissionExecutor commandSubmissionExecutor) {
+        this.taskInitializeService = taskInitializeService;
+        this.taskContributeService = taskContributeService;
+        this.taskRevealService = taskRevealService;
+        this.taskFinalizeService = taskFinalizeService;
+        this.taskCommandEngines = taskCommandEngines;
+        this.commandSubmissionExecutor = commandSubmissionExecutor;
+    }
+
+    @Override
+    public StreamObserver<CommandRequest> submit(StreamObserver<CommandUpdate> responseObserver) {
+        Session session = new Session(responseObserver);
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(CommandRequest request) {
+                session.handle(request);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                session.cancel();
+            }
+
+            @Override
+            public void onCompleted() {
+                session.halfClose();
+            }
+        };
+    }
+
+    @Override
+    public void getStatuses(GetStatusesRequest request, StreamObserver<GetStatusesReply> responseObserver) {
+        if (request.getQueriesCount() > MAX_STATUS_QUERIES || request.getQueriesList().stream()
+                .anyMatch(query -> toTaskCommandType(query.getCommandType()) == null)) {
+            responseObserver.onError(io.grpc.Status.INVALID_ARGUMENT
+                    .withDescription("Too many queries or unknown command type")
+                    .asRuntimeException());
+            return;
+        }
+        Map<TaskCommandType, Map<String, Status>> statuses = request.getQueriesList().stream()
+                .collect(Collectors.groupingBy(query -> toTaskCommandType(query.getCommandType()),
+                        () -> new EnumMap<>(TaskCommandType.class),
+                        Collectors.mapping(query -> toHex(query.getChainTaskId()), Collectors.toSet())))
+                .entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        entry -> taskCommandEngines.get(entry.getKey()).getStatusesForCommands(entry.getValue())));
+        GetStatusesReply.Builder reply = GetStatusesReply.newBuilder();
+        for (StatusQuery query : request.getQueriesList()) {
+            Status status = statuses.get(toTaskCommandType(query.getCommandType()))
+                    .get(toHex(query.getChainTaskId()));
+            reply.addStatuses(CommandUpdate.newBuilder()
+                    .setCommandType(query.getCommandType())
+                    .setChainTaskId(query.getChainTaskId())
+                    .setStatus(toCommandStatus(status)));
+        }
+        responseObserver.onNext(reply.build());
+        responseObserver.onCompleted();
+    }
+
+    @EventListener
+    public void onCommandTransition(CommandTransition transition) {
+        Set<Follower> commandFollowers = followers.get(getKey(transition.getCommandType(), transition.getChainObjectId()));
+        if (commandFollowers == null) {
+            return;
+        }
+        for (Follower follower : commandFollowers) {
+            follower.session.onStatus(follower, transition.getStatus());
+        }
+    }
+
+    int getFollowerCount() {
+        return followers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    static String toHex(ByteString bytes) {
+        return Numeric.toHexString(bytes.toByteArray());
+    }
+
+    static ByteString toBytes(String hex) {
+        return ByteString.copyFrom(Numeric.hexStringToByteArray(hex));
+    }
+
+    private static TaskCommandType toTaskCommandType(CommandType commandType) {
+        switch (commandType) {
+            case INITIALIZE:
+                return TaskCommandType.INITIALIZE;
+            case CONTRIBUTE:
+                return TaskCommandType.CONTRIBUTE;
+            case REVEAL:
+                return TaskCommandType.REVEAL;
+            case FINALIZE:
+                return TaskCommandType.FINALIZE;
+            default:
+                return null;
+        }
+    }
+
+    private static CommandStatus toCommandStatus(Status status) {
+        return status != null ? CommandStatus.valueOf(status.name()) : CommandStatus.COMMAND_STATUS_UNSPECIFIED;
+    }
+
+    private static String getKey(String commandName, String chainTaskId) {
+        return commandName + ":" + chainTaskId;
+    }
+
+    private static class Follower {
+        private final Session session;
+        private final long requestId;
+        private final CommandType commandType;
+        private final String chainTaskId;
+        private final String key;
+
+        private Follower(Session session, long requestId, CommandType commandType, String chainTaskId) {
+            this.session = session;
+            this.requestId = requestId;
+            this.commandType = commandType;
+            this.chainTaskId = chainTaskId;
+            this.key = getKey(toTaskCommandType(commandType).getCommandName(), chainTaskId);
+        }
+    }
+
+    private class Session {
+        private final StreamObserver<CommandUpdate> observer;
+        private final Set<Follower> sessionFollowers = ConcurrentHashMap.newKeySet();
+        private int pendingSubmissions;
+        private boolean halfClosed;
+        private boolean closed;
+
+        private Session(StreamObserver<CommandUpdate> observer) {
+            this.observer = observer;
+        }
+
+        private void handle(CommandRequest request) {
+            switch (request.getCommandCase()) {
+                case INITIALIZE:
+                    InitializeRequest initialize = request.getInitialize();
+                    submit(request, CommandType.INITIALIZE, () -> taskInitializeService.start(List.of(
+                            new TaskInitializeBatchItem(toHex(initialize.getChainDealId()),
+                                    initialize.getTaskIndex()))));
+                    break;
+                case CONTRIBUTE:
+                    ContributeRequest contribute = request.getContribute();
+                    submit(request, CommandType.CONTRIBUTE, () -> taskContributeService.start(List.of(
+                            new TaskBatchItem<>(toHex(contribute.getChainTaskId()), new TaskContributeArgs(
+                                    toHex(contribute.getResultDigest()),
+                                    toHex(contribute.getWorkerpoolSignature()),
+                                    toHex(contribute.getEnclaveChallenge()),
+                                    toHex(contribute.getEnclaveSignature()))))));
+                    break;
+                case REVEAL:
+                    RevealRequest reveal = request.getReveal();
+                    submit(request, CommandType.REVEAL, () -> taskRevealService.start(List.of(
+                            new TaskBatchItem<>(toHex(reveal.getChainTaskId()),
+                                    new TaskRevealArgs(toHex(reveal.getResultDigest()))))));
+                    break;
+                case FINALIZE:
+                    FinalizeRequest finalize = request.getFinalize();
+                    submit(request, CommandType.FINALIZE, () -> taskFinalizeService.start(List.of(
+                            new TaskBatchItem<>(toHex(finalize.getChainTaskId()),
+                                    new TaskFinalizeArgs(finalize.getResultLink(), finalize.getCallbackData())))));
+                    break;
+                case WATCH:
+                    WatchRequest watch = request.getWatch();
+                    if (toTaskCommandType(watch.getCommandType()) == null) {
+                        send(rejection(request, CommandType.COMMAND_TYPE_UNSPECIFIED, "", "unknown command type"));
+                    } else {
+                        follow(request.getRequestId(), watch.getCommandType(), toHex(watch.getChainTaskId()));
+                    }
+                    break;
+                default:
+                    send(rejection(request, CommandType.COMMAND_TYPE_UNSPECIFIED, "", "missing command"));
+            }
+        }
+
+        /**
+         * Run a submission on the pool of its command type and reply once it
+         * is done. The stream is not completed while a submission is pending.
+         */
+        private void submit(CommandRequest request, CommandType commandType,
+                            Supplier<List<BatchItemResult>> submission) {
+            synchronized (this) {
+                pendingSubmissions++;
+            }
+            commandSubmissionExecutor.submit(toTaskCommandType(commandType),
+                            () -> ResponseEntity.ok(submission.get()))
+                    .whenComplete((response, throwable) -> {
+                        try {
+                            if (throwable != null) {
+                                log.error("Failed to run gRPC command submission [requestId:{}]",
+                                        request.getRequestId(), throwable);
+                                send(rejection(request, commandType, "", "submission failed"));
+                            } else if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+                                send(rejection(request, commandType, "", "submission pool is saturated"));
+                            } else {
+                                onSubmitted(request, commandType, response.getBody());
+                            }
+                        } finally {
+                            onSubmissionDone();
+                        }
+                    });
+        }
+
+        private synchronized void onSubmissionDone() {
+            pendingSubmissions--;
+            completeIfDone();
+        }
+
+        private void onSubmitted(CommandRequest request, CommandType commandType, List<BatchItemResult> results) {
+            BatchItemResult result = results.get(0);
+            if (!result.isAccepted()) {
+                send(rejection(request, commandType, result.getChainObjectId(), result.getError()));
+                return;
+            }
+            send(CommandUpdate.newBuilder()
+                    .setRequestId(request.getRequestId())
+                    .setCommandType(commandType)
+                    .setChainTaskId(toBytes(result.getChainObjectId()))
+                    .setAccepted(true)
+                    .build());
+            if (request.getFollow()) {
+                follow(request.getRequestId(), commandType, result.getChainObjectId());
+            }
+        }
+
+        /**
+         * Register the follower before reading the current status, so that
+         * no transition stored in between is missed.
+         */
+        private void follow(long requestId, CommandType commandType, String chainTaskId) {
+            Follower follower = new Follower(this, requestId, commandType, chainTaskId);
+            sessionFollowers.add(follower);
+            followers.compute(follower.key, (key, commandFollowers) -> {
+                Set<Follower> updatedFollowers = commandFollowers != null
+                        ? commandFollowers : ConcurrentHashMap.newKeySet();
+                updatedFollowers.add(follower);
+                return updatedFollowers;
+            });
+            Optional<Status> status = taskCommandEngines.get(toTaskCommandType(commandType))
+                    .getStatusForCommand(chainTaskId);
+            if (status.isPresent()) {
+                onStatus(follower, status.get());
+            } else {
+                send(statusUpdate(follower, CommandStatus.COMMAND_STATUS_UNSPECIFIED));
+            }
+        }
+
+        private synchronized void onStatus(Follower follower, Status status) {
+            if (!sessionFollowers.contains(follower)) {
+                return;
+            }
+            send(statusUpdate(follower, toCommandStatus(status)));
+            if (status == Status.SUCCESS || status == Status.FAILURE) {
+                unfollow(follower);
+                completeIfDone();
+            }
+        }
+
+        private synchronized void halfClose() {
+            halfClosed = true;
+            completeIfDone();
+        }
+
+        private synchronized void cancel() {
+            closed = true;
+            sessionFollowers.forEach(this::unfollow);
+        }
+
+        private synchronized void send(CommandUpdate update) {
+            if (closed) {
+                return;
+            }
+            try {
+                observer.onNext(update);
+            } catch (RuntimeException e) {
+                log.debug("Failed to send gRPC command update, closing stream", e);
+                cancel();
+            }
+        }
+
+        private void completeIfDone() {
+            if (halfClosed && !closed && pendingSubmissions == 0 && sessionFollowers.isEmpty()) {
+                closed = true;
+                observer.onCompleted();
+            }
+        }
+
+        private void unfollow(Follower follower) {
+            sessionFollowers.remove(follower);
+            followers.computeIfPresent(follower.key, (key, commandFollowers) -> {
+                commandFollowers.remove(follower);
+                return commandFollowers.isEmpty() ? null : commandFollowers;
+            });
+        }
+
+        private CommandUpdate statusUpdate(Follower follower, CommandStatus status) {
+            return CommandUpdate.newBuilder()
+                    .setRequestId(follower.requestId)
+                    .setCommandType(follower.commandType)
+                    .setChainTaskId(toBytes(follower.chainTaskId))
+                    .setStatus(status)
+                    .build();
+        }
+
+        private CommandUpdate rejection(CommandRequest request, CommandType commandType,
+                                        String chainTaskId, String error) {
+            return CommandUpdate.newBuilder()
+                    .setRequestId(request.getRequestId())
+                    .setCommandType(commandType)
+                    .setChainTaskId(toBytes(chainTaskId))
+                    .setError(error)
+                    .build();
+        }
+    }
+
+}
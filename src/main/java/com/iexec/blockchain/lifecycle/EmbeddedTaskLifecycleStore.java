@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.lifecycle;
+
+import com.iexec.blockchain.command.generic.Command;
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.command.generic.EmbeddedCommandStore;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeArgs;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Keep the projection in memory when running with the embedded command store.
+ * <p>
+ * The projection is not persisted: it is rebuilt at startup from the
+ * commands of the embedded stores, archived ones included, then kept up to
+ * date with transitions.
+ */
+@Slf4j
+@Repository
+@Profile("embedded")
+public class EmbeddedTaskLifecycleStore implements TaskLifecycleStore {
+
+    private final Map<String, TaskLifecycle> lifecycles = new ConcurrentHashMap<>();
+
+    public EmbeddedTaskLifecycleStore(List<EmbeddedCommandStore<?>> commandStores) {
+        for (EmbeddedCommandStore<?> commandStore : commandStores) {
+            try (Stream<? extends Command<?>> commands = commandStore.streamWithArchived()) {
+                commands.forEach(this::restore);
+            }
+        }
+        log.info("Rebuilt task lifecycles from embedded command stores [lifecycles:{}]", lifecycles.size());
+    }
+
+    @Override
+    public void apply(CommandTransition transition) {
+        if (TaskLifecycle.getStageName(transition.getCommandType()) == null) {
+            return;
+        }
+        lifecycles.compute(transition.getChainObjectId(), (chainTaskId, lifecycle) -> {
+            TaskLifecycle updated = lifecycle != null ? lifecycle
+                    : TaskLifecycle.builder().chainTaskId(chainTaskId).build();
+            if (transition.getArgs() instanceof TaskInitializeArgs) {
+                TaskInitializeArgs args = (TaskInitializeArgs) transition.getArgs();
+                updated.setChainDealId(args.getChainDealId());
+                updated.setTaskIndex(args.getTaskIndex());
+            }
+            updated.apply(transition);
+            return updated;
+        });
+    }
+
+    @Override
+    public Optional<TaskLifecycle> findByChainTaskId(String chainTaskId) {
+        return Optional.ofNullable(lifecycles.get(chainTaskId));
+    }
+
+    private void restore(Command<?> command) {
+        String stageName = TaskLifecycle.getStageName(command.getClass().getSimpleName());
+        if (stageName == null) {
+            return;
+        }
+        TaskLifecycle lifecycle = lifecycles.computeIfAbsent(command.getChainObjectId(),
+                chainTaskId -> TaskLifecycle.builder().chainTaskId(chainTaskId).build());
+        if (command.getArgs() instanceof TaskInitializeArgs) {
+            TaskInitializeArgs args = (TaskInitializeArgs) command.getArgs();
+            lifecycle.setChainDealId(args.getChainDealId());
+            lifecycle.setTaskIndex(args.getTaskIndex());
+        }
+        TaskLifecycleStage stage = TaskLifecycleStage.of(command);
+        lifecycle.setStage(stageName, stage);
+        Instant lastDate = getLastDate(stage);
+        if (lastDate != null && (lifecycle.getLastUpdate() == null || lastDate.isAfter(lifecycle.getLastUpdate()))) {
+            lifecycle.setLastUpdate(lastDate);
+        }
+    }
+
+    private static Instant getLastDate(TaskLifecycleStage stage) {
+        if (stage.getFinalDate() != null) {
+            return stage.getFinalDate();
+        }
+        return stage.getProcessingDate() != null ? stage.getProcessingDate() : stage.getCreationDate();
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.lifecycle;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeArgs;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+import static com.iexec.blockchain.lifecycle.TaskLifecycleStage.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keep the projection in MongoDB. Each transition is applied with a single
+ * atomic upsert on the stage fields, there is no read-modify-write cycle.
+ */
+@Repository
+@Profile("!embedded")
+public class MongoTaskLifecycleStore implements TaskLifecycleStore {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoTaskLifecycleStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void apply(CommandTransition transition) {
+        String stageName = TaskLifecycle.getStageName(transition.getCommandType());
+        if (stageName == null) {
+            return;
+        }
+        String prefix = stageName + ".";
+        Update update = new Update()
+                .set(prefix + STATUS, transition.getStatus())
+                .set(prefix + getDateField(transition.getStatus()), transition.getDate())
+                .set("lastUpdate", transition.getDate());
+        if (transition.getTransactionHash() != null) {
+            update.set(prefix + TRANSACTION_HASH, transition.getTransactionHash());
+        }
+        if (transition.getArgs() instanceof TaskInitializeArgs) {
+            TaskInitializeArgs args = (TaskInitializeArgs) transition.getArgs();
+            update.set("chainDealId", args.getChainDealId())
+                    .set("taskIndex", args.getTaskIndex());
+        }
+        mongoTemplate.upsert(new Query(where("_id").is(transition.getChainObjectId())),
+                update, TaskLifecycle.class);
+    }
+
+    @Override
+    public Optional<TaskLifecycle> findByChainTaskId(String chainTaskId) {
+        return Optional.ofNullable(mongoTemplate.findById(chainTaskId, TaskLifecycle.class));
+    }
+
+}
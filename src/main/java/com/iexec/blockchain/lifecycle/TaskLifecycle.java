@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.lifecycle;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Denormalized view of every command submitted for a task.
+ * <p>
+ * This is the "Q" counterpart of {@link com.iexec.blockchain.command.generic.Command}:
+ * it is updated on each {@link CommandTransition} and allows to know where
+ * a task stands with a single read.
+ */
+@Document
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskLifecycle {
+
+    static final String INITIALIZE = "initialize";
+    static final String CONTRIBUTE = "contribute";
+    static final String REVEAL = "reveal";
+    static final String FINALIZE = "finalize";
+    private static final Map<String, String> STAGE_NAMES = Map.of(
+            "TaskInitialize", INITIALIZE,
+            "TaskContribute", CONTRIBUTE,
+            "TaskReveal", REVEAL,
+            "TaskFinalize", FINALIZE);
+
+    @Id
+    private String chainTaskId;
+    private String chainDealId;
+    private Integer taskIndex;
+    private TaskLifecycleStage initialize;
+    private TaskLifecycleStage contribute;
+    private TaskLifecycleStage reveal;
+    private TaskLifecycleStage finalize;
+    private Instant lastUpdate;
+
+    /**
+     * Get the name of the stage fed by a command type.
+     *
+     * @param commandType simple name of the command class
+     * @return stage name, {@literal null} if the command is not a task command
+     */
+    static String getStageName(String commandType) {
+        return STAGE_NAMES.get(commandType);
+    }
+
+    /**
+     * Apply a transition to this in-memory lifecycle.
+     *
+     * @param transition command transition
+     */
+    void apply(CommandTransition transition) {
+        String stageName = getStageName(transition.getCommandType());
+        if (stageName == null) {
+            return;
+        }
+        TaskLifecycleStage stage = getStage(stageName);
+        if (stage == null) {
+            stage = new TaskLifecycleStage();
+            setStage(stageName, stage);
+        }
+        stage.apply(transition);
+        lastUpdate = transition.getDate();
+    }
+
+    private TaskLifecycleStage getStage(String stageName) {
+        switch (stageName) {
+            case INITIALIZE:
+                return initialize;
+            case CONTRIBUTE:
+                return contribute;
+            case REVEAL:
+                return reveal;
+            default:
+                return finalize;
+        }
+    }
+
+    void setStage(String stageName, TaskLifecycleStage stage) {
+        switch (stageName) {
+            case INITIALIZE:
+                initialize = stage;
+                break;
+            case CONTRIBUTE:
+                contribute = stage;
+                break;
+            case REVEAL:
+                reveal = stage;
+                break;
+            default:
+                finalize = stage;
+        }
+    }
+
+}
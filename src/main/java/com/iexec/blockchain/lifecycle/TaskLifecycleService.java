@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.lifecycle;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class TaskLifecycleService {
+
+    private final TaskLifecycleStore taskLifecycleStore;
+
+    public TaskLifecycleService(TaskLifecycleStore taskLifecycleStore) {
+        this.taskLifecycleStore = taskLifecycleStore;
+    }
+
+    /**
+     * Update the projection on every command transition. A failure is only
+     * logged, it must never prevent the command from progressing.
+     *
+     * @param transition command transition
+     */
+    @EventListener
+    public void onCommandTransition(CommandTransition transition) {
+        try {
+            taskLifecycleStore.apply(transition);
+        } catch (RuntimeException e) {
+            log.error("Failed to update task lifecycle [chainTaskId:{}, command:{}, status:{}]",
+                    transition.getChainObjectId(), transition.getCommandType(),
+                    transition.getStatus(), e);
+        }
+    }
+
+    public Optional<TaskLifecycle> getTaskLifecycle(String chainTaskId) {
+        return taskLifecycleStore.findByChainTaskId(chainTaskId);
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.lifecycle;
+
+import com.iexec.blockchain.command.generic.Command;
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.tool.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * State of a single command within a {@link TaskLifecycle}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskLifecycleStage {
+
+    static final String STATUS = "status";
+    static final String CREATION_DATE = "creationDate";
+    static final String PROCESSING_DATE = "processingDate";
+    static final String FINAL_DATE = "finalDate";
+    static final String TRANSACTION_HASH = "transactionHash";
+
+    private Status status;
+    private Instant creationDate;
+    private Instant processingDate;
+    private Instant finalDate;
+    private String transactionHash;
+
+    /**
+     * Get the date field updated by a transition to the given status.
+     *
+     * @param status new status of the command
+     * @return name of the date field
+     */
+    static String getDateField(Status status) {
+        switch (status) {
+            case RECEIVED:
+                return CREATION_DATE;
+            case PROCESSING:
+                return PROCESSING_DATE;
+            default:
+                return FINAL_DATE;
+        }
+    }
+
+    /**
+     * Rebuild the stage of a stored command.
+     *
+     * @param command stored command
+     * @return stage matching the current state of the command
+     */
+    static TaskLifecycleStage of(Command<?> command) {
+        return TaskLifecycleStage.builder()
+                .status(command.getStatus())
+                .creationDate(command.getCreationDate())
+                .processingDate(command.getProcessingDate())
+                .finalDate(command.getFinalDate())
+                .transactionHash(command.getTransactionReceipt() != null
+                        ? command.getTransactionReceipt().getTransactionHash() : null)
+                .build();
+    }
+
+    void apply(CommandTransition transition) {
+        status = transition.getStatus();
+        switch (getDateField(status)) {
+            case CREATION_DATE:
+                creationDate = transition.getDate();
+                break;
+            case PROCESSING_DATE:
+                processingDate = transition.getDate();
+                break;
+            default:
+                finalDate = transition.getDate();
+                transactionHash = transition.getTransactionHash();
+        }
+    }
+
+}
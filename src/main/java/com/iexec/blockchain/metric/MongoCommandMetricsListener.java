@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.metric;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Value;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time every MongoDB command, tagged by collection, driver command and
+ * calling storage method.
+ * <p>
+ * The collection is only known from the started event, it is kept until
+ * the matching succeeded or failed event is received.
+ */
+public class MongoCommandMetricsListener implements CommandListener {
+
+    static final String METRIC_NAME = "mongodb.commands";
+    private static final String GET_MORE = "getMore";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, CommandContext> inFlightCommands = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        inFlightCommands.put(event.getRequestId(), new CommandContext(
+                getCollection(event.getCommandName(), event.getCommand()),
+                StorageCaller.current()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getCommandName(), "success",
+                event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getCommandName(), "failure",
+                event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(int requestId, String commandName, String status, long elapsedNanos) {
+        CommandContext context = inFlightCommands.remove(requestId);
+        if (context == null) {
+            return;
+        }
+        Timer.builder(METRIC_NAME)
+                .description("MongoDB commands by collection and storage method")
+                .tag("collection", context.getCollection())
+                .tag("command", commandName)
+                .tag("caller", context.getCaller())
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The collection is the value of the command name key, e.g.
+     * {@code {find: "taskInitialize"}}, except for cursor iterations.
+     */
+    static String getCollection(String commandName, BsonDocument command) {
+        BsonValue target = GET_MORE.equals(commandName)
+                ? command.get("collection")
+                : command.get(commandName);
+        return target != null && target.isString()
+                ? target.asString().getValue()
+                : StorageCaller.NONE;
+    }
+
+    @Value
+    private static class CommandContext {
+        String collection;
+        String caller;
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.metric;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Register MongoDB driver listeners publishing to {@code /actuator/prometheus}.
+ * <p>
+ * Pool size and checked-out connection gauges are already published by
+ * Spring Boot as {@code mongodb.driver.pool.*}.
+ */
+@Configuration
+@Profile("!embedded")
+public class MongoMetricsConfiguration {
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer mongoMetricsCustomizer(MeterRegistry meterRegistry) {
+        return builder -> builder
+                .addCommandListener(new MongoCommandMetricsListener(meterRegistry))
+                .applyToConnectionPoolSettings(pool ->
+                        pool.addConnectionPoolListener(new MongoPoolWaitListener(meterRegistry)));
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.metric;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent waiting for a pooled MongoDB connection.
+ * <p>
+ * A connection is checked out on the thread running the command, the
+ * check-out start is kept in a thread local until the connection is
+ * obtained or the check-out fails.
+ */
+public class MongoPoolWaitListener implements ConnectionPoolListener {
+
+    static final String METRIC_NAME = "mongodb.driver.pool.wait";
+
+    private final MeterRegistry meterRegistry;
+    private final ThreadLocal<Long> checkOutStart = new ThreadLocal<>();
+
+    public MongoPoolWaitListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+        checkOutStart.set(System.nanoTime());
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        record(event.getConnectionId().getServerId().getAddress(), "success");
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        record(event.getServerId().getAddress(), "failure");
+    }
+
+    private void record(ServerAddress serverAddress, String status) {
+        Long start = checkOutStart.get();
+        checkOutStart.remove();
+        if (start == null) {
+            return;
+        }
+        Timer.builder(METRIC_NAME)
+                .description("Time waiting for a MongoDB pooled connection")
+                .tag("server.address", serverAddress.toString())
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+}
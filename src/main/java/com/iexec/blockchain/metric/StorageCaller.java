@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.metric;
+
+import java.util.function.Supplier;
+
+/**
+ * Name of the storage method currently running on this thread.
+ * <p>
+ * The synchronous MongoDB driver notifies its listeners on the calling
+ * thread, so {@link MongoCommandMetricsListener} can tag each database
+ * command with the storage method that issued it.
+ */
+public final class StorageCaller {
+
+    static final String NONE = "none";
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private StorageCaller() {
+    }
+
+    public static <T> T call(String caller, Supplier<T> supplier) {
+        String previous = CURRENT.get();
+        CURRENT.set(caller);
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    public static void run(String caller, Runnable runnable) {
+        call(caller, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    static String current() {
+        String caller = CURRENT.get();
+        return caller != null ? caller : NONE;
+    }
+
+    private static void restore(String previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.mirror;
+
+import lombok.Builder;
+import lombok.Value;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Decoded hub event, published as an application event once applied to
+ * the {@link TaskStateMirror}.
+ */
+@Value
+@Builder
+public class HubEvent {
+
+    private static final int WORD_HEX_LENGTH = 64;
+
+    HubEventType type;
+    long blockNumber;
+    /**
+     * Task events only.
+     */
+    String chainTaskId;
+    /**
+     * {@link HubEventType#SCHEDULER_NOTICE} only.
+     */
+    String chainDealId;
+    /**
+     * Worker of contribute and reveal events, workerpool of initialize
+     * and scheduler notice events, owner of account events and sender of
+     * transfers.
+     */
+    String account;
+    /**
+     * {@link HubEventType#TRANSFER} only.
+     */
+    String recipient;
+
+    /**
+     * Decode a hub log. Indexed parameters come first in the declaration of
+     * every followed event, they are read from the topics and the remaining
+     * parameters from the data words.
+     *
+     * @param log raw log returned by {@code eth_getLogs}
+     * @return decoded event, empty for events which are not followed
+     */
+    static Optional<HubEvent> fromLog(Log log) {
+        List<String> topics = log.getTopics();
+        if (topics == null || topics.isEmpty()) {
+            return Optional.empty();
+        }
+        return HubEventType.fromTopic(topics.get(0)).map(type -> {
+            HubEventBuilder builder = HubEvent.builder()
+                    .type(type)
+                    .blockNumber(log.getBlockNumber().longValue());
+            switch (type) {
+                case SCHEDULER_NOTICE:
+                    builder.account(toAddress(getParameter(log, 0)))
+                            .chainDealId(getParameter(log, 1));
+                    break;
+                case TRANSFER:
+                    builder.account(toAddress(getParameter(log, 0)))
+                            .recipient(toAddress(getParameter(log, 1)));
+                    break;
+                case LOCK:
+                case UNLOCK:
+                case SEIZE:
+                case REWARD:
+                    builder.account(toAddress(getParameter(log, 0)));
+                    break;
+                case TASK_INITIALIZE:
+                case TASK_CONTRIBUTE:
+                case TASK_REVEAL:
+                    builder.chainTaskId(getParameter(log, 0))
+                            .account(toAddress(getParameter(log, 1)));
+                    break;
+                default:
+                    builder.chainTaskId(getParameter(log, 0));
+            }
+            return builder.build();
+        });
+    }
+
+    private static String getParameter(Log log, int index) {
+        int indexedCount = log.getTopics().size() - 1;
+        if (index < indexedCount) {
+            return log.getTopics().get(index + 1);
+        }
+        int start = 2 + (index - indexedCount) * WORD_HEX_LENGTH;
+        return "0x" + log.getData().substring(start, start + WORD_HEX_LENGTH);
+    }
+
+    private static String toAddress(String word) {
+        return "0x" + word.substring(word.length() - 40);
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.mirror;
+
+import com.iexec.blockchain.tool.ChainConfig;
+import com.iexec.blockchain.tool.NewChainHeadEvent;
+import com.iexec.blockchain.tool.Web3jService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Follow hub events in block order with {@code eth_getLogs} and apply them
+ * to the {@link TaskStateMirror}. Each applied event is then published as
+ * an application event, so that cached reads of the task can be evicted.
+ * <p>
+ * New heads are published by the scheduler thread polling the chain. Events
+ * are followed on a dedicated thread instead, so that a long catch-up never
+ * delays the publication of the next heads. Heads received during a
+ * catch-up are coalesced, only the highest one is followed next.
+ */
+@Slf4j
+@Service
+public class HubEventFollower {
+
+    private final Web3jService web3jService;
+    private final TaskStateMirror taskStateMirror;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String hubAddress;
+    private final long startBlock;
+    private final int maxBlockRange;
+    private final String[] topics = Arrays.stream(HubEventType.values())
+            .map(HubEventType::getTopic)
+            .toArray(String[]::new);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicLong targetHead = new AtomicLong(-1);
+    private final AtomicBoolean following = new AtomicBoolean();
+
+    public HubEventFollower(Web3jService web3jService,
+                            TaskStateMirror taskStateMirror,
+                            ApplicationEventPublisher eventPublisher,
+                            ChainConfig chainConfig,
+                            @Value("${chain.mirror.start-block}") long startBlock,
+                            @Value("${chain.mirror.max-block-range}") int maxBlockRange) {
+        this.web3jService = web3jService;
+        this.taskStateMirror = taskStateMirror;
+        this.eventPublisher = eventPublisher;
+        this.hubAddress = chainConfig.getHubAddress();
+        this.startBlock = startBlock;
+        this.maxBlockRange = maxBlockRange;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener
+    public void onNewChainHead(NewChainHeadEvent event) {
+        if (!taskStateMirror.isEnabled()) {
+            return;
+        }
+        targetHead.accumulateAndGet(event.getBlockNumber(), Math::max);
+        scheduleFollow();
+    }
+
+    private void scheduleFollow() {
+        if (following.compareAndSet(false, true)) {
+            executor.execute(this::follow);
+        }
+    }
+
+    /**
+     * Follow up to the highest received head, then again if a higher head
+     * was received meanwhile. After a failure, the next head retries.
+     */
+    private void follow() {
+        long head = targetHead.get();
+        boolean followed;
+        try {
+            followed = followUpTo(head);
+        } finally {
+            following.set(false);
+        }
+        if (followed && targetHead.get() > head) {
+            scheduleFollow();
+        }
+    }
+
+    /**
+     * Apply events of every block up to the head, by ranges of at most
+     * {@code chain.mirror.max-block-range} blocks. On failure, the next head
+     * resumes from the last fully applied range.
+     *
+     * @param head block to follow up to
+     * @return true if every block up to the head was applied
+     */
+    synchronized boolean followUpTo(long head) {
+        long from = getFirstBlockToFollow(head);
+        try {
+            while (from <= head) {
+                long to = Math.min(head, from + maxBlockRange - 1);
+                for (Log hubLog : getLogs(from, to)) {
+                    Optional<HubEvent> hubEvent = HubEvent.fromLog(hubLog);
+                    hubEvent.ifPresent(taskStateMirror::apply);
+                    hubEvent.ifPresent(eventPublisher::publishEvent);
+                }
+                taskStateMirror.markSynced(to);
+                from = to + 1;
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to follow hub events [fromBlock:{}, head:{}]", from, head, e);
+            return false;
+        }
+    }
+
+    private long getFirstBlockToFollow(long head) {
+        long syncedBlock = taskStateMirror.getSyncedBlock();
+        if (syncedBlock >= 0) {
+            return syncedBlock + 1;
+        }
+        return startBlock >= 0 ? startBlock : head;
+    }
+
+    List<Log> getLogs(long fromBlock, long toBlock) throws IOException {
+        EthFilter filter = new EthFilter(
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(fromBlock)),
+                DefaultBlockParameter.valueOf(BigInteger.valueOf(toBlock)),
+                hubAddress);
+        filter.addOptionalTopics(topics);
+        EthLog ethLog = web3jService.getWeb3j().ethGetLogs(filter).send();
+        if (ethLog.hasError()) {
+            throw new IOException("eth_getLogs failed: " + ethLog.getError().getMessage());
+        }
+        return ethLog.getLogs().stream()
+                .map(logResult -> (Log) logResult.get())
+                .collect(Collectors.toList());
+    }
+
+}
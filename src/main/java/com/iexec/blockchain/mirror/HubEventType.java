@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.mirror;
+
+import lombok.Getter;
+import org.web3j.crypto.Hash;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Hub events followed by {@link HubEventFollower}, identified by the hash
+ * of their signature in the first log topic.
+ */
+@Getter
+public enum HubEventType {
+    TASK_INITIALIZE("TaskInitialize(bytes32,address)"),
+    TASK_CONTRIBUTE("TaskContribute(bytes32,address,bytes32)"),
+    TASK_CONSENSUS("TaskConsensus(bytes32,bytes32)"),
+    TASK_REVEAL("TaskReveal(bytes32,address,bytes32)"),
+    TASK_REOPEN("TaskReopen(bytes32)"),
+    TASK_FINALIZE("TaskFinalize(bytes32,bytes)"),
+    TASK_CLAIMED("TaskClaimed(bytes32)"),
+    SCHEDULER_NOTICE("SchedulerNotice(address,bytes32)"),
+    TRANSFER("Transfer(address,address,uint256)"),
+    LOCK("Lock(address,uint256)"),
+    UNLOCK("Unlock(address,uint256)"),
+    SEIZE("Seize(address,uint256,bytes32)"),
+    REWARD("Reward(address,uint256,bytes32)");
+
+    private final String signature;
+    private final String topic;
+
+    HubEventType(String signature) {
+        this.signature = signature;
+        this.topic = Hash.sha3String(signature);
+    }
+
+    /**
+     * @return true for events changing the balance or the locked amount of an account
+     */
+    public boolean isAccountEvent() {
+        return this == TRANSFER || this == LOCK || this == UNLOCK || this == SEIZE || this == REWARD;
+    }
+
+    public static Optional<HubEventType> fromTopic(String topic) {
+        return Arrays.stream(values())
+                .filter(type -> type.topic.equalsIgnoreCase(topic))
+                .findFirst();
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.mirror;
+
+import com.iexec.blockchain.tool.ChainHeadService;
+import com.iexec.commons.poco.chain.ChainTaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of task states, built from hub events in block
+ * order by {@link HubEventFollower}.
+ * <p>
+ * The index only answers while it is synchronized with the chain head.
+ * Tasks without any event since the follower started are unknown: callers
+ * read them on the chain, unless the fallback is disabled because the
+ * follower was started from the hub deployment block.
+ */
+@Slf4j
+@Component
+public class TaskStateMirror {
+
+    /**
+     * About one day of blocks on a 5 seconds block time chain.
+     */
+    static final long FINAL_TASK_RETENTION_BLOCKS = 17_280;
+
+    private final boolean enabled;
+    private final boolean fallbackEnabled;
+    private final ChainHeadService chainHeadService;
+    private final Map<String, MirroredTask> tasks = new ConcurrentHashMap<>();
+    private volatile long syncedBlock = -1;
+
+    public TaskStateMirror(@Value("${chain.mirror.enabled}") boolean enabled,
+                           @Value("${chain.mirror.fallback-enabled}") boolean fallbackEnabled,
+                           ChainHeadService chainHeadService) {
+        this.enabled = enabled;
+        this.fallbackEnabled = fallbackEnabled;
+        this.chainHeadService = chainHeadService;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return last block whose events were all applied, -1 before the first one
+     */
+    public long getSyncedBlock() {
+        return syncedBlock;
+    }
+
+    /**
+     * @return true if events up to the block preceding the chain head were applied
+     */
+    public boolean isSynced() {
+        return enabled
+                && syncedBlock >= 0
+                && syncedBlock >= chainHeadService.getHeadBlockNumber() - 1;
+    }
+
+    /**
+     * Get the status of a task from the index.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @return status, or empty if the caller has to read it on the chain
+     */
+    public Optional<ChainTaskStatus> getTaskStatus(String chainTaskId) {
+        if (!isSynced()) {
+            return Optional.empty();
+        }
+        MirroredTask task = tasks.get(chainTaskId);
+        if (task != null) {
+            return Optional.of(task.getStatus());
+        }
+        return fallbackEnabled ? Optional.empty() : Optional.of(ChainTaskStatus.UNSET);
+    }
+
+    /**
+     * Get the block of the last event of a task from the index.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @return block number, or empty if the task is unknown or the index is not synchronized
+     */
+    public OptionalLong getLastEventBlock(String chainTaskId) {
+        MirroredTask task = isSynced() ? tasks.get(chainTaskId) : null;
+        return task != null ? OptionalLong.of(task.getLastEventBlock()) : OptionalLong.empty();
+    }
+
+    /**
+     * Check from the index whether a worker contributed to a task.
+     *
+     * @param chainTaskId  blockchain ID of the task
+     * @param workerWallet worker address
+     * @return contribution presence, or empty if the caller has to read it on the chain
+     */
+    public Optional<Boolean> hasContributed(String chainTaskId, String workerWallet) {
+        if (!isSynced()) {
+            return Optional.empty();
+        }
+        MirroredTask task = tasks.get(chainTaskId);
+        if (task == null) {
+            return fallbackEnabled ? Optional.empty() : Optional.of(false);
+        }
+        if (task.getContributors().contains(workerWallet.toLowerCase())) {
+            return Optional.of(true);
+        }
+        return task.isInitializationSeen() ? Optional.of(false) : Optional.empty();
+    }
+
+    void apply(HubEvent event) {
+        if (event.getChainTaskId() == null) {
+            return;
+        }
+        tasks.compute(event.getChainTaskId(), (chainTaskId, task) -> {
+            MirroredTask current = task != null
+                    ? task
+                    : new MirroredTask(ChainTaskStatus.ACTIVE, 0L, false, new HashSet<>());
+            return current.apply(event);
+        });
+    }
+
+    void markSynced(long blockNumber) {
+        syncedBlock = blockNumber;
+        if (fallbackEnabled) {
+            long pruneBefore = blockNumber - FINAL_TASK_RETENTION_BLOCKS;
+            tasks.values().removeIf(task -> task.isFinal() && task.getLastEventBlock() < pruneBefore);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class MirroredTask {
+        private final ChainTaskStatus status;
+        private final long lastEventBlock;
+        private final boolean initializationSeen;
+        private final Set<String> contributors;
+
+        MirroredTask apply(HubEvent event) {
+            ChainTaskStatus newStatus = status;
+            boolean initialized = initializationSeen;
+            Set<String> newContributors = contributors;
+            switch (event.getType()) {
+                case TASK_INITIALIZE:
+                    newStatus = ChainTaskStatus.ACTIVE;
+                    initialized = true;
+                    break;
+                case TASK_CONTRIBUTE:
+                    newContributors = new HashSet<>(contributors);
+                    newContributors.add(event.getAccount().toLowerCase());
+                    break;
+                case TASK_CONSENSUS:
+                    newStatus = ChainTaskStatus.REVEALING;
+                    break;
+                case TASK_REOPEN:
+                    newStatus = ChainTaskStatus.ACTIVE;
+                    break;
+                case TASK_FINALIZE:
+                    newStatus = ChainTaskStatus.COMPLETED;
+                    break;
+                case TASK_CLAIMED:
+                    newStatus = ChainTaskStatus.FAILED;
+                    break;
+                default:
+                    break;
+            }
+            return new MirroredTask(newStatus, event.getBlockNumber(), initialized, newContributors);
+        }
+
+        boolean isFinal() {
+            return status == ChainTaskStatus.COMPLETED || status == ChainTaskStatus.FAILED;
+        }
+    }
+
+}
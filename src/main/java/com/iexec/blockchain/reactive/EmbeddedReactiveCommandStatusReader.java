@@ -0,0 +1,53 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.TaskCommandEngines;
+import com.iexec.blockchain.tool.Status;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Read command statuses from the embedded command store. It is kept in
+ * memory, statuses are read on the calling thread.
+ */
+@Component
+@Profile("reactive & embedded")
+public class EmbeddedReactiveCommandStatusReader implements ReactiveCommandStatusReader {
+
+    private final TaskCommandEngines taskCommandEngines;
+
+    public EmbeddedReactiveCommandStatusReader(TaskCommandEngines taskCommandEngines) {
+        this.taskCommandEngines = taskCommandEngines;
+    }
+
+    @Override
+    public Mono<Status> getStatus(TaskCommandType commandType, String chainTaskId) {
+        return Mono.justOrEmpty(taskCommandEngines.get(commandType).getStatusForCommand(chainTaskId));
+    }
+
+    @Override
+    public Mono<Map<String, Status>> getStatuses(TaskCommandType commandType, Collection<String> chainTaskIds) {
+        return Mono.just(taskCommandEngines.get(commandType).getStatusesForCommands(chainTaskIds));
+    }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.iexec.blockchain.command.generic.CommandArchive;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.contribute.TaskContribute;
+import com.iexec.blockchain.command.task.finalize.TaskFinalize;
+import com.iexec.blockchain.command.task.initialize.TaskInitialize;
+import com.iexec.blockchain.command.task.reveal.TaskReveal;
+import com.iexec.blockchain.tool.Status;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Read command statuses with the reactive MongoDB driver, from the hot
+ * collection of each command type, then from its archive collection.
+ * Only the blockchain object ID and the status of each command are fetched.
+ */
+@Component
+@Profile("reactive & !embedded")
+public class MongoReactiveCommandStatusReader implements ReactiveCommandStatusReader {
+
+    private static final String CHAIN_OBJECT_ID = "chainObjectId";
+    private static final String STATUS = "status";
+
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final Map<TaskCommandType, String> collectionNames = new EnumMap<>(TaskCommandType.class);
+
+    public MongoReactiveCommandStatusReader(ReactiveMongoTemplate reactiveMongoTemplate) {
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        collectionNames.put(TaskCommandType.INITIALIZE, reactiveMongoTemplate.getCollectionName(TaskInitialize.class));
+        collectionNames.put(TaskCommandType.CONTRIBUTE, reactiveMongoTemplate.getCollectionName(TaskContribute.class));
+        collectionNames.put(TaskCommandType.REVEAL, reactiveMongoTemplate.getCollectionName(TaskReveal.class));
+        collectionNames.put(TaskCommandType.FINALIZE, reactiveMongoTemplate.getCollectionName(TaskFinalize.class));
+    }
+
+    @Override
+    public Mono<Status> getStatus(TaskCommandType commandType, String chainTaskId) {
+        String collection = collectionNames.get(commandType);
+        Query query = new Query(where(CHAIN_OBJECT_ID).is(chainTaskId));
+        query.fields().include(STATUS);
+        return reactiveMongoTemplate.findOne(query, Document.class, collection)
+                .switchIfEmpty(reactiveMongoTemplate.findOne(query, Document.class,
+                        collection + CommandArchive.ARCHIVE_SUFFIX))
+                .map(MongoReactiveCommandStatusReader::getStatus);
+    }
+
+    @Override
+    public Mono<Map<String, Status>> getStatuses(TaskCommandType commandType, Collection<String> chainTaskIds) {
+        String collection = collectionNames.get(commandType);
+        return findStatuses(collection, chainTaskIds)
+                .flatMap(statuses -> {
+                    List<String> missingIds = chainTaskIds.stream()
+                            .filter(chainTaskId -> !statuses.containsKey(chainTaskId))
+                            .distinct()
+                            .collect(Collectors.toList());
+                    if (missingIds.isEmpty()) {
+                        return Mono.just(statuses);
+                    }
+                    return findStatuses(collection + CommandArchive.ARCHIVE_SUFFIX, missingIds)
+                            .map(archivedStatuses -> {
+                                statuses.putAll(archivedStatuses);
+                                return statuses;
+                            });
+                });
+    }
+
+    private Mono<Map<String, Status>> findStatuses(String collection, Collection<String> chainTaskIds) {
+        Query query = new Query(where(CHAIN_OBJECT_ID).in(chainTaskIds));
+        query.fields().include(CHAIN_OBJECT_ID).include(STATUS);
+        return reactiveMongoTemplate.find(query, Document.class, collection)
+                .collect(HashMap::new, (statuses, document) ->
+                        statuses.putIfAbsent(document.getString(CHAIN_OBJECT_ID), getStatus(document)));
+    }
+
+    private static Status getStatus(Document document) {
+        return Status.valueOf(document.getString(STATUS));
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.iexec.blockchain.command.status.TaskCommandType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.Locale;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+/**
+ * Routes of the reactive API, matching the paths of the servlet API.
+ * <p>
+ * Awaiting a status ({@code await} parameter) and streaming command
+ * transitions are only served by the servlet API.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveApiRouter {
+
+    private final ReactiveTaskHandler taskHandler;
+    private final ReactivePublicConfigurationHandler publicConfigurationHandler;
+    private final BasicAuthFilter basicAuthFilter;
+
+    public ReactiveApiRouter(ReactiveTaskHandler taskHandler,
+                             ReactivePublicConfigurationHandler publicConfigurationHandler,
+                             @Value("${spring.security.user.name}") String username,
+                             @Value("${spring.security.user.password}") String password) {
+        this.taskHandler = taskHandler;
+        this.publicConfigurationHandler = publicConfigurationHandler;
+        this.basicAuthFilter = new BasicAuthFilter(username, password);
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        RouterFunctions.Builder tasks = RouterFunctions.route()
+                .GET("/tasks/{chainTaskId}", taskHandler::getTask)
+                .GET("/tasks/{chainTaskId}/lifecycle", taskHandler::getTaskLifecycle)
+                .POST("/tasks/status", taskHandler::getStatuses)
+                .POST("/tasks/initialize", taskHandler::requestInitializeTask)
+                .POST("/tasks/initialize/batch", taskHandler::requestInitializeTasks)
+                .POST("/tasks/contribute/batch", taskHandler::contributeTasks)
+                .POST("/tasks/contribute/{chainTaskId}", taskHandler::contributeTask)
+                .POST("/tasks/reveal/batch", taskHandler::revealTasks)
+                .POST("/tasks/reveal/{chainTaskId}", taskHandler::revealTask)
+                .POST("/tasks/finalize/batch", taskHandler::requestFinalizeTasks)
+                .POST("/tasks/finalize/{chainTaskId}", taskHandler::requestFinalizeTask);
+        for (TaskCommandType commandType : TaskCommandType.values()) {
+            String statusPath = "/tasks/" + commandType.name().toLowerCase(Locale.ROOT) + "/{chainTaskId}/status";
+            tasks.route(GET(statusPath).and(RequestPredicates.queryParam("await", value -> true)),
+                            request -> ServerResponse.status(HttpStatus.NOT_IMPLEMENTED).build())
+                    .GET(statusPath, request -> taskHandler.getStatus(commandType, request));
+        }
+        return RouterFunctions.route()
+                .GET("/config/chain", publicConfigurationHandler::getPublicChainConfig)
+                .add(tasks.filter(basicAuthFilter).build())
+                .build();
+    }
+
+}
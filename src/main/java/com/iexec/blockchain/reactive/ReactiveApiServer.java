@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+/**
+ * Serve the routes of {@link ReactiveApiRouter} with Netty on a dedicated
+ * port, next to the servlet API.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactiveApiServer implements SmartLifecycle {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ReactorHttpHandlerAdapter handlerAdapter;
+    private final int port;
+    private final int eventLoopThreads;
+    private LoopResources loopResources;
+    private volatile DisposableServer server;
+
+    public ReactiveApiServer(ReactiveApiRouter reactiveApiRouter,
+                             ObjectMapper objectMapper,
+                             @Value("${reactive.port}") int port,
+                             @Value("${reactive.event-loop-threads}") int eventLoopThreads) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonEncoder(
+                            new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON));
+                    configurer.defaultCodecs().jackson2JsonDecoder(
+                            new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON));
+                })
+                .build();
+        this.handlerAdapter = new ReactorHttpHandlerAdapter(
+                RouterFunctions.toHttpHandler(reactiveApiRouter.routes(), strategies));
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+    }
+
+    @Override
+    public void start() {
+        loopResources = LoopResources.create("reactive-api", eventLoopThreads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loopResources)
+                .handle(handlerAdapter)
+                .bindNow();
+        log.info("Reactive API server started [port:{}]", server.port());
+    }
+
+    @Override
+    public void stop() {
+        server.disposeNow(SHUTDOWN_TIMEOUT);
+        loopResources.disposeLater().block(SHUTDOWN_TIMEOUT);
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * @return port the server is bound to, resolved when started on port 0
+     */
+    public int getPort() {
+        return server != null ? server.port() : port;
+    }
+
+}
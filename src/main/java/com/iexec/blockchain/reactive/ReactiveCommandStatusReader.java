@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.tool.Status;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Read command statuses without blocking the event loop of the reactive API.
+ */
+public interface ReactiveCommandStatusReader {
+
+    /**
+     * @param commandType type of the command
+     * @param chainTaskId blockchain ID of the task
+     * @return status of the command, empty if unknown
+     */
+    Mono<Status> getStatus(TaskCommandType commandType, String chainTaskId);
+
+    /**
+     * @param commandType  type of the commands
+     * @param chainTaskIds blockchain IDs of the tasks
+     * @return status of known commands by blockchain task ID
+     */
+    Mono<Map<String, Status>> getStatuses(TaskCommandType commandType, Collection<String> chainTaskIds);
+
+}
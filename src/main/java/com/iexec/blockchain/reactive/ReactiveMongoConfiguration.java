@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+/**
+ * Reactive MongoDB client of the reactive API, connected to the database of
+ * the command store. Reactive auto-configurations are excluded from the
+ * application, no reactive client is created without the reactive profile.
+ */
+@Configuration
+@Profile("reactive & !embedded")
+public class ReactiveMongoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public MongoClient reactiveMongoClient(@Value("${spring.data.mongodb.host}") String host,
+                                           @Value("${spring.data.mongodb.port}") int port) {
+        return MongoClients.create("mongodb://" + host + ":" + port);
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient,
+                                                       @Value("${spring.data.mongodb.database}") String database) {
+        return new ReactiveMongoTemplate(reactiveMongoClient, database);
+    }
+
+}
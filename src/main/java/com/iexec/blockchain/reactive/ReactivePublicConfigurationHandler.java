@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.iexec.blockchain.config.PublicConfigurationController;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of {@link PublicConfigurationController}. The
+ * configuration is serialized once, it is served from memory with the same
+ * ETag as the servlet API.
+ */
+@Component
+@Profile("reactive")
+public class ReactivePublicConfigurationHandler {
+
+    private final PublicConfigurationController publicConfigurationController;
+
+    public ReactivePublicConfigurationHandler(PublicConfigurationController publicConfigurationController) {
+        this.publicConfigurationController = publicConfigurationController;
+    }
+
+    Mono<ServerResponse> getPublicChainConfig(ServerRequest request) {
+        String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+        return Mono.fromCallable(() -> publicConfigurationController.getPublicChainConfig(ifNoneMatch))
+                .flatMap(ReactiveResponses::from);
+    }
+
+}
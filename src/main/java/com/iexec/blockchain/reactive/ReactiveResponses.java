@@ -0,0 +1,41 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+final class ReactiveResponses {
+
+    private ReactiveResponses() {
+    }
+
+    /**
+     * Convert a response of a servlet controller, keeping its status,
+     * headers and body, so both APIs answer alike.
+     *
+     * @param entity response of a servlet controller
+     * @return equivalent response of the reactive API
+     */
+    static Mono<ServerResponse> from(ResponseEntity<?> entity) {
+        ServerResponse.BodyBuilder response = ServerResponse.status(entity.getStatusCode())
+                .headers(headers -> headers.addAll(entity.getHeaders()));
+        return entity.getBody() != null ? response.bodyValue(entity.getBody()) : response.build();
+    }
+
+}
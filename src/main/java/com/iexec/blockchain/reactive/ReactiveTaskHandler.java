@@ -0,0 +1,203 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.iexec.blockchain.command.batch.TaskBatchItem;
+import com.iexec.blockchain.command.batch.TaskInitializeBatchItem;
+import com.iexec.blockchain.command.status.CommandStatusQuery;
+import com.iexec.blockchain.command.status.CommandStatusResult;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.TaskController;
+import com.iexec.common.chain.adapter.args.TaskContributeArgs;
+import com.iexec.common.chain.adapter.args.TaskFinalizeArgs;
+import com.iexec.common.chain.adapter.args.TaskRevealArgs;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Reactive counterpart of {@link TaskController}.
+ * <p>
+ * Statuses are read with a {@link ReactiveCommandStatusReader}. Submissions
+ * already run on the bounded pools of the command submission executor, their
+ * pending response is only subscribed to. Chain task and lifecycle reads are
+ * not reactive: they go through the blocking chain clients of
+ * {@link TaskController} and hold a thread of a bounded scheduler per
+ * request, never a thread of the event loop.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveTaskHandler {
+
+    private static final int BLOCKING_READS_QUEUE_SIZE = 10_000;
+
+    private final TaskController taskController;
+    private final ReactiveCommandStatusReader commandStatusReader;
+    private final Scheduler blockingReads;
+
+    public ReactiveTaskHandler(TaskController taskController,
+                               ReactiveCommandStatusReader commandStatusReader,
+                               @Value("${reactive.blocking-threads}") int blockingThreads) {
+        this.taskController = taskController;
+        this.commandStatusReader = commandStatusReader;
+        this.blockingReads = Schedulers.newBoundedElastic(blockingThreads, BLOCKING_READS_QUEUE_SIZE,
+                "reactive-blocking-read");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        blockingReads.dispose();
+    }
+
+    Mono<ServerResponse> getTask(ServerRequest request) {
+        String chainTaskId = request.pathVariable("chainTaskId");
+        String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+        return Mono.fromCallable(() -> taskController.getTask(chainTaskId, ifNoneMatch))
+                .subscribeOn(blockingReads)
+                .flatMap(ReactiveResponses::from);
+    }
+
+    Mono<ServerResponse> getTaskLifecycle(ServerRequest request) {
+        String chainTaskId = request.pathVariable("chainTaskId");
+        return Mono.fromCallable(() -> taskController.getTaskLifecycle(chainTaskId))
+                .subscribeOn(blockingReads)
+                .flatMap(ReactiveResponses::from);
+    }
+
+    Mono<ServerResponse> getStatus(TaskCommandType commandType, ServerRequest request) {
+        return commandStatusReader.getStatus(commandType, request.pathVariable("chainTaskId"))
+                .flatMap(status -> ServerResponse.ok().bodyValue(status))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    Mono<ServerResponse> getStatuses(ServerRequest request) {
+        return request.bodyToMono(new ParameterizedTypeReference<List<CommandStatusQuery>>() {
+                })
+                .flatMap(queries -> {
+                    if (queries.size() > TaskController.MAX_BATCH_SIZE
+                            || queries.stream().anyMatch(query -> query.getCommandType() == null)) {
+                        return ServerResponse.badRequest().build();
+                    }
+                    Map<TaskCommandType, Set<String>> chainTaskIds = queries.stream()
+                            .collect(Collectors.groupingBy(CommandStatusQuery::getCommandType,
+                                    () -> new EnumMap<>(TaskCommandType.class),
+                                    Collectors.mapping(CommandStatusQuery::getChainTaskId, Collectors.toSet())));
+                    return Flux.fromIterable(chainTaskIds.entrySet())
+                            .flatMap(entry -> commandStatusReader.getStatuses(entry.getKey(), entry.getValue())
+                                    .map(statuses -> Map.entry(entry.getKey(), statuses)))
+                            .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                            .flatMap(statuses -> ServerResponse.ok().bodyValue(queries.stream()
+                                    .map(query -> new CommandStatusResult(query.getCommandType(),
+                                            query.getChainTaskId(),
+                                            statuses.get(query.getCommandType()).get(query.getChainTaskId())))
+                                    .collect(Collectors.toList())));
+                })
+                .switchIfEmpty(ServerResponse.badRequest().build());
+    }
+
+    Mono<ServerResponse> requestInitializeTask(ServerRequest request) {
+        Optional<String> chainDealId = request.queryParam("chainDealId");
+        Optional<Integer> taskIndex = request.queryParam("taskIndex")
+                .flatMap(ReactiveTaskHandler::parseInt);
+        if (chainDealId.isEmpty() || taskIndex.isEmpty()) {
+            return ServerResponse.badRequest().build();
+        }
+        return submit(Mono.just(taskIndex.get()), index ->
+                taskController.requestInitializeTask(chainDealId.get(), index, getCallbackUrl(request)));
+    }
+
+    Mono<ServerResponse> requestInitializeTasks(ServerRequest request) {
+        return submit(request.bodyToMono(new ParameterizedTypeReference<List<TaskInitializeBatchItem>>() {
+                }),
+                items -> taskController.requestInitializeTasks(items, getCallbackUrl(request)));
+    }
+
+    Mono<ServerResponse> contributeTask(ServerRequest request) {
+        String chainTaskId = request.pathVariable("chainTaskId");
+        return submit(request.bodyToMono(TaskContributeArgs.class),
+                args -> taskController.contributeTask(chainTaskId, args, getCallbackUrl(request)));
+    }
+
+    Mono<ServerResponse> contributeTasks(ServerRequest request) {
+        return submit(request.bodyToMono(new ParameterizedTypeReference<List<TaskBatchItem<TaskContributeArgs>>>() {
+                }),
+                items -> taskController.contributeTasks(items, getCallbackUrl(request)));
+    }
+
+    Mono<ServerResponse> revealTask(ServerRequest request) {
+        String chainTaskId = request.pathVariable("chainTaskId");
+        return submit(request.bodyToMono(TaskRevealArgs.class),
+                args -> taskController.revealTask(chainTaskId, args, getCallbackUrl(request)));
+    }
+
+    Mono<ServerResponse> revealTasks(ServerRequest request) {
+        return submit(request.bodyToMono(new ParameterizedTypeReference<List<TaskBatchItem<TaskRevealArgs>>>() {
+                }),
+                items -> taskController.revealTasks(items, getCallbackUrl(request)));
+    }
+
+    Mono<ServerResponse> requestFinalizeTask(ServerRequest request) {
+        String chainTaskId = request.pathVariable("chainTaskId");
+        return submit(request.bodyToMono(TaskFinalizeArgs.class),
+                args -> taskController.requestFinalizeTask(chainTaskId, args, getCallbackUrl(request)));
+    }
+
+    Mono<ServerResponse> requestFinalizeTasks(ServerRequest request) {
+        return submit(request.bodyToMono(new ParameterizedTypeReference<List<TaskBatchItem<TaskFinalizeArgs>>>() {
+                }),
+                items -> taskController.requestFinalizeTasks(items, getCallbackUrl(request)));
+    }
+
+    /**
+     * Subscribe to the pending response of a submission, a request without
+     * body is answered with {@code 400}.
+     */
+    private static <T> Mono<ServerResponse> submit(Mono<T> body,
+                                                   Function<T, CompletableFuture<? extends ResponseEntity<?>>> submission) {
+        return body.flatMap(value -> Mono.<ResponseEntity<?>>fromFuture(submission.apply(value)))
+                .flatMap(ReactiveResponses::from)
+                .switchIfEmpty(ServerResponse.badRequest().build());
+    }
+
+    private static String getCallbackUrl(ServerRequest request) {
+        return request.queryParam("callbackUrl").orElse(null);
+    }
+
+    private static Optional<Integer> parseInt(String value) {
+        try {
+            return Optional.of(Integer.parseInt(value));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+}
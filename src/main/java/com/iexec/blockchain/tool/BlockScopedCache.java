@@ -0,0 +1,147 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Read-through cache of on-chain values which are only valid until the next
+ * block. Entries are dropped with {@link #clear()} when a new head arrives.
+ * <p>
+ * Concurrent misses on the same key are coalesced: the first caller runs the
+ * loader, the others wait for its result. Every hit, coalesced misses
+ * included, is an avoided RPC and is counted in
+ * {@code chain.cache.requests{result="hit"}}.
+ * <p>
+ * A cache whose entries may outlive a block is created with a maximum size
+ * and an expiry, so that it stays bounded between two {@link #clear()}.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BlockScopedCache<K, V> {
+
+    static final String REQUESTS_METRIC = "chain.cache.requests";
+    static final String SIZE_METRIC = "chain.cache.size";
+
+    private final Map<K, CompletableFuture<V>> entries;
+    private final Counter hits;
+    private final Counter misses;
+
+    public BlockScopedCache(String name, MeterRegistry meterRegistry) {
+        this(name, meterRegistry, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * @param name          cache name, used as metric tag
+     * @param meterRegistry registry of the cache metrics
+     * @param maxSize       maximum number of entries, least recently used ones are evicted
+     * @param expiry        duration after which a loaded entry is dropped
+     */
+    public BlockScopedCache(String name, MeterRegistry meterRegistry, long maxSize, Duration expiry) {
+        this(name, meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expiry)
+                .<K, CompletableFuture<V>>build()
+                .asMap());
+    }
+
+    private BlockScopedCache(String name, MeterRegistry meterRegistry, Map<K, CompletableFuture<V>> entries) {
+        this.entries = entries;
+        this.hits = Counter.builder(REQUESTS_METRIC)
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder(REQUESTS_METRIC)
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder(SIZE_METRIC, entries, Map::size)
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the value of the current block, loading it on a miss.
+     * A failed load is not cached.
+     *
+     * @param key    cache key
+     * @param loader RPC read of the value
+     * @return cached or loaded value
+     */
+    public V get(K key, Function<K, V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = entries.putIfAbsent(key, created);
+        if (existing != null) {
+            hits.increment();
+            return join(existing);
+        }
+        misses.increment();
+        try {
+            V value = loader.apply(key);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            entries.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void evict(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Drop loaded entries whose value matches a predicate.
+     * Entries still loading are kept.
+     *
+     * @param predicate values to drop
+     */
+    public void evictIf(Predicate<V> predicate) {
+        entries.values().removeIf(future -> future.isDone()
+                && !future.isCompletedExceptionally()
+                && predicate.test(future.join()));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Follow the head of the chain and publish a {@link NewChainHeadEvent}
+ * each time it moves forward.
+ */
+@Slf4j
+@Service
+public class ChainHeadService {
+
+    private final Web3jService web3jService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong headBlockNumber = new AtomicLong(0L);
+
+    public ChainHeadService(Web3jService web3jService,
+                            ApplicationEventPublisher eventPublisher) {
+        this.web3jService = web3jService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${chain.head-polling-interval}")
+    void pollHead() {
+        advanceHead(web3jService.getLatestBlockNumber());
+    }
+
+    /**
+     * Move the head forward to a block known to be mined, such as the block
+     * of a receipt, without waiting for the next poll. The head never moves
+     * backward.
+     *
+     * @param blockNumber mined block number
+     */
+    public void advanceHead(long blockNumber) {
+        long previousBlockNumber = headBlockNumber.getAndAccumulate(blockNumber, Math::max);
+        if (blockNumber > previousBlockNumber) {
+            log.debug("New chain head [blockNumber:{}]", blockNumber);
+            eventPublisher.publishEvent(new NewChainHeadEvent(blockNumber));
+        }
+    }
+
+    /**
+     * @return last observed block number, 0 before the first successful poll
+     * or mined receipt
+     */
+    public long getHeadBlockNumber() {
+        return headBlockNumber.get();
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import org.springframework.stereotype.Component;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+
+/**
+ * Pin every hub read of a group, such as a pre-flight check, to a single
+ * block number. Reads of a group then see a consistent state of the chain,
+ * and their results can be shared by key and block number.
+ * <p>
+ * The pinned block is kept in a thread local and sent with each
+ * {@code eth_call} by {@link PinnedBlockParameter}.
+ */
+@Component
+public class ChainReadContext {
+
+    private static final ThreadLocal<Long> PINNED_BLOCK = new ThreadLocal<>();
+
+    private final ChainHeadService chainHeadService;
+
+    public ChainReadContext(ChainHeadService chainHeadService) {
+        this.chainHeadService = chainHeadService;
+    }
+
+    /**
+     * Run reads pinned to the current chain head. Nested groups keep the
+     * outer pinned block. Reads are not pinned before the head is known.
+     *
+     * @param reads group of reads
+     * @return result of the reads
+     */
+    public <T> T pinToHead(Supplier<T> reads) {
+        long head = chainHeadService.getHeadBlockNumber();
+        if (PINNED_BLOCK.get() != null || head <= 0) {
+            return reads.get();
+        }
+        PINNED_BLOCK.set(head);
+        try {
+            return reads.get();
+        } finally {
+            PINNED_BLOCK.remove();
+        }
+    }
+
+    /**
+     * Advance the head to the block of a receipt, so groups started after
+     * the transaction is mined read at least that block instead of a polled
+     * head which may still lag behind.
+     *
+     * @param receipt receipt of a mined transaction
+     */
+    public void onTransactionMined(TransactionReceipt receipt) {
+        if (receipt != null && receipt.getBlockNumberRaw() != null) {
+            chainHeadService.advanceHead(receipt.getBlockNumber().longValue());
+        }
+    }
+
+    public static OptionalLong getPinnedBlock() {
+        Long pinnedBlock = PINNED_BLOCK.get();
+        return pinnedBlock != null ? OptionalLong.of(pinnedBlock) : OptionalLong.empty();
+    }
+
+}
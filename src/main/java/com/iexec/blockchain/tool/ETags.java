@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import java.util.Arrays;
+
+/**
+ * Conditional request helpers of the endpoints served with an ETag.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * @param ifNoneMatch value of the {@code If-None-Match} header, may be null
+     * @param eTag        current ETag of the resource
+     * @return whether the caller already holds the current representation
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        return ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(eTag));
+    }
+
+}
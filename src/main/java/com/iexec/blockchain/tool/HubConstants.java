@@ -0,0 +1,38 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import com.iexec.commons.poco.chain.ChainCategory;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Snapshot of hub contract values which only change on governance actions.
+ */
+@Value
+@Builder
+public class HubConstants {
+    long maxNbOfPeriodsForConsensus;
+    /**
+     * Categories indexed by category ID.
+     */
+    Map<Long, ChainCategory> categories;
+    Instant loadDate;
+}
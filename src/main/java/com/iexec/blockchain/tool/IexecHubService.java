@@ -16,32 +16,392 @@
 
 package com.iexec.blockchain.tool;
 
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.mirror.HubEvent;
+import com.iexec.blockchain.mirror.TaskStateMirror;
 import com.iexec.common.utils.EthAddress;
 import com.iexec.common.worker.result.ResultUtils;
 import com.iexec.commons.poco.chain.*;
 import com.iexec.commons.poco.utils.BytesUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.web3j.protocol.core.RemoteFunctionCall;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
+import javax.annotation.PreDestroy;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static com.iexec.commons.poco.utils.BytesUtils.stringToBytes;
 
+@Slf4j
 @Service
 public class IexecHubService extends IexecHubAbstractService {
 
+    private static final int HUB_CONSTANTS_LOADER_THREADS = 4;
+    static final Duration HUB_CONSTANTS_RETRY_DELAY = Duration.ofSeconds(30);
+    /**
+     * Blocks after which a task or an account is read again while the hub
+     * events mirror is synchronized, in case an event was missed or the read
+     * was answered by a lagging node.
+     */
+    static final int MIRRORED_ENTRY_MAX_BLOCKS = 3;
+
+    private final BlockScopedCache<String, Optional<ChainTask>> chainTaskCache;
+    private final BlockScopedCache<String, Optional<ChainTask>> pinnedChainTaskCache;
+    private final BlockScopedCache<String, Optional<ChainContribution>> pinnedChainContributionCache;
+    private final Cache<String, ChainDeal> chainDealCache;
+    private final BlockScopedCache<String, Optional<ChainDeal>> unknownChainDealCache;
+    private final Cache<Long, ChainCategory> chainCategoryCache;
+    private final BlockScopedCache<String, Optional<ChainAccount>> chainAccountCache;
+    private final SingleFlight<List<String>, Optional<ChainContribution>> chainContributionReads;
+    private final Timer hubConstantsLoadTimer;
+    private final TaskStateMirror taskStateMirror;
+    private final ChainHeadService chainHeadService;
+    private final ExecutorService hubConstantsLoader = Executors.newFixedThreadPool(HUB_CONSTANTS_LOADER_THREADS);
+    private final AtomicReference<CompletableFuture<Optional<HubConstants>>> hubConstantsRefresh =
+            new AtomicReference<>();
+    private volatile HubConstants hubConstants;
+    private volatile Instant hubConstantsFailureDate;
+
     public IexecHubService(CredentialsService credentialsService,
                            Web3jService web3jService,
-                           ChainConfig chainConfig) {
+                           ChainConfig chainConfig,
+                           MeterRegistry meterRegistry,
+                           TaskStateMirror taskStateMirror,
+                           ChainHeadService chainHeadService,
+                           @Value("${chain.cache.deal-max-size}") long dealCacheMaxSize,
+                           @Value("${chain.cache.category-max-size}") long categoryCacheMaxSize,
+                           @Value("${chain.cache.mirrored-max-size}") long mirroredCacheMaxSize) {
         super(
                 credentialsService.getCredentials(),
                 web3jService,
                 chainConfig.getHubAddress()
         );
+        Duration mirroredEntryExpiry = Duration.ofSeconds((long) chainConfig.getBlockTime() * MIRRORED_ENTRY_MAX_BLOCKS);
+        this.chainTaskCache = new BlockScopedCache<>("chainTask", meterRegistry,
+                mirroredCacheMaxSize, mirroredEntryExpiry);
+        this.pinnedChainTaskCache = new BlockScopedCache<>("pinnedChainTask", meterRegistry);
+        this.pinnedChainContributionCache = new BlockScopedCache<>("pinnedChainContribution", meterRegistry);
+        this.chainDealCache = createImmutableCache("chainDeal", dealCacheMaxSize, meterRegistry);
+        this.unknownChainDealCache = new BlockScopedCache<>("unknownChainDeal", meterRegistry);
+        this.chainCategoryCache = createImmutableCache("chainCategory", categoryCacheMaxSize, meterRegistry);
+        this.chainAccountCache = new BlockScopedCache<>("chainAccount", meterRegistry,
+                mirroredCacheMaxSize, mirroredEntryExpiry);
+        this.chainContributionReads = new SingleFlight<>("chainContribution", meterRegistry);
+        this.hubConstantsLoadTimer = Timer.builder("hub.constants.load")
+                .description("Duration of the hub constants snapshot load")
+                .register(meterRegistry);
+        this.taskStateMirror = taskStateMirror;
+        this.chainHeadService = chainHeadService;
+        this.iexecHubContract.setDefaultBlockParameter(PinnedBlockParameter.INSTANCE);
+    }
+
+    /**
+     * Deals and categories never change once created on the blockchain.
+     * They are kept in a bounded LRU cache without time-based expiry,
+     * exposed with the standard {@code cache.*} metrics.
+     */
+    private static <K, V> Cache<K, V> createImmutableCache(String name, long maxSize,
+                                                           MeterRegistry meterRegistry) {
+        Cache<K, V> cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    /**
+     * Read a task on the blockchain. The result is cached until a new
+     * block is observed, concurrent reads of the same task share one RPC.
+     * An unknown task is never cached for more than one block, whether the
+     * hub events mirror is synchronized or not.
+     * Reads pinned by {@link ChainReadContext} are cached by task and block.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @return task if found
+     */
+    @Override
+    public Optional<ChainTask> getChainTask(String chainTaskId) {
+        OptionalLong pinnedBlock = ChainReadContext.getPinnedBlock();
+        if (pinnedBlock.isPresent()) {
+            return pinnedChainTaskCache.get(chainTaskId + "@" + pinnedBlock.getAsLong(),
+                    key -> super.getChainTask(chainTaskId));
+        }
+        return chainTaskCache.get(chainTaskId, super::getChainTask);
+    }
+
+    /**
+     * Get a version number of the task returned by {@link #getChainTask(String)}.
+     * It is the block of the last event of the task when the hub events mirror
+     * knows it, the current head otherwise.
+     *
+     * @param chainTaskId blockchain ID of the task
+     * @return block number identifying the task state
+     */
+    public long getChainTaskVersion(String chainTaskId) {
+        return taskStateMirror.getLastEventBlock(chainTaskId)
+                .orElseGet(chainHeadService::getHeadBlockNumber);
+    }
+
+    /**
+     * Read a deal on the blockchain. Found deals are cached, a missing deal
+     * is remembered until a new block is observed since it may be created later.
+     * Concurrent reads of the same deal share one RPC.
+     *
+     * @param chainDealId blockchain ID of the deal
+     * @return deal if found
+     */
+    @Override
+    public Optional<ChainDeal> getChainDeal(String chainDealId) {
+        ChainDeal chainDeal = chainDealCache.getIfPresent(chainDealId);
+        if (chainDeal != null) {
+            return Optional.of(chainDeal);
+        }
+        Optional<ChainDeal> read = unknownChainDealCache.get(chainDealId, super::getChainDeal);
+        if (read.isPresent()) {
+            chainDealCache.put(chainDealId, read.get());
+            unknownChainDealCache.evict(chainDealId);
+        }
+        return read;
+    }
+
+    /**
+     * Read an account on the blockchain. The result is cached until a new
+     * block is observed, or until an event changing the account is observed
+     * while the hub events mirror is synchronized. Concurrent reads of the
+     * same account share one RPC.
+     *
+     * @param walletAddress account address
+     * @return account if found
+     */
+    @Override
+    public Optional<ChainAccount> getChainAccount(String walletAddress) {
+        return chainAccountCache.get(walletAddress.toLowerCase(), super::getChainAccount);
+    }
+
+    /**
+     * Read a contribution on the blockchain, concurrent reads of the same
+     * contribution share one RPC. Reads pinned by {@link ChainReadContext}
+     * are cached by contribution and block.
+     *
+     * @param chainTaskId   blockchain ID of the task
+     * @param workerAddress worker address
+     * @return contribution if found
+     */
+    @Override
+    public Optional<ChainContribution> getChainContribution(String chainTaskId, String workerAddress) {
+        OptionalLong pinnedBlock = ChainReadContext.getPinnedBlock();
+        if (pinnedBlock.isPresent()) {
+            return pinnedChainContributionCache.get(
+                    chainTaskId + ":" + workerAddress + "@" + pinnedBlock.getAsLong(),
+                    key -> super.getChainContribution(chainTaskId, workerAddress));
+        }
+        return chainContributionReads.execute(List.of(chainTaskId, workerAddress),
+                key -> super.getChainContribution(chainTaskId, workerAddress));
+    }
+
+    /**
+     * Read a category from the hub constants snapshot if already loaded,
+     * or from the cache for categories created after the snapshot.
+     *
+     * @param id category ID
+     * @return category if found
+     */
+    @Override
+    public Optional<ChainCategory> getChainCategory(long id) {
+        HubConstants constants = hubConstants;
+        if (constants != null && constants.getCategories().containsKey(id)) {
+            return Optional.of(constants.getCategories().get(id));
+        }
+        return Optional.ofNullable(chainCategoryCache.get(id,
+                key -> super.getChainCategory(key).orElse(null)));
+    }
+
+    @Override
+    public long getMaxNbOfPeriodsForConsensus() {
+        return getHubConstants()
+                .map(HubConstants::getMaxNbOfPeriodsForConsensus)
+                .orElse(-1L);
+    }
+
+    /**
+     * Get the hub constants snapshot, loading it on first use.
+     * After a failed load, callers are answered without a new load for
+     * {@link #HUB_CONSTANTS_RETRY_DELAY}.
+     *
+     * @return snapshot, empty if it could not be loaded
+     */
+    public Optional<HubConstants> getHubConstants() {
+        HubConstants constants = hubConstants;
+        if (constants != null) {
+            return Optional.of(constants);
+        }
+        Instant failureDate = hubConstantsFailureDate;
+        if (failureDate != null && Instant.now().isBefore(failureDate.plus(HUB_CONSTANTS_RETRY_DELAY))) {
+            return Optional.empty();
+        }
+        return refreshHubConstants();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadHubConstantsOnStartup() {
+        getHubConstants();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hubConstantsLoader.shutdownNow();
+    }
+
+    /**
+     * Read every hub constant in parallel and replace the snapshot.
+     * The previous snapshot is kept if a read fails.
+     * <p>
+     * A single load runs at a time, concurrent callers wait for its result.
+     *
+     * @return new snapshot, empty on failure
+     */
+    public Optional<HubConstants> refreshHubConstants() {
+        CompletableFuture<Optional<HubConstants>> refresh = new CompletableFuture<>();
+        CompletableFuture<Optional<HubConstants>> inFlightRefresh =
+                hubConstantsRefresh.compareAndExchange(null, refresh);
+        if (inFlightRefresh != null) {
+            return inFlightRefresh.join();
+        }
+        try {
+            refresh.complete(loadHubConstants());
+        } catch (RuntimeException e) {
+            log.error("Failed to load hub constants", e);
+            hubConstantsFailureDate = Instant.now();
+            refresh.complete(Optional.empty());
+        } finally {
+            hubConstantsRefresh.set(null);
+        }
+        return refresh.join();
+    }
+
+    private Optional<HubConstants> loadHubConstants() {
+        try {
+            long start = System.nanoTime();
+            CompletableFuture<Long> maxNbOfPeriods = CompletableFuture.supplyAsync(
+                    super::getMaxNbOfPeriodsForConsensus, hubConstantsLoader);
+            CompletableFuture<Map<Long, ChainCategory>> categories = CompletableFuture.supplyAsync(
+                            () -> call(iexecHubContract.countCategory()), hubConstantsLoader)
+                    .thenCompose(count -> loadCategories(count.longValue(), hubConstantsLoader));
+            HubConstants constants = HubConstants.builder()
+                    .maxNbOfPeriodsForConsensus(maxNbOfPeriods.join())
+                    .categories(categories.join())
+                    .loadDate(Instant.now())
+                    .build();
+            long elapsed = System.nanoTime() - start;
+            hubConstantsLoadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            hubConstants = constants;
+            hubConstantsFailureDate = null;
+            log.info("Loaded hub constants [categories:{}, durationMs:{}]",
+                    constants.getCategories().size(), elapsed / 1_000_000);
+            return Optional.of(constants);
+        } catch (CompletionException e) {
+            log.error("Failed to load hub constants", e.getCause());
+            hubConstantsFailureDate = Instant.now();
+            return Optional.empty();
+        }
+    }
+
+    private CompletableFuture<Map<Long, ChainCategory>> loadCategories(long count,
+                                                                     ExecutorService executor) {
+        List<CompletableFuture<Optional<ChainCategory>>> reads = LongStream.range(0, count)
+                .mapToObj(id -> CompletableFuture.supplyAsync(
+                        () -> super.getChainCategory(id), executor))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(reads.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> reads.stream()
+                        .map(CompletableFuture::join)
+                        .flatMap(Optional::stream)
+                        .collect(Collectors.toUnmodifiableMap(ChainCategory::getId, Function.identity())));
+    }
+
+    private static <T> T call(RemoteFunctionCall<T> remoteFunctionCall) {
+        try {
+            return remoteFunctionCall.send();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Reads pinned to past blocks and unknown tasks or deals are dropped on
+     * each new block. Cached tasks and accounts are dropped as well, unless
+     * the hub events mirror is synchronized: they are then evicted when one of
+     * their events is observed, or after {@link #MIRRORED_ENTRY_MAX_BLOCKS}
+     * blocks, and at most {@code chain.cache.mirrored-max-size} of each are
+     * kept.
+     *
+     * @param event new chain head
+     */
+    @EventListener
+    public void onNewChainHead(NewChainHeadEvent event) {
+        pinnedChainTaskCache.clear();
+        pinnedChainContributionCache.clear();
+        unknownChainDealCache.clear();
+        if (taskStateMirror.isSynced()) {
+            chainTaskCache.evictIf(Optional::isEmpty);
+        } else {
+            chainTaskCache.clear();
+            chainAccountCache.clear();
+        }
+    }
+
+    @EventListener
+    public void onHubEvent(HubEvent event) {
+        if (event.getChainTaskId() != null) {
+            chainTaskCache.evict(event.getChainTaskId());
+        }
+        if (event.getType().isAccountEvent()) {
+            chainAccountCache.evict(event.getAccount().toLowerCase());
+            if (event.getRecipient() != null) {
+                chainAccountCache.evict(event.getRecipient().toLowerCase());
+            }
+        }
+    }
+
+    /**
+     * A mined command changes its task state before the head poller may
+     * notice the new block, the task is evicted right away. This drops the
+     * unknown task entry as soon as its {@code TaskInitialize} succeeds.
+     *
+     * @param transition command transition
+     */
+    @EventListener
+    public void onCommandTransition(CommandTransition transition) {
+        if (transition.getStatus() == Status.SUCCESS || transition.getStatus() == Status.FAILURE) {
+            chainTaskCache.evict(transition.getChainObjectId());
+        }
     }
 
     public static boolean isSignature(String hexString) {
@@ -127,6 +487,10 @@ public class IexecHubService extends IexecHubAbstractService {
      * @return true if the task is found with the status UNSET, false otherwise.
      */
     public boolean isTaskInUnsetStatusOnChain(String chainTaskId) {
+        Optional<ChainTaskStatus> mirroredStatus = taskStateMirror.getTaskStatus(chainTaskId);
+        if (mirroredStatus.isPresent()) {
+            return ChainTaskStatus.UNSET.equals(mirroredStatus.get());
+        }
         final Optional<ChainTask> chainTask = getChainTask(chainTaskId);
         return chainTask.isEmpty()
                 || ChainTaskStatus.UNSET.equals(chainTask.get().getStatus());
@@ -189,6 +553,10 @@ public class IexecHubService extends IexecHubAbstractService {
     }
 
     public boolean isContributionUnsetToContribute(String chainTaskId, String workerWallet) {
+        Optional<Boolean> hasContributed = taskStateMirror.hasContributed(chainTaskId, workerWallet);
+        if (hasContributed.isPresent()) {
+            return !hasContributed.get();
+        }
         Optional<ChainContribution> optionalContribution =
                 getChainContribution(chainTaskId, workerWallet);
         if (optionalContribution.isEmpty()) return false;
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.utils.Numeric;
+
+import java.math.BigInteger;
+import java.util.OptionalLong;
+
+/**
+ * Block parameter of hub contract calls: the block pinned by
+ * {@link ChainReadContext} on the calling thread, {@code latest} otherwise.
+ * <p>
+ * The value is resolved when the request is serialized, which happens on
+ * the calling thread for synchronous calls.
+ */
+public class PinnedBlockParameter implements DefaultBlockParameter {
+
+    public static final PinnedBlockParameter INSTANCE = new PinnedBlockParameter();
+
+    private PinnedBlockParameter() {
+    }
+
+    @Override
+    @JsonValue
+    public String getValue() {
+        OptionalLong pinnedBlock = ChainReadContext.getPinnedBlock();
+        return pinnedBlock.isPresent()
+                ? Numeric.encodeQuantity(BigInteger.valueOf(pinnedBlock.getAsLong()))
+                : DefaultBlockParameterName.LATEST.getValue();
+    }
+
+}
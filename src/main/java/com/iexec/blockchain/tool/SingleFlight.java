@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Coalesce concurrent identical calls: while a call for a key is in flight,
+ * other callers with the same key wait for its result instead of issuing
+ * their own. Nothing is kept once the call completes.
+ * <p>
+ * Each joined call is counted in {@code chain.reads.coalesced}.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    static final String COALESCED_METRIC = "chain.reads.coalesced";
+
+    private final Map<K, CompletableFuture<V>> inFlightCalls = new ConcurrentHashMap<>();
+    private final Counter coalescedCalls;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.coalescedCalls = Counter.builder(COALESCED_METRIC)
+                .description("Calls which joined an identical call in flight")
+                .tag("read", name)
+                .register(meterRegistry);
+    }
+
+    public V execute(K key, Function<K, V> call) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> inFlight = inFlightCalls.putIfAbsent(key, created);
+        if (inFlight != null) {
+            coalescedCalls.increment();
+            return join(inFlight);
+        }
+        try {
+            V value = call.apply(key);
+            created.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightCalls.remove(key, created);
+        }
+    }
+
+    private V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.tool.Status;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static com.iexec.blockchain.swagger.OpenApiConfig.SWAGGER_BASIC_AUTH;
+
+@RestController
+@RequestMapping("/transitions")
+public class CommandTransitionController {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final CommandTransitionLogService commandTransitionLogService;
+
+    public CommandTransitionController(CommandTransitionLogService commandTransitionLogService) {
+        this.commandTransitionLogService = commandTransitionLogService;
+    }
+
+    /**
+     * Read command transitions within a sequence range.
+     *
+     * @param fromSequence first sequence number, inclusive
+     * @param toSequence   last sequence number, exclusive, defaults to the end of the log
+     * @param limit        maximum number of returned entries, capped to {@value #MAX_LIMIT}
+     * @return transitions in sequence order
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping
+    public ResponseEntity<List<CommandTransitionRecord>> getTransitions(
+            @RequestParam(defaultValue = "1") long fromSequence,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long toSequence,
+            @RequestParam(defaultValue = "" + MAX_LIMIT) int limit) {
+        if (fromSequence > toSequence || limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(commandTransitionLogService.getTransitions(
+                fromSequence, toSequence, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * Read the sequence number of the last appended transition.
+     *
+     * @return last sequence number, 0 if no transition was appended yet
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping("/last-sequence")
+    public ResponseEntity<Long> getLastSequence() {
+        return ResponseEntity.ok(commandTransitionLogService.getLastSequence());
+    }
+
+    /**
+     * Read every transition of a command.
+     *
+     * @param commandType   simple name of the command class, e.g. {@code TaskInitialize}
+     * @param chainObjectId blockchain object ID of the command
+     * @return transitions in sequence order
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping("/{commandType}/{chainObjectId}")
+    public ResponseEntity<List<CommandTransitionRecord>> getCommandTransitions(
+            @PathVariable String commandType,
+            @PathVariable String chainObjectId) {
+        List<CommandTransitionRecord> transitions =
+                commandTransitionLogService.getCommandTransitions(commandType, chainObjectId);
+        if (transitions.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(transitions);
+    }
+
+    /**
+     * Read how long a command stayed in each of its past states.
+     *
+     * @param commandType   simple name of the command class, e.g. {@code TaskInitialize}
+     * @param chainObjectId blockchain object ID of the command
+     * @return time spent in each past state
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping("/{commandType}/{chainObjectId}/time-in-states")
+    public ResponseEntity<Map<Status, Duration>> getTimeInStates(
+            @PathVariable String commandType,
+            @PathVariable String chainObjectId) {
+        return ResponseEntity.ok(
+                commandTransitionLogService.getTimeInStates(commandType, chainObjectId));
+    }
+
+}
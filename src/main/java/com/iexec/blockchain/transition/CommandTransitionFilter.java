@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.status.TaskCommandType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.function.Supplier;
+
+/**
+ * Selection of the command transitions sent to a stream subscriber.
+ * Unset criteria match every transition.
+ */
+@Value
+@Builder
+public class CommandTransitionFilter {
+    TaskCommandType commandType;
+    String chainDealId;
+    String chainTaskId;
+
+    /**
+     * Check criteria known from the transition itself.
+     *
+     * @param record appended transition
+     * @return true if the command type and the task match
+     */
+    boolean matchesCommand(CommandTransitionRecord record) {
+        return (commandType == null || commandType.getCommandName().equals(record.getCommandType()))
+                && (chainTaskId == null || chainTaskId.equalsIgnoreCase(record.getChainObjectId()));
+    }
+
+    /**
+     * Check the deal criterion, the deal of the task is only resolved if needed.
+     *
+     * @param chainDealIdResolver deal of the task of the transition
+     * @return true if the deal matches
+     */
+    boolean matchesDeal(Supplier<String> chainDealIdResolver) {
+        return chainDealId == null || chainDealId.equalsIgnoreCase(chainDealIdResolver.get());
+    }
+}
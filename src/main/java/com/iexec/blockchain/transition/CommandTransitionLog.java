@@ -0,0 +1,61 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of command transitions.
+ * <p>
+ * Returned streams may hold a cursor or a file handle and must be closed.
+ */
+public interface CommandTransitionLog {
+
+    /**
+     * Append a transition at the end of the log.
+     *
+     * @param transition command transition
+     * @return appended entry with its sequence number
+     */
+    CommandTransitionRecord append(CommandTransition transition);
+
+    /**
+     * Stream entries in sequence order.
+     *
+     * @param fromSequence first sequence number, inclusive
+     * @param toSequence   last sequence number, exclusive
+     * @return entries within the range
+     */
+    Stream<CommandTransitionRecord> streamRange(long fromSequence, long toSequence);
+
+    /**
+     * Stream every entry of a single command in sequence order.
+     *
+     * @param commandType   simple name of the command class
+     * @param chainObjectId blockchain object ID of the command
+     * @return entries of the command
+     */
+    Stream<CommandTransitionRecord> streamCommand(String commandType, String chainObjectId);
+
+    /**
+     * @return sequence number of the last entry, 0 if the log is empty
+     */
+    long getLastSequence();
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.tool.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class CommandTransitionLogService {
+
+    private final CommandTransitionLog commandTransitionLog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Object appendLock = new Object();
+
+    public CommandTransitionLogService(CommandTransitionLog commandTransitionLog,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.commandTransitionLog = commandTransitionLog;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Append every command transition to the log, then publish the appended
+     * entry. Appending and publishing are done under a single lock, so
+     * entries are published in sequence order and a listener never sees a
+     * sequence number before a lower one. A failure is only logged, it must
+     * never prevent the command from progressing.
+     *
+     * @param transition command transition
+     */
+    @EventListener
+    public void onCommandTransition(CommandTransition transition) {
+        try {
+            synchronized (appendLock) {
+                CommandTransitionRecord record = commandTransitionLog.append(transition);
+                eventPublisher.publishEvent(new CommandTransitionAppended(record, transition));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to append command transition [chainObjectId:{}, command:{}, status:{}]",
+                    transition.getChainObjectId(), transition.getCommandType(),
+                    transition.getStatus(), e);
+        }
+    }
+
+    /**
+     * Read a page of the log, to follow changes incrementally. The next page
+     * starts after the sequence number of the last returned entry.
+     *
+     * @param fromSequence first sequence number, inclusive
+     * @param toSequence   last sequence number, exclusive
+     * @param limit        maximum number of returned entries
+     * @return entries in sequence order
+     */
+    public List<CommandTransitionRecord> getTransitions(long fromSequence, long toSequence, int limit) {
+        try (Stream<CommandTransitionRecord> records =
+                     commandTransitionLog.streamRange(fromSequence, toSequence)) {
+            return records.limit(limit).collect(Collectors.toList());
+        }
+    }
+
+    public List<CommandTransitionRecord> getCommandTransitions(String commandType, String chainObjectId) {
+        try (Stream<CommandTransitionRecord> records =
+                     commandTransitionLog.streamCommand(commandType, chainObjectId)) {
+            return records.collect(Collectors.toList());
+        }
+    }
+
+    public long getLastSequence() {
+        return commandTransitionLog.getLastSequence();
+    }
+
+    /**
+     * Compute how long a command stayed in each of its past states.
+     * The current state has no duration yet and is not part of the result.
+     *
+     * @param commandType   simple name of the command class
+     * @param chainObjectId blockchain object ID of the command
+     * @return time spent in each past state
+     */
+    public Map<Status, Duration> getTimeInStates(String commandType, String chainObjectId) {
+        List<CommandTransitionRecord> transitions = getCommandTransitions(commandType, chainObjectId);
+        Map<Status, Duration> timeInStates = new EnumMap<>(Status.class);
+        for (int i = 1; i < transitions.size(); i++) {
+            CommandTransitionRecord previous = transitions.get(i - 1);
+            Duration elapsed = Duration.between(previous.getDate(), transitions.get(i).getDate());
+            timeInStates.merge(previous.getStatus(), elapsed, Duration::plus);
+        }
+        return timeInStates;
+    }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.tool.Status;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Entry of the append-only command transition log.
+ * <p>
+ * Command arguments are not copied, they can still be read on the command
+ * itself. Entries are ordered by a strictly increasing {@code sequence}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document
+public class CommandTransitionRecord {
+
+    @Id
+    private long sequence;
+    private String commandType;
+    private String chainObjectId;
+    private Status status;
+    private Instant date;
+    private String transactionHash;
+
+    static CommandTransitionRecord of(long sequence, CommandTransition transition) {
+        return CommandTransitionRecord.builder()
+                .sequence(sequence)
+                .commandType(transition.getCommandType())
+                .chainObjectId(transition.getChainObjectId())
+                .status(transition.getStatus())
+                .date(transition.getDate())
+                .transactionHash(transition.getTransactionHash())
+                .build();
+    }
+
+}
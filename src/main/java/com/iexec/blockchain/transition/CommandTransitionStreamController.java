@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.status.TaskCommandType;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static com.iexec.blockchain.swagger.OpenApiConfig.SWAGGER_BASIC_AUTH;
+
+@RestController
+@RequestMapping("/tasks")
+public class CommandTransitionStreamController {
+
+    private final CommandTransitionStreamService commandTransitionStreamService;
+
+    public CommandTransitionStreamController(CommandTransitionStreamService commandTransitionStreamService) {
+        this.commandTransitionStreamService = commandTransitionStreamService;
+    }
+
+    /**
+     * Stream task command transitions as Server-Sent Events, as they happen.
+     * Each event is named {@code transition}, its ID is the sequence number
+     * of the transition in the log.
+     *
+     * @param commandType only stream transitions of this command type
+     * @param chainDealId only stream transitions of tasks of this deal
+     * @param chainTaskId only stream transitions of this task
+     * @param lastEventId sequence number of the last received transition,
+     *                    missed transitions are sent first
+     * @return stream of transitions
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTaskEvents(
+            @RequestParam(required = false) TaskCommandType commandType,
+            @RequestParam(required = false) String chainDealId,
+            @RequestParam(required = false) String chainTaskId,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return commandTransitionStreamService.subscribe(CommandTransitionFilter.builder()
+                        .commandType(commandType)
+                        .chainDealId(chainDealId)
+                        .chainTaskId(chainTaskId)
+                        .build(),
+                lastEventId);
+    }
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeArgs;
+import com.iexec.blockchain.lifecycle.TaskLifecycle;
+import com.iexec.blockchain.lifecycle.TaskLifecycleService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stream appended command transitions to Server-Sent Events subscribers.
+ * <p>
+ * The event ID is the sequence number of the transition in the log, a
+ * subscriber reconnecting with {@code Last-Event-ID} first receives the
+ * transitions it missed, read from the log.
+ * <p>
+ * Transitions are published on the thread of the command engine: they are
+ * only offered to a bounded buffer per subscriber and sent by a fixed pool
+ * of sender threads, each subscriber being drained by a single thread at a
+ * time. A subscriber whose buffer is full is disconnected, it may
+ * reconnect and resume from its last received event.
+ */
+@Slf4j
+@Service
+public class CommandTransitionStreamService {
+
+    static final String EVENT_NAME = "transition";
+    static final int REPLAY_PAGE_SIZE = 1000;
+    private static final int CHAIN_DEAL_IDS_MAX_SIZE = 10_000;
+
+    private final CommandTransitionLogService commandTransitionLogService;
+    private final TaskLifecycleService taskLifecycleService;
+    private final int bufferSize;
+    private final Duration timeout;
+    private final ExecutorService sender;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Cache<String, String> chainDealIds = Caffeine.newBuilder()
+            .maximumSize(CHAIN_DEAL_IDS_MAX_SIZE)
+            .build();
+    private final Counter droppedSubscribers;
+
+    public CommandTransitionStreamService(CommandTransitionLogService commandTransitionLogService,
+                                          TaskLifecycleService taskLifecycleService,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${command.events.buffer-size}") int bufferSize,
+                                          @Value("${command.events.timeout}") Duration timeout,
+                                          @Value("${command.events.sender-threads}") int senderThreads) {
+        this.commandTransitionLogService = commandTransitionLogService;
+        this.taskLifecycleService = taskLifecycleService;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.sender = Executors.newFixedThreadPool(senderThreads);
+        Gauge.builder("command.events.subscribers", subscribers, Set::size)
+                .description("Number of connected command transition stream subscribers")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("command.events.dropped")
+                .description("Number of subscribers disconnected because their buffer was full")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.close(false));
+        sender.shutdownNow();
+    }
+
+    /**
+     * Open a stream of command transitions.
+     *
+     * @param filter      transitions to send
+     * @param lastEventId sequence number of the last transition received
+     *                    on a previous stream, null to only receive new ones
+     * @return emitter of the stream
+     */
+    public SseEmitter subscribe(CommandTransitionFilter filter, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, filter, lastEventId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscriber.close(false));
+        emitter.onError(throwable -> subscriber.close(false));
+        subscribers.add(subscriber);
+        if (lastEventId != null) {
+            subscriber.scheduleDrain();
+        }
+        return emitter;
+    }
+
+    int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onCommandTransitionAppended(CommandTransitionAppended event) {
+        if (event.getTransition().getArgs() instanceof TaskInitializeArgs) {
+            TaskInitializeArgs args = (TaskInitializeArgs) event.getTransition().getArgs();
+            chainDealIds.put(args.getChainTaskId(), args.getChainDealId());
+        }
+        CommandTransitionRecord record = event.getRecord();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.matchesCommand(record)) {
+                subscriber.offer(record);
+            }
+        }
+    }
+
+    private String getChainDealId(String chainTaskId) {
+        String chainDealId = chainDealIds.getIfPresent(chainTaskId);
+        if (chainDealId == null) {
+            chainDealId = taskLifecycleService.getTaskLifecycle(chainTaskId)
+                    .map(TaskLifecycle::getChainDealId)
+                    .orElse(null);
+            if (chainDealId != null) {
+                chainDealIds.put(chainTaskId, chainDealId);
+            }
+        }
+        return chainDealId;
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final CommandTransitionFilter filter;
+        private final BlockingQueue<CommandTransitionRecord> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile Long replayAfter;
+        private volatile long lastSentSequence;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, CommandTransitionFilter filter, Long lastEventId) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+            this.replayAfter = lastEventId;
+            this.lastSentSequence = lastEventId != null ? lastEventId : 0;
+        }
+
+        private void offer(CommandTransitionRecord record) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(record)) {
+                log.warn("Disconnecting slow command transition subscriber [filter:{}, bufferSize:{}]",
+                        filter, bufferSize);
+                droppedSubscribers.increment();
+                close(true);
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    close(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                if (replayAfter != null) {
+                    replay(replayAfter);
+                    replayAfter = null;
+                }
+                CommandTransitionRecord record;
+                while (!closed && (record = buffer.poll()) != null) {
+                    send(record);
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Command transition subscriber disconnected [filter:{}]", filter);
+                close(false);
+            } finally {
+                draining.set(false);
+            }
+            if (!closed && !buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void replay(long afterSequence) throws IOException {
+            long fromSequence = afterSequence + 1;
+            List<CommandTransitionRecord> page;
+            do {
+                page = commandTransitionLogService.getTransitions(fromSequence, Long.MAX_VALUE, REPLAY_PAGE_SIZE);
+                for (CommandTransitionRecord record : page) {
+                    if (filter.matchesCommand(record)) {
+                        send(record);
+                    }
+                    fromSequence = record.getSequence() + 1;
+                }
+            } while (!closed && page.size() == REPLAY_PAGE_SIZE);
+        }
+
+        private void send(CommandTransitionRecord record) throws IOException {
+            if (record.getSequence() <= lastSentSequence
+                    || !filter.matchesDeal(() -> getChainDealId(record.getChainObjectId()))) {
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(record.getSequence()))
+                    .name(EVENT_NAME)
+                    .data(record, MediaType.APPLICATION_JSON));
+            lastSentSequence = record.getSequence();
+        }
+
+        private void close(boolean completeEmitter) {
+            closed = true;
+            subscribers.remove(this);
+            buffer.clear();
+            if (completeEmitter) {
+                emitter.complete();
+            }
+        }
+    }
+
+}
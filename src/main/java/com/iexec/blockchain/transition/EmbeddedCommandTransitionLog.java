@@ -0,0 +1,315 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonParseException;
+import org.bson.json.JsonWriterSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Keep the transition log in a {@code CommandTransition.log} file of JSON
+ * lines, next to the embedded command store files.
+ * <p>
+ * The byte offset of every {@value #INDEX_INTERVAL}th entry is kept in
+ * memory, so a range read seeks close to its first sequence number instead
+ * of scanning the file from the start.
+ * <p>
+ * When command retention is enabled, entries older than the retention
+ * period are periodically cut from the head of the file. The last entry is
+ * always kept, so that sequence numbers keep increasing after a restart.
+ */
+@Slf4j
+@Repository
+@Profile("embedded")
+public class EmbeddedCommandTransitionLog implements CommandTransitionLog, Closeable {
+
+    static final String LOG_FILE_NAME = "CommandTransition.log";
+    static final int INDEX_INTERVAL = 1000;
+    private static final JsonWriterSettings JSON_WRITER_SETTINGS = JsonWriterSettings.builder()
+            .outputMode(JsonMode.EXTENDED)
+            .build();
+
+    private final MongoConverter converter;
+    private final Path logFile;
+    private final Duration retention;
+    /**
+     * Byte offset of indexed entries by sequence number.
+     */
+    private final NavigableMap<Long, Long> offsets = new TreeMap<>();
+    private BufferedWriter writer;
+    private long fileSize;
+    private long lastSequence;
+
+    /**
+     * @param retentionEnabled whether entries older than the retention period are dropped
+     * @param retentionPeriod  retention period of entries, as for finished commands
+     */
+    public EmbeddedCommandTransitionLog(MongoConverter converter,
+                                        @Value("${command.store.embedded.directory}") Path directory,
+                                        @Value("${command.retention.enabled}") boolean retentionEnabled,
+                                        @Value("${command.retention.period}") Duration retentionPeriod)
+            throws IOException {
+        this.converter = converter;
+        this.retention = retentionEnabled ? retentionPeriod : Duration.ZERO;
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve(LOG_FILE_NAME);
+        if (Files.exists(logFile)) {
+            load();
+        }
+        this.writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8, CREATE, APPEND);
+        log.info("Loaded command transition log [file:{}, lastSequence:{}, indexedEntries:{}]",
+                logFile, lastSequence, offsets.size());
+    }
+
+    @Override
+    public synchronized CommandTransitionRecord append(CommandTransition transition) {
+        CommandTransitionRecord transitionRecord =
+                CommandTransitionRecord.of(lastSequence + 1, transition);
+        Document document = new Document();
+        converter.write(transitionRecord, document);
+        String line = document.toJson(JSON_WRITER_SETTINGS);
+        try {
+            // always '\n', offsets are computed from it
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException(
+                    "Failed to append to command transition log " + logFile, e);
+        }
+        index(transitionRecord.getSequence(), fileSize);
+        fileSize += getLineLength(line);
+        lastSequence = transitionRecord.getSequence();
+        return transitionRecord;
+    }
+
+    @Override
+    public synchronized Stream<CommandTransitionRecord> streamRange(long fromSequence, long toSequence) {
+        Map.Entry<Long, Long> start = offsets.floorEntry(fromSequence);
+        return readFrom(start != null ? start.getValue() : 0L)
+                .dropWhile(transitionRecord -> transitionRecord.getSequence() < fromSequence)
+                .takeWhile(transitionRecord -> transitionRecord.getSequence() < toSequence);
+    }
+
+    /**
+     * Scan the whole file, its size being bounded by the retention period.
+     */
+    @Override
+    public synchronized Stream<CommandTransitionRecord> streamCommand(String commandType, String chainObjectId) {
+        Predicate<CommandTransitionRecord> isCommand = transitionRecord ->
+                chainObjectId.equals(transitionRecord.getChainObjectId())
+                        && commandType.equals(transitionRecord.getCommandType());
+        return readFrom(0L).filter(isCommand);
+    }
+
+    @Override
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Cut entries older than the retention period from the head of the file.
+     * <p>
+     * The kept tail is copied to a temporary file which is atomically moved
+     * over the log, so a crash never leaves a partial log. Streams opened
+     * before keep reading the previous file.
+     */
+    @Scheduled(fixedDelayString = "${command.retention.check-interval}")
+    public synchronized void compact() {
+        if (retention.isZero()) {
+            return;
+        }
+        Instant expiryDate = Instant.now().minus(retention);
+        try {
+            long keptOffset = findFirstKeptOffset(expiryDate);
+            if (keptOffset == 0) {
+                return;
+            }
+            writer.close();
+            Path tmpFile = logFile.resolveSibling(LOG_FILE_NAME + ".tmp");
+            try (FileChannel source = FileChannel.open(logFile, READ);
+                 FileChannel target = FileChannel.open(tmpFile, CREATE, TRUNCATE_EXISTING, WRITE)) {
+                long position = keptOffset;
+                while (position < fileSize) {
+                    position += source.transferTo(position, fileSize - position, target);
+                }
+            }
+            Files.move(tmpFile, logFile, ATOMIC_MOVE, REPLACE_EXISTING);
+            writer = Files.newBufferedWriter(logFile, StandardCharsets.UTF_8, CREATE, APPEND);
+            NavigableMap<Long, Long> keptOffsets = new TreeMap<>();
+            offsets.forEach((sequence, offset) -> {
+                if (offset >= keptOffset) {
+                    keptOffsets.put(sequence, offset - keptOffset);
+                }
+            });
+            offsets.clear();
+            offsets.putAll(keptOffsets);
+            fileSize -= keptOffset;
+            log.info("Compacted command transition log [file:{}, removedBytes:{}, expiryDate:{}]",
+                    logFile, keptOffset, expiryDate);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException(
+                    "Failed to compact command transition log " + logFile, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    /**
+     * Read the file once to restore the last sequence number, the index and
+     * the file size. A last line without its trailing {@code '\n'} was torn
+     * by a crash during an append, the file is truncated to the end of the
+     * last complete line so that the next append starts on a new line.
+     */
+    private void load() throws IOException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(logFile, READ))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = input.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                CommandTransitionRecord transitionRecord = parse(line.toString(StandardCharsets.UTF_8));
+                if (transitionRecord != null) {
+                    index(transitionRecord.getSequence(), fileSize);
+                    lastSequence = Math.max(lastSequence, transitionRecord.getSequence());
+                }
+                fileSize += line.size() + 1L;
+                line.reset();
+            }
+            if (line.size() > 0) {
+                log.warn("Truncating torn last line of command transition log [file:{}, removedBytes:{}]",
+                        logFile, line.size());
+            }
+        }
+        try (FileChannel channel = FileChannel.open(logFile, WRITE)) {
+            if (channel.size() > fileSize) {
+                channel.truncate(fileSize);
+            }
+        }
+    }
+
+    /**
+     * @return offset of the first entry not older than the expiry date,
+     * at most the offset of the last entry
+     */
+    private long findFirstKeptOffset(Instant expiryDate) throws IOException {
+        writer.flush();
+        long offset = 0;
+        long lastEntryOffset = 0;
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                CommandTransitionRecord transitionRecord = parse(line);
+                if (transitionRecord != null) {
+                    if (transitionRecord.getDate() != null && !transitionRecord.getDate().isBefore(expiryDate)) {
+                        return offset;
+                    }
+                    lastEntryOffset = offset;
+                }
+                offset += getLineLength(line);
+            }
+        }
+        return lastEntryOffset;
+    }
+
+    private void index(long sequence, long offset) {
+        if (offsets.isEmpty() || sequence - offsets.lastKey() >= INDEX_INTERVAL) {
+            offsets.put(sequence, offset);
+        }
+    }
+
+    private static long getLineLength(String line) {
+        return line.getBytes(StandardCharsets.UTF_8).length + 1L;
+    }
+
+    /**
+     * Lazily read the log file from a byte offset. A line being written
+     * concurrently may be incomplete, it is skipped and will be read by the
+     * next call.
+     */
+    private Stream<CommandTransitionRecord> readFrom(long offset) {
+        try {
+            FileChannel channel = FileChannel.open(logFile, READ);
+            channel.position(offset);
+            BufferedReader reader = new BufferedReader(
+                    Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1));
+            return reader.lines()
+                    .onClose(() -> {
+                        try {
+                            reader.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .map(this::parse)
+                    .filter(Objects::nonNull);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException(
+                    "Failed to read command transition log " + logFile, e);
+        }
+    }
+
+    private CommandTransitionRecord parse(String line) {
+        try {
+            return converter.read(CommandTransitionRecord.class, Document.parse(line));
+        } catch (JsonParseException e) {
+            log.warn("Skipping unreadable command transition log line [file:{}]", logFile);
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.util.StreamUtils;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.FindAndModifyOptions.options;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keep the transition log in the {@code commandTransitionRecord} collection.
+ * <p>
+ * Sequence numbers are allocated with an atomic increment on a counter
+ * document. Allocation and insertion are serialized within the adapter so
+ * that entries become visible in sequence order.
+ * <p>
+ * When command retention is enabled, entries older than the retention
+ * period are removed by a TTL index on {@code date}.
+ */
+@Repository
+@Profile("!embedded")
+public class MongoCommandTransitionLog implements CommandTransitionLog {
+
+    static final String SEQUENCE_COLLECTION = "commandTransitionSequence";
+    static final String SEQUENCE_ID = "commandTransition";
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoCommandTransitionLog(MongoTemplate mongoTemplate,
+                                     @Value("${command.retention.enabled}") boolean retentionEnabled,
+                                     @Value("${command.retention.period}") Duration retentionPeriod) {
+        this.mongoTemplate = mongoTemplate;
+        mongoTemplate.indexOps(CommandTransitionRecord.class)
+                .ensureIndex(new Index()
+                        .on("chainObjectId", Sort.Direction.ASC)
+                        .on("commandType", Sort.Direction.ASC));
+        if (retentionEnabled) {
+            mongoTemplate.indexOps(CommandTransitionRecord.class)
+                    .ensureIndex(new Index()
+                            .on("date", Sort.Direction.ASC)
+                            .expire(retentionPeriod));
+        }
+    }
+
+    @Override
+    public synchronized CommandTransitionRecord append(CommandTransition transition) {
+        Document counter = mongoTemplate.findAndModify(
+                new Query(where("_id").is(SEQUENCE_ID)),
+                new Update().inc("value", 1L),
+                options().returnNew(true).upsert(true),
+                Document.class,
+                SEQUENCE_COLLECTION);
+        long sequence = counter.get("value", Number.class).longValue();
+        return mongoTemplate.insert(CommandTransitionRecord.of(sequence, transition));
+    }
+
+    @Override
+    public Stream<CommandTransitionRecord> streamRange(long fromSequence, long toSequence) {
+        Query query = new Query(where("_id").gte(fromSequence).lt(toSequence))
+                .with(Sort.by("_id"));
+        return StreamUtils.createStreamFromIterator(
+                mongoTemplate.stream(query, CommandTransitionRecord.class));
+    }
+
+    @Override
+    public Stream<CommandTransitionRecord> streamCommand(String commandType, String chainObjectId) {
+        Query query = new Query(where("chainObjectId").is(chainObjectId)
+                .and("commandType").is(commandType))
+                .with(Sort.by("_id"));
+        return StreamUtils.createStreamFromIterator(
+                mongoTemplate.stream(query, CommandTransitionRecord.class));
+    }
+
+    @Override
+    public long getLastSequence() {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, "_id")).limit(1);
+        CommandTransitionRecord last = mongoTemplate.findOne(query, CommandTransitionRecord.class);
+        return last != null ? last.getSequence() : 0L;
+    }
+
+}
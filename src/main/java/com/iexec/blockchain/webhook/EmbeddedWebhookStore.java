@@ -0,0 +1,98 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keep subscriptions and the delivery outbox in memory when running with the
+ * embedded command store.
+ * <p>
+ * Nothing is persisted: subscriptions and pending deliveries are lost on
+ * restart.
+ */
+@Repository
+@Profile("embedded")
+public class EmbeddedWebhookStore implements WebhookStore {
+
+    private final Map<String, WebhookSubscription> subscriptions = new ConcurrentHashMap<>();
+    private final Map<String, WebhookDelivery> deliveries = new ConcurrentHashMap<>();
+
+    @Override
+    public WebhookSubscription saveSubscription(WebhookSubscription subscription) {
+        subscriptions.put(subscription.getId(), subscription);
+        return subscription;
+    }
+
+    @Override
+    public Optional<WebhookSubscription> findSubscription(String id) {
+        return Optional.ofNullable(subscriptions.get(id));
+    }
+
+    @Override
+    public List<WebhookSubscription> findSubscriptions() {
+        return subscriptions.values().stream()
+                .filter(subscription -> !subscription.isOneShot())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<WebhookSubscription> findMatchingSubscriptions(String commandType, String chainObjectId) {
+        return subscriptions.values().stream()
+                .filter(subscription -> subscription.matches(commandType, chainObjectId))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean deleteSubscription(String id) {
+        return subscriptions.remove(id) != null;
+    }
+
+    @Override
+    public void enqueueDeliveries(List<WebhookDelivery> newDeliveries) {
+        newDeliveries.forEach(delivery -> deliveries.put(delivery.getId(), delivery));
+    }
+
+    @Override
+    public List<WebhookDelivery> findDueDeliveries(Instant now, Collection<String> excludedCallbackUrls,
+                                                   Collection<String> excludedIds, int limit) {
+        return deliveries.values().stream()
+                .filter(delivery -> !delivery.getNextAttemptDate().isAfter(now))
+                .filter(delivery -> !excludedCallbackUrls.contains(delivery.getCallbackUrl()))
+                .filter(delivery -> !excludedIds.contains(delivery.getId()))
+                .sorted(Comparator.comparing(WebhookDelivery::getNextAttemptDate))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void saveDelivery(WebhookDelivery delivery) {
+        deliveries.put(delivery.getId(), delivery);
+    }
+
+    @Override
+    public void deleteDeliveries(Collection<String> ids) {
+        ids.forEach(deliveries::remove);
+    }
+
+}
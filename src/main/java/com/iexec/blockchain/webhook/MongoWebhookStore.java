@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Keep subscriptions and the delivery outbox in MongoDB, pending deliveries
+ * survive a restart.
+ */
+@Repository
+@Profile("!embedded")
+public class MongoWebhookStore implements WebhookStore {
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoWebhookStore(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        mongoTemplate.indexOps(WebhookSubscription.class)
+                .ensureIndex(new Index()
+                        .on("chainObjectId", Sort.Direction.ASC)
+                        .on("commandType", Sort.Direction.ASC));
+        mongoTemplate.indexOps(WebhookDelivery.class)
+                .ensureIndex(new Index().on("nextAttemptDate", Sort.Direction.ASC));
+    }
+
+    @Override
+    public WebhookSubscription saveSubscription(WebhookSubscription subscription) {
+        return mongoTemplate.save(subscription);
+    }
+
+    @Override
+    public Optional<WebhookSubscription> findSubscription(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, WebhookSubscription.class));
+    }
+
+    @Override
+    public List<WebhookSubscription> findSubscriptions() {
+        return mongoTemplate.find(new Query(where("oneShot").is(false)), WebhookSubscription.class);
+    }
+
+    @Override
+    public List<WebhookSubscription> findMatchingSubscriptions(String commandType, String chainObjectId) {
+        Query query = new Query(where("commandType").in(Arrays.asList(null, commandType))
+                .and("chainObjectId").in(Arrays.asList(null, chainObjectId)));
+        return mongoTemplate.find(query, WebhookSubscription.class);
+    }
+
+    @Override
+    public boolean deleteSubscription(String id) {
+        return mongoTemplate.remove(new Query(where("id").is(id)), WebhookSubscription.class)
+                .getDeletedCount() > 0;
+    }
+
+    @Override
+    public void enqueueDeliveries(List<WebhookDelivery> deliveries) {
+        mongoTemplate.insertAll(deliveries);
+    }
+
+    @Override
+    public List<WebhookDelivery> findDueDeliveries(Instant now, Collection<String> excludedCallbackUrls,
+                                                   Collection<String> excludedIds, int limit) {
+        Query query = new Query(where("nextAttemptDate").lte(now)
+                .and("callbackUrl").nin(excludedCallbackUrls)
+                .and("id").nin(excludedIds))
+                .with(Sort.by("nextAttemptDate"))
+                .limit(limit);
+        return mongoTemplate.find(query, WebhookDelivery.class);
+    }
+
+    @Override
+    public void saveDelivery(WebhookDelivery delivery) {
+        mongoTemplate.save(delivery);
+    }
+
+    @Override
+    public void deleteDeliveries(Collection<String> ids) {
+        mongoTemplate.remove(new Query(where("id").in(ids)), WebhookDelivery.class);
+    }
+
+}
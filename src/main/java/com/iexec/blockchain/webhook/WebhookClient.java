@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import feign.Headers;
+import feign.RequestLine;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Post events to a callback URL, given on each call.
+ */
+interface WebhookClient {
+
+    @RequestLine("POST")
+    @Headers("Content-Type: application/json")
+    void deliver(URI callbackUrl, List<WebhookEvent> events);
+
+}
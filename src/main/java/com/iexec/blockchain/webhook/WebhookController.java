@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+import static com.iexec.blockchain.swagger.OpenApiConfig.SWAGGER_BASIC_AUTH;
+
+@RestController
+@RequestMapping("/webhooks")
+public class WebhookController {
+
+    private final WebhookService webhookService;
+
+    public WebhookController(WebhookService webhookService) {
+        this.webhookService = webhookService;
+    }
+
+    /**
+     * Subscribe a callback URL to final transitions of commands. Events are
+     * posted as JSON arrays.
+     *
+     * @param callbackUrl   absolute {@code http} or {@code https} URL
+     * @param commandType   simple name of the command class, e.g. {@code TaskInitialize}, every type if absent
+     * @param chainObjectId blockchain object ID of the command, every command if absent
+     * @return created subscription
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @PostMapping
+    public ResponseEntity<WebhookSubscription> subscribe(
+            @RequestParam String callbackUrl,
+            @RequestParam(required = false) String commandType,
+            @RequestParam(required = false) String chainObjectId) {
+        return webhookService.subscribe(callbackUrl, commandType, chainObjectId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.badRequest().build());
+    }
+
+    /**
+     * Read every subscription, one-shot callbacks of submissions excluded.
+     *
+     * @return subscriptions
+     */
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping
+    public ResponseEntity<List<WebhookSubscription>> getSubscriptions() {
+        return ResponseEntity.ok(webhookService.getSubscriptions());
+    }
+
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @GetMapping("/{id}")
+    public ResponseEntity<WebhookSubscription> getSubscription(@PathVariable String id) {
+        return webhookService.getSubscription(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @Operation(security = @SecurityRequirement(name = SWAGGER_BASIC_AUTH))
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> unsubscribe(@PathVariable String id) {
+        if (!webhookService.unsubscribe(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.Feign;
+import feign.Request;
+import feign.Retryer;
+import feign.Target;
+import feign.jackson.JacksonEncoder;
+import feign.okhttp.OkHttpClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Periodically post due outbox deliveries to their callback URLs.
+ * <p>
+ * Due deliveries are grouped by callback URL and posted as JSON arrays of at
+ * most {@code batchSize} events. At most {@code maxConcurrency} batches are
+ * in flight for a given URL, remaining deliveries wait for a later run.
+ * Deliveries in flight and deliveries of saturated URLs are excluded from
+ * the read, so a slow URL never fills the fetched page and delays the
+ * deliveries of other URLs.
+ * A failed batch is retried with an exponential backoff, its deliveries are
+ * given up after {@code maxAttempts} attempts. Deliveries are removed once
+ * posted, a callback URL may receive an event more than once.
+ */
+@Slf4j
+@Service
+public class WebhookDispatcher {
+
+    static final int FETCH_SIZE = 1000;
+    private static final Duration ENDPOINT_PERMITS_EXPIRY = Duration.ofHours(1);
+
+    private final WebhookStore webhookStore;
+    private final WebhookClient webhookClient;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final int maxConcurrency;
+    private final ExecutorService executor;
+    private final Cache<String, Semaphore> endpointPermits = Caffeine.newBuilder()
+            .expireAfterAccess(ENDPOINT_PERMITS_EXPIRY)
+            .build();
+    private final Set<String> inFlightDeliveries = ConcurrentHashMap.newKeySet();
+    private final Counter deliveredEvents;
+    private final Counter retriedEvents;
+    private final Counter droppedEvents;
+
+    public WebhookDispatcher(WebhookStore webhookStore,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Value("${webhook.batch-size}") int batchSize,
+                             @Value("${webhook.max-attempts}") int maxAttempts,
+                             @Value("${webhook.initial-backoff}") Duration initialBackoff,
+                             @Value("${webhook.max-backoff}") Duration maxBackoff,
+                             @Value("${webhook.max-concurrency}") int maxConcurrency,
+                             @Value("${webhook.threads}") int threads,
+                             @Value("${webhook.timeout}") Duration timeout) {
+        this.webhookStore = webhookStore;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.maxConcurrency = maxConcurrency;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.webhookClient = Feign.builder()
+                .client(new OkHttpClient())
+                .encoder(new JacksonEncoder(objectMapper))
+                .retryer(Retryer.NEVER_RETRY)
+                .options(new Request.Options(timeout.toMillis(), TimeUnit.MILLISECONDS,
+                        timeout.toMillis(), TimeUnit.MILLISECONDS, true))
+                .target(Target.EmptyTarget.create(WebhookClient.class));
+        this.deliveredEvents = getEventsCounter(meterRegistry, "delivered");
+        this.retriedEvents = getEventsCounter(meterRegistry, "retried");
+        this.droppedEvents = getEventsCounter(meterRegistry, "dropped");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${webhook.dispatch-interval}")
+    void dispatch() {
+        List<String> saturatedCallbackUrls = endpointPermits.asMap().entrySet().stream()
+                .filter(entry -> entry.getValue().availablePermits() == 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        webhookStore.findDueDeliveries(Instant.now(), saturatedCallbackUrls,
+                        List.copyOf(inFlightDeliveries), FETCH_SIZE).stream()
+                .filter(delivery -> !inFlightDeliveries.contains(delivery.getId()))
+                .collect(Collectors.groupingBy(WebhookDelivery::getCallbackUrl, LinkedHashMap::new,
+                        Collectors.toList()))
+                .forEach(this::dispatchToEndpoint);
+    }
+
+    static Duration getBackoff(Duration initialBackoff, Duration maxBackoff, int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private void dispatchToEndpoint(String callbackUrl, List<WebhookDelivery> deliveries) {
+        Semaphore permits = endpointPermits.get(callbackUrl, url -> new Semaphore(maxConcurrency));
+        for (int from = 0; from < deliveries.size(); from += batchSize) {
+            if (!permits.tryAcquire()) {
+                return;
+            }
+            List<WebhookDelivery> batch = deliveries.subList(from, Math.min(from + batchSize, deliveries.size()));
+            List<String> ids = batch.stream().map(WebhookDelivery::getId).collect(Collectors.toList());
+            inFlightDeliveries.addAll(ids);
+            try {
+                executor.execute(() -> {
+                    try {
+                        deliver(callbackUrl, batch);
+                    } finally {
+                        inFlightDeliveries.removeAll(ids);
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlightDeliveries.removeAll(ids);
+                permits.release();
+                return;
+            }
+        }
+    }
+
+    private void deliver(String callbackUrl, List<WebhookDelivery> batch) {
+        try {
+            webhookClient.deliver(URI.create(callbackUrl), batch.stream()
+                    .map(WebhookDelivery::getEvent)
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to deliver webhook events [callbackUrl:{}, events:{}, error:{}]",
+                    callbackUrl, batch.size(), e.getMessage());
+            reschedule(callbackUrl, batch);
+            return;
+        }
+        webhookStore.deleteDeliveries(batch.stream().map(WebhookDelivery::getId).collect(Collectors.toList()));
+        deliveredEvents.increment(batch.size());
+    }
+
+    private void reschedule(String callbackUrl, List<WebhookDelivery> batch) {
+        Instant now = Instant.now();
+        List<String> givenUp = new ArrayList<>();
+        for (WebhookDelivery delivery : batch) {
+            delivery.setAttempts(delivery.getAttempts() + 1);
+            if (delivery.getAttempts() >= maxAttempts) {
+                givenUp.add(delivery.getId());
+            } else {
+                delivery.setNextAttemptDate(now.plus(getBackoff(initialBackoff, maxBackoff, delivery.getAttempts())));
+                webhookStore.saveDelivery(delivery);
+            }
+        }
+        retriedEvents.increment(batch.size() - givenUp.size());
+        if (!givenUp.isEmpty()) {
+            log.error("Giving up webhook deliveries [callbackUrl:{}, events:{}, attempts:{}]",
+                    callbackUrl, givenUp.size(), maxAttempts);
+            webhookStore.deleteDeliveries(givenUp);
+            droppedEvents.increment(givenUp.size());
+        }
+    }
+
+    private static Counter getEventsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("webhook.events")
+                .description("Number of webhook events by delivery result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+}
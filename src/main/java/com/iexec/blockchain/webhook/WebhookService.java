@@ -0,0 +1,183 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.tool.Status;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class WebhookService {
+
+    private final WebhookStore webhookStore;
+
+    public WebhookService(WebhookStore webhookStore) {
+        this.webhookStore = webhookStore;
+    }
+
+    /**
+     * Check a callback URL is an absolute {@code http} or {@code https} URL.
+     *
+     * @param callbackUrl URL to check
+     * @return true if events can be posted to it
+     */
+    public static boolean isValidCallbackUrl(String callbackUrl) {
+        if (callbackUrl == null) {
+            return false;
+        }
+        try {
+            URI uri = new URI(callbackUrl);
+            return ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()))
+                    && uri.getHost() != null;
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Subscribe a callback URL to final transitions of matching commands.
+     *
+     * @param callbackUrl   URL events are posted to
+     * @param commandType   simple name of the command class, null for every type
+     * @param chainObjectId blockchain object ID of the command, null for every command
+     * @return stored subscription, empty if the callback URL is invalid
+     */
+    public Optional<WebhookSubscription> subscribe(String callbackUrl, String commandType, String chainObjectId) {
+        return addSubscription(callbackUrl, commandType, chainObjectId, false);
+    }
+
+    /**
+     * Call back a URL once, when a submitted command is final.
+     * Nothing is registered without callback URL.
+     * <p>
+     * The callback must be registered before the command is queued, a
+     * command reaching its final status first would never be called back.
+     *
+     * @param callbackUrl   URL the event is posted to, may be null
+     * @param commandType   simple name of the command class
+     * @param chainObjectId blockchain object ID of the command
+     * @return registered subscription, to remove if the command is rejected
+     */
+    public Optional<WebhookSubscription> registerCallback(String callbackUrl, String commandType,
+                                                          String chainObjectId) {
+        return callbackUrl != null
+                ? addSubscription(callbackUrl, commandType, chainObjectId, true)
+                : Optional.empty();
+    }
+
+    /**
+     * Remove the callback of a rejected command.
+     *
+     * @param callback subscription returned by {@link #registerCallback}
+     */
+    public void removeCallback(WebhookSubscription callback) {
+        webhookStore.deleteSubscription(callback.getId());
+    }
+
+    public Optional<WebhookSubscription> getSubscription(String id) {
+        return webhookStore.findSubscription(id)
+                .filter(subscription -> !subscription.isOneShot());
+    }
+
+    public List<WebhookSubscription> getSubscriptions() {
+        return webhookStore.findSubscriptions();
+    }
+
+    /**
+     * Delete a subscription. One-shot subscriptions of submissions are not
+     * visible through the API and cannot be deleted either.
+     *
+     * @return whether a subscription was deleted
+     */
+    public boolean unsubscribe(String id) {
+        return getSubscription(id)
+                .map(subscription -> webhookStore.deleteSubscription(subscription.getId()))
+                .orElse(false);
+    }
+
+    /**
+     * Store a delivery in the outbox for each subscription matching a final
+     * transition. A failure is only logged, it must never prevent the command
+     * from progressing.
+     *
+     * @param transition command transition
+     */
+    @EventListener
+    public void onCommandTransition(CommandTransition transition) {
+        if (transition.getStatus() != Status.SUCCESS && transition.getStatus() != Status.FAILURE) {
+            return;
+        }
+        try {
+            List<WebhookSubscription> subscriptions = webhookStore.findMatchingSubscriptions(
+                    transition.getCommandType(), transition.getChainObjectId());
+            if (subscriptions.isEmpty()) {
+                return;
+            }
+            WebhookEvent event = WebhookEvent.builder()
+                    .commandType(transition.getCommandType())
+                    .chainObjectId(transition.getChainObjectId())
+                    .status(transition.getStatus())
+                    .transactionHash(transition.getTransactionHash())
+                    .date(transition.getDate())
+                    .build();
+            Instant now = Instant.now();
+            webhookStore.enqueueDeliveries(subscriptions.stream()
+                    .map(subscription -> WebhookDelivery.builder()
+                            .id(new ObjectId().toHexString())
+                            .callbackUrl(subscription.getCallbackUrl())
+                            .event(event)
+                            .nextAttemptDate(now)
+                            .creationDate(now)
+                            .build())
+                    .collect(Collectors.toList()));
+            subscriptions.stream()
+                    .filter(WebhookSubscription::isOneShot)
+                    .forEach(subscription -> webhookStore.deleteSubscription(subscription.getId()));
+        } catch (RuntimeException e) {
+            log.error("Failed to enqueue webhook deliveries [chainObjectId:{}, command:{}, status:{}]",
+                    transition.getChainObjectId(), transition.getCommandType(),
+                    transition.getStatus(), e);
+        }
+    }
+
+    private Optional<WebhookSubscription> addSubscription(String callbackUrl, String commandType,
+                                                          String chainObjectId, boolean oneShot) {
+        if (!isValidCallbackUrl(callbackUrl)) {
+            return Optional.empty();
+        }
+        return Optional.of(webhookStore.saveSubscription(WebhookSubscription.builder()
+                .id(new ObjectId().toHexString())
+                .callbackUrl(callbackUrl)
+                .commandType(commandType)
+                .chainObjectId(chainObjectId)
+                .oneShot(oneShot)
+                .creationDate(Instant.now())
+                .build()));
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage of webhook subscriptions and of the delivery outbox.
+ */
+public interface WebhookStore {
+
+    WebhookSubscription saveSubscription(WebhookSubscription subscription);
+
+    Optional<WebhookSubscription> findSubscription(String id);
+
+    List<WebhookSubscription> findSubscriptions();
+
+    List<WebhookSubscription> findMatchingSubscriptions(String commandType, String chainObjectId);
+
+    boolean deleteSubscription(String id);
+
+    void enqueueDeliveries(List<WebhookDelivery> deliveries);
+
+    /**
+     * Find deliveries whose next attempt is due, oldest first.
+     *
+     * @param now                  current date
+     * @param excludedCallbackUrls callback URLs whose deliveries are skipped
+     * @param excludedIds          IDs of skipped deliveries
+     * @param limit                maximum number of returned deliveries
+     * @return due deliveries
+     */
+    List<WebhookDelivery> findDueDeliveries(Instant now, Collection<String> excludedCallbackUrls,
+                                            Collection<String> excludedIds, int limit);
+
+    void saveDelivery(WebhookDelivery delivery);
+
+    void deleteDeliveries(Collection<String> ids);
+
+}
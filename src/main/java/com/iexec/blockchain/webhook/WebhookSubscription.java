@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Request to be called back when commands reach a final status.
+ * <p>
+ * Null filters match every command. A one-shot subscription is registered
+ * with a {@code callbackUrl} on a submission endpoint, it is removed once
+ * its command is final.
+ */
+@Document
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WebhookSubscription {
+    @Id
+    private String id;
+    private String callbackUrl;
+    /**
+     * Simple name of the command class, e.g. {@code TaskInitialize}.
+     */
+    private String commandType;
+    private String chainObjectId;
+    private boolean oneShot;
+    private Instant creationDate;
+
+    boolean matches(String commandType, String chainObjectId) {
+        return (this.commandType == null || this.commandType.equals(commandType))
+                && (this.chainObjectId == null || this.chainObjectId.equals(chainObjectId));
+    }
+}
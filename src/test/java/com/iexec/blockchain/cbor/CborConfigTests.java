@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.cbor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.status.CommandStatusResult;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.tool.Status;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CborConfigTests {
+
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+
+    private final MappingJackson2CborHttpMessageConverter converter =
+            new CborConfig().cborHttpMessageConverter(new Jackson2ObjectMapperBuilder());
+
+    @Test
+    void shouldWriteHexStringsAsBytes() throws Exception {
+        ObjectMapper cborMapper = converter.getObjectMapper();
+        BatchItemResult result = BatchItemResult.rejected(CHAIN_TASK_ID, "already received");
+
+        byte[] cbor = cborMapper.writeValueAsBytes(result);
+
+        // 32 raw bytes instead of 66 characters for the task ID alone
+        assertThat(cbor.length).isLessThan(new ObjectMapper().writeValueAsBytes(result).length - 32);
+        assertThat(cborMapper.readValue(cbor, BatchItemResult.class)).isEqualTo(result);
+    }
+
+    @Test
+    void shouldReadBackEveryField() throws Exception {
+        ObjectMapper cborMapper = converter.getObjectMapper();
+        CommandStatusResult result = new CommandStatusResult(TaskCommandType.REVEAL, CHAIN_TASK_ID, Status.SUCCESS);
+
+        assertThat(cborMapper.readValue(cborMapper.writeValueAsBytes(result), CommandStatusResult.class))
+                .isEqualTo(result);
+    }
+
+}
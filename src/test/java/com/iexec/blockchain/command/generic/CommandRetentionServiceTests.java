@@ -0,0 +1,68 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.command.task.initialize.TaskInitialize;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class CommandRetentionServiceTests {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private CommandStorage<TaskInitialize, ?> commandStorage;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        doReturn(TaskInitialize.class).when(commandStorage).getCommandType();
+    }
+
+    @Test
+    void shouldNotArchiveWhenDisabled() {
+        CommandRetentionService retentionService = new CommandRetentionService(
+                List.of(commandStorage), false, Duration.ofDays(30), BATCH_SIZE);
+
+        retentionService.archiveFinalCommands();
+
+        verify(commandStorage, never()).archiveFinalCommands(any(), anyInt());
+    }
+
+    @Test
+    void shouldArchiveUntilBatchIsNotFull() {
+        CommandRetentionService retentionService = new CommandRetentionService(
+                List.of(commandStorage), true, Duration.ofDays(30), BATCH_SIZE);
+        when(commandStorage.archiveFinalCommands(any(Instant.class), eq(BATCH_SIZE)))
+                .thenReturn(BATCH_SIZE, BATCH_SIZE, 1);
+
+        retentionService.archiveFinalCommands();
+
+        verify(commandStorage, times(3)).archiveFinalCommands(any(Instant.class), eq(BATCH_SIZE));
+    }
+
+}
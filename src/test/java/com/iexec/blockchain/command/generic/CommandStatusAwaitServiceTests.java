@@ -0,0 +1,82 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.tool.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandStatusAwaitServiceTests {
+
+    private static final String COMMAND_TYPE = "TaskInitialize";
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+    private static final Set<Status> FINAL_STATUSES = Set.of(Status.SUCCESS, Status.FAILURE);
+
+    private final CommandStatusAwaitService awaitService = new CommandStatusAwaitService(new SimpleMeterRegistry());
+
+    @Test
+    void shouldCompleteRightAwayWhenStatusAlreadyReached() {
+        DeferredResult<ResponseEntity<Status>> result = awaitService.await(COMMAND_TYPE, CHAIN_TASK_ID,
+                FINAL_STATUSES, Duration.ofSeconds(30), () -> Optional.of(Status.SUCCESS));
+
+        assertThat(result.getResult()).isEqualTo(ResponseEntity.ok(Status.SUCCESS));
+        assertThat(awaitService.getWaiterCount()).isZero();
+    }
+
+    @Test
+    void shouldCompleteOnMatchingTransition() {
+        DeferredResult<ResponseEntity<Status>> result = awaitService.await(COMMAND_TYPE, CHAIN_TASK_ID,
+                FINAL_STATUSES, Duration.ofSeconds(30), () -> Optional.of(Status.RECEIVED));
+        assertThat(result.hasResult()).isFalse();
+
+        awaitService.onCommandTransition(transition(COMMAND_TYPE, Status.PROCESSING));
+        assertThat(result.hasResult()).isFalse();
+
+        awaitService.onCommandTransition(transition(COMMAND_TYPE, Status.FAILURE));
+        assertThat(result.getResult()).isEqualTo(ResponseEntity.ok(Status.FAILURE));
+        assertThat(awaitService.getWaiterCount()).isZero();
+    }
+
+    @Test
+    void shouldIgnoreTransitionsOfOtherCommandTypes() {
+        DeferredResult<ResponseEntity<Status>> result = awaitService.await(COMMAND_TYPE, CHAIN_TASK_ID,
+                FINAL_STATUSES, Duration.ofSeconds(30), Optional::empty);
+
+        awaitService.onCommandTransition(transition("TaskContribute", Status.SUCCESS));
+
+        assertThat(result.hasResult()).isFalse();
+        assertThat(awaitService.getWaiterCount()).isOne();
+    }
+
+    private static CommandTransition transition(String commandType, Status status) {
+        return CommandTransition.builder()
+                .commandType(commandType)
+                .chainObjectId(CHAIN_TASK_ID)
+                .status(status)
+                .build();
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.command.status.TaskCommandType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommandSubmissionExecutorTests {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CommandSubmissionExecutor submissionExecutor = new CommandSubmissionExecutor(meterRegistry, 1, 1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void afterEach() {
+        release.countDown();
+        submissionExecutor.shutdown();
+    }
+
+    @Test
+    void shouldRunSubmission() throws Exception {
+        CompletableFuture<ResponseEntity<String>> response =
+                submissionExecutor.submit(TaskCommandType.INITIALIZE, () -> ResponseEntity.ok("0xabc"));
+
+        assertThat(response.get(5, TimeUnit.SECONDS)).isEqualTo(ResponseEntity.ok("0xabc"));
+    }
+
+    @Test
+    void shouldRejectSubmissionWhenPoolIsSaturated() throws Exception {
+        submissionExecutor.submit(TaskCommandType.INITIALIZE, this::blockingSubmission);
+        submissionExecutor.submit(TaskCommandType.INITIALIZE, this::blockingSubmission);
+
+        CompletableFuture<ResponseEntity<String>> rejected =
+                submissionExecutor.submit(TaskCommandType.INITIALIZE, () -> ResponseEntity.ok("0xabc"));
+
+        assertThat(rejected.get().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(meterRegistry.get(CommandSubmissionExecutor.METRIC_NAME + ".rejected")
+                .tag("command", TaskCommandType.INITIALIZE.getCommandName())
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldIsolateCommandTypes() throws Exception {
+        submissionExecutor.submit(TaskCommandType.INITIALIZE, this::blockingSubmission);
+        submissionExecutor.submit(TaskCommandType.INITIALIZE, this::blockingSubmission);
+
+        CompletableFuture<ResponseEntity<String>> response =
+                submissionExecutor.submit(TaskCommandType.CONTRIBUTE, () -> ResponseEntity.ok("0xabc"));
+
+        assertThat(response.get(5, TimeUnit.SECONDS)).isEqualTo(ResponseEntity.ok("0xabc"));
+    }
+
+    @Test
+    void shouldLetAcceptedSubmissionsFinishOnShutdown() {
+        CompletableFuture<ResponseEntity<String>> running =
+                submissionExecutor.submit(TaskCommandType.INITIALIZE, this::slowSubmission);
+        CompletableFuture<ResponseEntity<String>> queued =
+                submissionExecutor.submit(TaskCommandType.INITIALIZE, this::slowSubmission);
+
+        submissionExecutor.shutdown();
+
+        assertThat(running).isCompletedWithValue(ResponseEntity.ok("0xabc"));
+        assertThat(queued).isCompletedWithValue(ResponseEntity.ok("0xabc"));
+    }
+
+    private ResponseEntity<String> slowSubmission() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok("0xabc");
+    }
+
+    private ResponseEntity<String> blockingSubmission() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.command.task.initialize.TaskInitialize;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeArgs;
+import com.iexec.blockchain.tool.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddedCommandStoreTests {
+
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+    private static final String CHAIN_DEAL_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000dea1";
+
+    private final MongoConverter converter = EmbeddedCommandStore.createStandaloneConverter();
+
+    @TempDir
+    Path directory;
+
+    private EmbeddedCommandStore<TaskInitialize> store;
+
+    @BeforeEach
+    void init() throws IOException {
+        store = new EmbeddedCommandStore<>(TaskInitialize.class, converter, directory);
+    }
+
+    @AfterEach
+    void close() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void shouldSaveAndFindCommand() {
+        store.save(newCommand(Status.RECEIVED));
+
+        assertThat(store.findByChainObjectId(CHAIN_TASK_ID))
+                .hasValueSatisfying(command -> {
+                    assertThat(command.getId()).isNotNull();
+                    assertThat(command.getVersion()).isZero();
+                    assertThat(command.getStatus()).isEqualTo(Status.RECEIVED);
+                    assertThat(command.getArgs().getChainDealId()).isEqualTo(CHAIN_DEAL_ID);
+                });
+    }
+
+    @Test
+    void shouldNotInsertCommandTwice() {
+        store.save(newCommand(Status.RECEIVED));
+
+        assertThatThrownBy(() -> store.save(newCommand(Status.RECEIVED)))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void shouldRejectStaleUpdate() {
+        store.save(newCommand(Status.RECEIVED));
+        TaskInitialize first = store.findByChainObjectId(CHAIN_TASK_ID).orElseThrow();
+        TaskInitialize second = store.findByChainObjectId(CHAIN_TASK_ID).orElseThrow();
+        first.setStatus(Status.PROCESSING);
+        store.save(first);
+
+        second.setStatus(Status.PROCESSING);
+        assertThatThrownBy(() -> store.save(second))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void shouldReplayLogOnRestart() throws IOException {
+        store.save(newCommand(Status.RECEIVED));
+        TaskInitialize command = store.findByChainObjectId(CHAIN_TASK_ID).orElseThrow();
+        command.setStatus(Status.PROCESSING);
+        store.save(command);
+        store.close();
+
+        store = new EmbeddedCommandStore<>(TaskInitialize.class, converter, directory);
+
+        assertThat(store.findByChainObjectId(CHAIN_TASK_ID))
+                .hasValueSatisfying(reloaded -> {
+                    assertThat(reloaded.getStatus()).isEqualTo(Status.PROCESSING);
+                    assertThat(reloaded.getVersion()).isEqualTo(1L);
+                });
+    }
+
+    @Test
+    void shouldTruncateLogOnSnapshotAndReload() throws IOException {
+        store.save(newCommand(Status.RECEIVED));
+        store.snapshot();
+        store.close();
+
+        assertThat(Files.size(directory.resolve("TaskInitialize.log"))).isZero();
+        store = new EmbeddedCommandStore<>(TaskInitialize.class, converter, directory);
+        assertThat(store.findByChainObjectId(CHAIN_TASK_ID)).isPresent();
+    }
+
+    @Test
+    void shouldArchiveFinalCommands() throws IOException {
+        TaskInitialize command = newCommand(Status.SUCCESS);
+        command.setFinalDate(Instant.now().minus(Duration.ofDays(2)).truncatedTo(ChronoUnit.MILLIS));
+        store.save(command);
+
+        assertThat(store.archiveFinalCommands(Instant.now().minus(Duration.ofDays(1)), 10)).isOne();
+        assertThat(store.findByChainObjectId(CHAIN_TASK_ID)).isEmpty();
+        assertThat(store.findArchivedByChainObjectId(CHAIN_TASK_ID)).isPresent();
+
+        store.close();
+        store = new EmbeddedCommandStore<>(TaskInitialize.class, converter, directory);
+        assertThat(store.findByChainObjectId(CHAIN_TASK_ID)).isEmpty();
+        assertThat(store.findArchivedByChainObjectId(CHAIN_TASK_ID)).isPresent();
+    }
+
+    @Test
+    void shouldDropExpiredArchivedCommandsOnSnapshot() throws IOException {
+        store.close();
+        store = new EmbeddedCommandStore<>(TaskInitialize.class, converter, directory, Duration.ofDays(7));
+        TaskInitialize command = newCommand(Status.SUCCESS);
+        command.setFinalDate(Instant.now().minus(Duration.ofDays(8)).truncatedTo(ChronoUnit.MILLIS));
+        store.save(command);
+        store.archiveFinalCommands(Instant.now().minus(Duration.ofDays(1)), 10);
+
+        store.snapshot();
+        store.close();
+        store = new EmbeddedCommandStore<>(TaskInitialize.class, converter, directory, Duration.ofDays(7));
+
+        assertThat(store.findByChainObjectId(CHAIN_TASK_ID)).isEmpty();
+        assertThat(store.findArchivedByChainObjectId(CHAIN_TASK_ID)).isEmpty();
+    }
+
+    @Test
+    void shouldListCommandsPageByPage() {
+        Instant creationDate = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        for (int i = 0; i < 5; i++) {
+            // two commands per date to check the ID tie-break
+            store.save(newCommand(getChainTaskId(i), Status.RECEIVED, creationDate.plusSeconds(i / 2)));
+        }
+        CommandFilter filter = CommandFilter.builder().build();
+
+        List<TaskInitialize> firstPage = store.findPage(filter, null, 2);
+        CommandCursor cursor = CommandCursor.decode(CommandCursor.of(firstPage.get(1)).encode());
+        List<TaskInitialize> secondPage = store.findPage(filter, cursor, 2);
+        List<TaskInitialize> lastPage = store.findPage(filter, CommandCursor.of(secondPage.get(1)), 2);
+
+        List<TaskInitialize> listed = new ArrayList<>(firstPage);
+        listed.addAll(secondPage);
+        listed.addAll(lastPage);
+        assertThat(lastPage).hasSize(1);
+        assertThat(listed).extracting(Command::getChainObjectId)
+                .doesNotHaveDuplicates()
+                .hasSize(5);
+        assertThat(listed).isSortedAccordingTo(CommandCursor.ORDER);
+    }
+
+    @Test
+    void shouldStreamCommandsMatchingFilter() {
+        Instant creationDate = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        store.save(newCommand(getChainTaskId(0), Status.SUCCESS, creationDate.minusSeconds(60)));
+        store.save(newCommand(getChainTaskId(1), Status.SUCCESS, creationDate));
+        store.save(newCommand(getChainTaskId(2), Status.RECEIVED, creationDate));
+        store.save(newCommand(getChainTaskId(3), Status.SUCCESS, creationDate.plusSeconds(60)));
+        CommandFilter filter = CommandFilter.builder()
+                .status(Status.SUCCESS)
+                .from(creationDate)
+                .to(creationDate.plusSeconds(60))
+                .build();
+
+        try (Stream<TaskInitialize> commands = store.stream(filter)) {
+            assertThat(commands).extracting(Command::getChainObjectId)
+                    .containsExactly(getChainTaskId(1));
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidCursor() {
+        assertThatThrownBy(() -> CommandCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TaskInitialize newCommand(Status status) {
+        return newCommand(CHAIN_TASK_ID, status, Instant.now());
+    }
+
+    private TaskInitialize newCommand(String chainTaskId, Status status, Instant creationDate) {
+        TaskInitialize command = new TaskInitialize();
+        command.setChainObjectId(chainTaskId);
+        command.setStatus(status);
+        command.setCreationDate(creationDate);
+        command.setArgs(new TaskInitializeArgs(chainTaskId, CHAIN_DEAL_ID, 0));
+        return command;
+    }
+
+    private static String getChainTaskId(int index) {
+        return CHAIN_TASK_ID.substring(0, CHAIN_TASK_ID.length() - 1) + index;
+    }
+
+}
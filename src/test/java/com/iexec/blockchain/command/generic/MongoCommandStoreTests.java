@@ -0,0 +1,107 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.generic;
+
+import com.iexec.blockchain.command.task.initialize.TaskInitialize;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeRepository;
+import com.iexec.blockchain.tool.Status;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MongoCommandStoreTests {
+
+    private static final Instant CREATION_DATE = Instant.parse("2023-03-01T10:00:00.123Z");
+    private static final String ID = "0001";
+
+    @Mock
+    private TaskInitializeRepository repository;
+    @Mock
+    private CommandArchive commandArchive;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private IndexOperations indexOperations;
+
+    private MongoCommandStore<TaskInitialize> store;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        when(mongoTemplate.indexOps(TaskInitialize.class)).thenReturn(indexOperations);
+        store = new MongoCommandStore<>(TaskInitialize.class, repository, commandArchive, mongoTemplate);
+    }
+
+    @Test
+    void shouldQueryPageAfterCursorInCreationOrder() {
+        store.findPage(CommandFilter.builder().build(), new CommandCursor(CREATION_DATE, ID), 10);
+
+        Query query = captureQuery();
+        assertThat(query.getQueryObject()).isEqualTo(new Document("$and", List.of(
+                new Document("$or", List.of(
+                        new Document("creationDate", new Document("$gt", CREATION_DATE)),
+                        new Document("creationDate", CREATION_DATE).append("id", new Document("$gt", ID)))))));
+        assertThat(query.getSortObject()).isEqualTo(new Document("creationDate", 1).append("id", 1));
+        assertThat(query.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldQueryFirstPageWithFilter() {
+        Instant to = CREATION_DATE.plusSeconds(60);
+        store.findPage(CommandFilter.builder()
+                .status(Status.SUCCESS)
+                .from(CREATION_DATE)
+                .to(to)
+                .build(), null, 10);
+
+        Query query = captureQuery();
+        assertThat(query.getQueryObject()).isEqualTo(new Document("$and", List.of(
+                new Document("status", Status.SUCCESS),
+                new Document("creationDate", new Document("$gte", CREATION_DATE)),
+                new Document("creationDate", new Document("$lt", to)))));
+        assertThat(query.getSortObject()).isEqualTo(new Document("creationDate", 1).append("id", 1));
+    }
+
+    @Test
+    void shouldQueryEveryCommandWithoutFilter() {
+        store.findPage(CommandFilter.builder().build(), null, 10);
+
+        Query query = captureQuery();
+        assertThat(query.getQueryObject()).isEmpty();
+        assertThat(query.getSortObject()).isEqualTo(new Document("creationDate", 1).append("id", 1));
+    }
+
+    private Query captureQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(TaskInitialize.class));
+        return query.getValue();
+    }
+
+}
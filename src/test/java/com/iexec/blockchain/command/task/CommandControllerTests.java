@@ -0,0 +1,181 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.task;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.iexec.blockchain.command.generic.CommandCursor;
+import com.iexec.blockchain.command.generic.CommandFilter;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.contribute.TaskContributeService;
+import com.iexec.blockchain.command.task.finalize.TaskFinalizeService;
+import com.iexec.blockchain.command.task.initialize.TaskInitialize;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeService;
+import com.iexec.blockchain.command.task.reveal.TaskRevealService;
+import com.iexec.blockchain.tool.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class CommandControllerTests {
+
+    private static final Instant CREATION_DATE = Instant.parse("2023-03-01T10:00:00.123Z");
+
+    @Mock
+    private TaskInitializeService taskInitializeService;
+    @Mock
+    private TaskContributeService taskContributeService;
+    @Mock
+    private TaskRevealService taskRevealService;
+    @Mock
+    private TaskFinalizeService taskFinalizeService;
+
+    private CommandController commandController;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        commandController = new CommandController(new TaskCommandEngines(taskInitializeService,
+                taskContributeService, taskRevealService, taskFinalizeService), new ObjectMapper());
+    }
+
+    @Test
+    void shouldReturnCursorOfFullPageAndResumeAfterIt() {
+        TaskInitialize first = command("0001");
+        TaskInitialize second = command("0002");
+        doReturn(List.of(first, second)).when(taskInitializeService)
+                .getCommands(any(), isNull(), eq(2));
+
+        ResponseEntity<CommandPage> page = commandController.getCommands(
+                TaskCommandType.INITIALIZE, null, null, null, null, 2);
+
+        assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(page.getBody()).isNotNull();
+        assertThat(page.getBody().getCommands()).containsExactly(first, second);
+        String nextCursor = page.getBody().getNextCursor();
+        assertThat(CommandCursor.decode(nextCursor)).isEqualTo(CommandCursor.of(second));
+
+        doReturn(List.of()).when(taskInitializeService)
+                .getCommands(any(), eq(CommandCursor.of(second)), eq(2));
+        ResponseEntity<CommandPage> lastPage = commandController.getCommands(
+                TaskCommandType.INITIALIZE, null, null, null, nextCursor, 2);
+
+        assertThat(lastPage.getBody()).isNotNull();
+        assertThat(lastPage.getBody().getCommands()).isEmpty();
+        assertThat(lastPage.getBody().getNextCursor()).isNull();
+        verify(taskInitializeService).getCommands(any(), eq(CommandCursor.of(second)), eq(2));
+    }
+
+    @Test
+    void shouldNotReturnCursorOfLastPage() {
+        doReturn(List.of(command("0001"))).when(taskInitializeService)
+                .getCommands(any(), isNull(), eq(2));
+
+        ResponseEntity<CommandPage> page = commandController.getCommands(
+                TaskCommandType.INITIALIZE, null, null, null, null, 2);
+
+        assertThat(page.getBody()).isNotNull();
+        assertThat(page.getBody().getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldPassFilterAndCapLimit() {
+        Instant from = CREATION_DATE.minusSeconds(60);
+        Instant to = CREATION_DATE.plusSeconds(60);
+        doReturn(List.of()).when(taskContributeService).getCommands(any(), any(), anyInt());
+
+        commandController.getCommands(TaskCommandType.CONTRIBUTE, Status.SUCCESS, from, to, null, 5000);
+
+        verify(taskContributeService).getCommands(CommandFilter.builder()
+                .status(Status.SUCCESS)
+                .from(from)
+                .to(to)
+                .build(), null, CommandController.MAX_LIMIT);
+    }
+
+    @Test
+    void shouldRejectInvalidCursors() {
+        List<String> invalidCursors = List.of(
+                "not a cursor",
+                encode("no-separator"),
+                encode("_0001"),
+                encode("1677664800123_"),
+                encode("not-a-date_0001"));
+
+        for (String cursor : invalidCursors) {
+            assertThat(commandController.getCommands(TaskCommandType.INITIALIZE, null, null, null, cursor, 10)
+                    .getStatusCode()).as(cursor).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+        verify(taskInitializeService, never()).getCommands(any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldRejectInvalidLimit() {
+        assertThat(commandController.getCommands(TaskCommandType.INITIALIZE, null, null, null, null, 0)
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(taskInitializeService, never()).getCommands(any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldRejectEmptyOrReversedDateRange() {
+        Instant later = CREATION_DATE.plusSeconds(1);
+
+        assertThat(commandController.getCommands(TaskCommandType.INITIALIZE, null,
+                CREATION_DATE, CREATION_DATE, null, 10).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(commandController.getCommands(TaskCommandType.INITIALIZE, null,
+                later, CREATION_DATE, null, 10).getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(taskInitializeService, never()).getCommands(any(), any(), anyInt());
+    }
+
+    @Test
+    void shouldRejectReversedDateRangeOfExport() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        commandController.exportCommands(TaskCommandType.INITIALIZE, null,
+                CREATION_DATE.plusSeconds(1), CREATION_DATE, response);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        verify(taskInitializeService, never()).streamCommands(any());
+    }
+
+    private static TaskInitialize command(String id) {
+        TaskInitialize command = new TaskInitialize();
+        command.setId(id);
+        command.setCreationDate(CREATION_DATE);
+        return command;
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
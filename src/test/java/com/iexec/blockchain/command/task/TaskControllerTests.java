@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.task;
+
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskBatchItem;
+import com.iexec.blockchain.command.generic.CommandStatusAwaitService;
+import com.iexec.blockchain.command.generic.CommandSubmissionExecutor;
+import com.iexec.blockchain.command.status.CommandStatusQuery;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.contribute.TaskContributeService;
+import com.iexec.blockchain.command.task.finalize.TaskFinalizeService;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeService;
+import com.iexec.blockchain.command.task.reveal.TaskRevealService;
+import com.iexec.blockchain.lifecycle.TaskLifecycleService;
+import com.iexec.blockchain.tool.ChainConfig;
+import com.iexec.blockchain.tool.IexecHubService;
+import com.iexec.blockchain.tool.Status;
+import com.iexec.blockchain.webhook.EmbeddedWebhookStore;
+import com.iexec.blockchain.webhook.WebhookService;
+import com.iexec.common.chain.adapter.args.TaskContributeArgs;
+import com.iexec.common.chain.adapter.args.TaskRevealArgs;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TaskControllerTests {
+
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+    private static final long TIMEOUT_SECONDS = 5;
+
+    @Mock
+    private IexecHubService iexecHubService;
+    @Mock
+    private TaskInitializeService taskInitializeService;
+    @Mock
+    private TaskContributeService taskContributeService;
+    @Mock
+    private TaskRevealService taskRevealService;
+    @Mock
+    private TaskFinalizeService taskFinalizeService;
+    @Mock
+    private TaskLifecycleService taskLifecycleService;
+    @Mock
+    private CommandStatusAwaitService commandStatusAwaitService;
+
+    private final CommandSubmissionExecutor commandSubmissionExecutor =
+            new CommandSubmissionExecutor(new SimpleMeterRegistry(), 1, 1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private TaskController taskController;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        taskController = new TaskController(ChainConfig.builder().blockTime(5).build(), iexecHubService,
+                taskInitializeService, taskContributeService, taskRevealService, taskFinalizeService,
+                new TaskCommandEngines(taskInitializeService, taskContributeService,
+                        taskRevealService, taskFinalizeService),
+                taskLifecycleService, commandStatusAwaitService, commandSubmissionExecutor,
+                new WebhookService(new EmbeddedWebhookStore()));
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        commandSubmissionExecutor.shutdown();
+    }
+
+    @Test
+    void shouldAnswerServiceUnavailableWhenSubmissionPoolIsSaturated() throws Exception {
+        commandSubmissionExecutor.submit(TaskCommandType.CONTRIBUTE, this::blockingSubmission);
+        commandSubmissionExecutor.submit(TaskCommandType.CONTRIBUTE, this::blockingSubmission);
+
+        ResponseEntity<String> response = taskController.contributeTask(CHAIN_TASK_ID,
+                new TaskContributeArgs("0x01", "0x02", "0x03", "0x04"), null)
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        verify(taskContributeService, never()).start(anyString(), any());
+    }
+
+    @Test
+    void shouldRejectOversizedBatches() throws Exception {
+        List<TaskBatchItem<TaskRevealArgs>> items = Collections.nCopies(TaskController.MAX_BATCH_SIZE + 1,
+                new TaskBatchItem<>(CHAIN_TASK_ID, new TaskRevealArgs("0x01")));
+        List<CommandStatusQuery> queries = Collections.nCopies(TaskController.MAX_BATCH_SIZE + 1,
+                new CommandStatusQuery(TaskCommandType.REVEAL, CHAIN_TASK_ID));
+
+        ResponseEntity<List<BatchItemResult>> response = taskController.revealTasks(items, null)
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(taskController.getStatusesForTaskRequests(queries).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(taskRevealService, never()).start(anyList());
+        verify(taskRevealService, never()).getStatusesForCommands(any());
+    }
+
+    @Test
+    void shouldRejectInvalidAwaitTimeouts() {
+        for (String timeout : List.of("not a duration", "-1s", "6m")) {
+            assertThat(taskController.awaitStatusForInitializeTaskRequest(
+                    CHAIN_TASK_ID, Set.of(Status.SUCCESS), timeout).getResult())
+                    .as(timeout)
+                    .isEqualTo(ResponseEntity.badRequest().build());
+        }
+        assertThat(taskController.awaitStatusForInitializeTaskRequest(CHAIN_TASK_ID, Set.of(), "30s").getResult())
+                .isEqualTo(ResponseEntity.badRequest().build());
+        verify(commandStatusAwaitService, never()).await(any(), any(), any(), any(), any());
+    }
+
+    private ResponseEntity<String> blockingSubmission() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ResponseEntity.ok().build();
+    }
+
+}
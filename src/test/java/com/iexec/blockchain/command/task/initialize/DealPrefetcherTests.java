@@ -0,0 +1,151 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.command.task.initialize;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.tool.ChainReadContext;
+import com.iexec.blockchain.tool.IexecHubService;
+import com.iexec.blockchain.tool.Status;
+import com.iexec.commons.poco.chain.ChainCategory;
+import com.iexec.commons.poco.chain.ChainDeal;
+import com.iexec.commons.poco.chain.ChainUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class DealPrefetcherTests {
+
+    private static final String CHAIN_DEAL_ID = "0x1111111111111111111111111111111111111111111111111111111111111111";
+    private static final long TIMEOUT_MS = 5000;
+
+    @Mock
+    private IexecHubService iexecHubService;
+    @Mock
+    private ChainReadContext chainReadContext;
+
+    private DealPrefetcher dealPrefetcher;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        when(chainReadContext.pinToHead(any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(0).get());
+        when(iexecHubService.getChainDeal(CHAIN_DEAL_ID)).thenReturn(Optional.of(ChainDeal.builder()
+                .botFirst(BigInteger.valueOf(2))
+                .botSize(BigInteger.valueOf(3))
+                .chainCategory(ChainCategory.builder().id(5).build())
+                .build()));
+        dealPrefetcher = new DealPrefetcher(iexecHubService, chainReadContext, 10, 2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        dealPrefetcher.shutdown();
+    }
+
+    @Test
+    void shouldPrefetchDealCategoryAndTasksOnFirstRequest() {
+        dealPrefetcher.onCommandTransition(received(0));
+        dealPrefetcher.onCommandTransition(received(1));
+
+        verify(iexecHubService, timeout(TIMEOUT_MS)).getChainCategory(5);
+        for (int taskIndex = 2; taskIndex < 5; taskIndex++) {
+            verify(iexecHubService, timeout(TIMEOUT_MS))
+                    .getChainTask(ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, taskIndex));
+        }
+        verify(iexecHubService, times(1)).getChainDeal(CHAIN_DEAL_ID);
+        verify(iexecHubService, times(3)).getChainTask(anyString());
+    }
+
+    @Test
+    void shouldLimitPrefetchedTasks() {
+        dealPrefetcher = new DealPrefetcher(iexecHubService, chainReadContext, 1, 1);
+        dealPrefetcher.prefetch(CHAIN_DEAL_ID);
+
+        verify(iexecHubService, timeout(TIMEOUT_MS))
+                .getChainTask(ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, 2));
+        verify(iexecHubService, times(1)).getChainTask(anyString());
+    }
+
+    @Test
+    void shouldSkipTasksOnceQueueIsFull() throws InterruptedException {
+        String otherChainDealId = "0x2222222222222222222222222222222222222222222222222222222222222222";
+        when(iexecHubService.getChainDeal(otherChainDealId)).thenReturn(Optional.of(ChainDeal.builder()
+                .botFirst(BigInteger.ZERO)
+                .botSize(BigInteger.valueOf(2))
+                .chainCategory(ChainCategory.builder().id(5).build())
+                .build()));
+        CountDownLatch release = new CountDownLatch(1);
+        when(iexecHubService.getChainTask(anyString())).thenAnswer(invocation -> {
+            release.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return Optional.empty();
+        });
+        dealPrefetcher = new DealPrefetcher(iexecHubService, chainReadContext, 2, 1);
+
+        dealPrefetcher.prefetch(CHAIN_DEAL_ID);
+        verify(iexecHubService, timeout(TIMEOUT_MS)).getChainTask(anyString());
+        dealPrefetcher.prefetch(otherChainDealId);
+        release.countDown();
+
+        verify(iexecHubService, timeout(TIMEOUT_MS).times(3)).getChainTask(anyString());
+        verify(iexecHubService, after(100).times(3)).getChainTask(anyString());
+        verify(iexecHubService, never()).getChainTask(ChainUtils.generateChainTaskId(otherChainDealId, 1));
+    }
+
+    @Test
+    void shouldIgnoreOtherTransitions() {
+        dealPrefetcher.onCommandTransition(CommandTransition.builder()
+                .status(Status.PROCESSING)
+                .args(new TaskInitializeArgs("0x01", CHAIN_DEAL_ID, 0))
+                .build());
+
+        verify(iexecHubService, after(100).never()).getChainDeal(anyString());
+    }
+
+    @Test
+    void shouldRetryUnknownDeal() {
+        when(iexecHubService.getChainDeal(CHAIN_DEAL_ID)).thenReturn(Optional.empty());
+        dealPrefetcher.onCommandTransition(received(0));
+        verify(iexecHubService, timeout(TIMEOUT_MS)).getChainDeal(CHAIN_DEAL_ID);
+        dealPrefetcher.onCommandTransition(received(1));
+
+        verify(iexecHubService, timeout(TIMEOUT_MS).times(2)).getChainDeal(CHAIN_DEAL_ID);
+        verify(iexecHubService, never()).getChainTask(anyString());
+    }
+
+    private static CommandTransition received(int taskIndex) {
+        return CommandTransition.builder()
+                .commandType(TaskInitialize.class.getSimpleName())
+                .chainObjectId(ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, taskIndex))
+                .status(Status.RECEIVED)
+                .args(new TaskInitializeArgs(ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, taskIndex),
+                        CHAIN_DEAL_ID, taskIndex))
+                .build();
+    }
+}
@@ -16,18 +16,28 @@
 
 package com.iexec.blockchain.command.task.initialize;
 
+import com.iexec.blockchain.command.generic.CommandArchive;
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.command.generic.MongoCommandStore;
 import com.iexec.blockchain.tool.Status;
 import com.iexec.commons.poco.chain.ChainUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 
@@ -39,14 +49,22 @@ class TaskInitializeStorageTest {
     public static final String CHAIN_TASK_ID =
             ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, TASK_INDEX);
 
-    @InjectMocks
     private TaskInitializeStorageService updaterService;
     @Mock
     private TaskInitializeRepository repository;
+    @Mock
+    private CommandArchive commandArchive;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        updaterService = new TaskInitializeStorageService(
+                new MongoCommandStore<>(TaskInitialize.class, repository, commandArchive, mongoTemplate),
+                eventPublisher);
     }
 
     @Test
@@ -80,6 +98,99 @@ class TaskInitializeStorageTest {
 
         Assertions.assertFalse(isSet);
         verify(repository, times(0)).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldNotSetReceivedSinceArchived() {
+        TaskInitializeArgs args = getArgs();
+        when(repository.findByChainObjectId(CHAIN_TASK_ID))
+                .thenReturn(Optional.empty());
+        when(commandArchive.findByChainObjectId(TaskInitialize.class, CHAIN_TASK_ID))
+                .thenReturn(Optional.of(mock(TaskInitialize.class)));
+
+        boolean isSet = updaterService.updateToReceived(args);
+
+        Assertions.assertFalse(isSet);
+        verify(repository, times(0)).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldNotSetAllReceivedSinceArchived() {
+        TaskInitializeArgs args = getArgs();
+        when(commandArchive.findStatusesByChainObjectIds(TaskInitialize.class, List.of(CHAIN_TASK_ID)))
+                .thenReturn(Map.of(CHAIN_TASK_ID, Status.SUCCESS));
+
+        Set<String> received = updaterService.updateAllToReceived(List.of(args));
+
+        Assertions.assertTrue(received.isEmpty());
+        verify(repository, times(0)).insert(anyList());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void shouldSetAllReceivedWithSingleInsert() {
+        TaskInitializeArgs args = getArgs();
+        TaskInitializeArgs otherArgs = new TaskInitializeArgs(
+                ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, 1), CHAIN_DEAL_ID, 1);
+        TaskInitialize stored = new TaskInitialize();
+        stored.setChainObjectId(otherArgs.getChainTaskId());
+        stored.setStatus(Status.RECEIVED);
+        when(repository.findStatusesByChainObjectIdIn(any())).thenReturn(List.of(stored));
+        when(repository.insert(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Set<String> received = updaterService.updateAllToReceived(List.of(args, otherArgs, args));
+
+        Assertions.assertEquals(Set.of(CHAIN_TASK_ID), received);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskInitialize>> insertCaptor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).insert(insertCaptor.capture());
+        Assertions.assertEquals(1, insertCaptor.getValue().size());
+        TaskInitialize inserted = insertCaptor.getValue().get(0);
+        Assertions.assertEquals(Status.RECEIVED, inserted.getStatus());
+        Assertions.assertEquals(args, inserted.getArgs());
+        verify(repository, times(0)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(CommandTransition.class));
+    }
+
+    @Test
+    void shouldKeepInsertedCommandsWhenBatchInsertPartiallyFails() {
+        TaskInitializeArgs args = getArgs();
+        TaskInitializeArgs otherArgs = new TaskInitializeArgs(
+                ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, 1), CHAIN_DEAL_ID, 1);
+        TaskInitialize concurrent = new TaskInitialize();
+        concurrent.setId("concurrent");
+        concurrent.setChainObjectId(otherArgs.getChainTaskId());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TaskInitialize>> insertCaptor = ArgumentCaptor.forClass(List.class);
+        when(repository.findByChainObjectIdIn(any()))
+                .thenAnswer(invocation -> List.of(insertCaptor.getValue().get(0), concurrent));
+        when(repository.insert(insertCaptor.capture())).thenThrow(new DuplicateKeyException("duplicate"));
+
+        Set<String> received = updaterService.updateAllToReceived(List.of(args, otherArgs));
+
+        Assertions.assertEquals(Set.of(CHAIN_TASK_ID), received);
+        verify(repository, times(0)).save(any());
+        verify(eventPublisher, times(1)).publishEvent(any(CommandTransition.class));
+    }
+
+    @Test
+    void shouldGetStatusesFromHotAndArchiveTiers() {
+        String archivedTaskId = ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, 1);
+        String unknownTaskId = ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, 2);
+        TaskInitialize stored = new TaskInitialize();
+        stored.setChainObjectId(CHAIN_TASK_ID);
+        stored.setStatus(Status.PROCESSING);
+        when(repository.findStatusesByChainObjectIdIn(any())).thenReturn(List.of(stored));
+        when(commandArchive.findStatusesByChainObjectIds(TaskInitialize.class, List.of(archivedTaskId, unknownTaskId)))
+                .thenReturn(Map.of(archivedTaskId, Status.SUCCESS));
+
+        Map<String, Status> statuses = updaterService.getStatusesForCommands(
+                List.of(CHAIN_TASK_ID, archivedTaskId, unknownTaskId));
+
+        Assertions.assertEquals(Map.of(CHAIN_TASK_ID, Status.PROCESSING, archivedTaskId, Status.SUCCESS), statuses);
+        verify(repository, times(0)).findByChainObjectId(any());
     }
 
     @Test
@@ -133,6 +244,13 @@ class TaskInitializeStorageTest {
         Assertions.assertEquals(Status.SUCCESS, initializeCaptorValue.getStatus());
         Assertions.assertEquals(receipt, initializeCaptorValue.getTransactionReceipt());
         Assertions.assertNotNull(initializeCaptorValue.getFinalDate());
+        ArgumentCaptor<CommandTransition> transitionCaptor =
+                ArgumentCaptor.forClass(CommandTransition.class);
+        verify(eventPublisher).publishEvent(transitionCaptor.capture());
+        CommandTransition transition = transitionCaptor.getValue();
+        Assertions.assertEquals("TaskInitialize", transition.getCommandType());
+        Assertions.assertEquals(Status.SUCCESS, transition.getStatus());
+        Assertions.assertEquals(initializeCaptorValue.getFinalDate(), transition.getDate());
     }
 
     @Test
@@ -169,6 +287,40 @@ class TaskInitializeStorageTest {
         verify(repository, times(0)).save(any());
     }
 
+    @Test
+    void shouldGetStatusFromHotTier() {
+        TaskInitialize taskInitialize = new TaskInitialize();
+        taskInitialize.setStatus(Status.PROCESSING);
+        when(repository.findByChainObjectId(CHAIN_TASK_ID))
+                .thenReturn(Optional.of(taskInitialize));
+
+        Assertions.assertEquals(Optional.of(Status.PROCESSING),
+                updaterService.getStatusForCommand(CHAIN_TASK_ID));
+        verifyNoInteractions(commandArchive);
+    }
+
+    @Test
+    void shouldGetStatusFromArchiveTierOnHotTierMiss() {
+        TaskInitialize taskInitialize = new TaskInitialize();
+        taskInitialize.setStatus(Status.SUCCESS);
+        when(repository.findByChainObjectId(CHAIN_TASK_ID))
+                .thenReturn(Optional.empty());
+        when(commandArchive.findByChainObjectId(TaskInitialize.class, CHAIN_TASK_ID))
+                .thenReturn(Optional.of(taskInitialize));
+
+        Assertions.assertEquals(Optional.of(Status.SUCCESS),
+                updaterService.getStatusForCommand(CHAIN_TASK_ID));
+    }
+
+    @Test
+    void shouldArchiveFinalCommands() {
+        Instant finalBefore = Instant.now();
+        when(commandArchive.archiveFinalCommands(TaskInitialize.class, finalBefore, 10))
+                .thenReturn(3);
+
+        Assertions.assertEquals(3, updaterService.archiveFinalCommands(finalBefore, 10));
+    }
+
     private TaskInitializeArgs getArgs() {
         return new TaskInitializeArgs(CHAIN_TASK_ID, CHAIN_DEAL_ID, TASK_INDEX);
     }
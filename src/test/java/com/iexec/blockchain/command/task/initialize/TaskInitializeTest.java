@@ -16,6 +16,9 @@
 
 package com.iexec.blockchain.command.task.initialize;
 
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.batch.TaskInitializeBatchItem;
+import com.iexec.blockchain.tool.ChainReadContext;
 import com.iexec.blockchain.tool.QueueService;
 import com.iexec.blockchain.tool.Status;
 import com.iexec.commons.poco.chain.ChainUtils;
@@ -27,7 +30,10 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.mockito.Mockito.*;
 
@@ -47,10 +53,14 @@ class TaskInitializeTest {
     private TaskInitializeStorageService updaterService;
     @Mock
     private QueueService queueService;
+    @Mock
+    private ChainReadContext chainReadContext;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(chainReadContext.pinToHead(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
     }
 
     @Test
@@ -89,6 +99,58 @@ class TaskInitializeTest {
         verify(queueService, times(0)).addExecutionToQueue(any(), anyBoolean());
     }
 
+    @Test
+    void shouldInitializeTasksInBatch() {
+        TaskInitializeArgs args = getArgs();
+        TaskInitializeArgs rejectedArgs = new TaskInitializeArgs(
+                ChainUtils.generateChainTaskId(CHAIN_DEAL_ID, 1), CHAIN_DEAL_ID, 1);
+        when(blockchainCheckerService.canSendBlockchainCommand(args)).thenReturn(true);
+        when(blockchainCheckerService.canSendBlockchainCommand(rejectedArgs)).thenReturn(false);
+        when(updaterService.updateAllToReceived(List.of(args))).thenReturn(Set.of(CHAIN_TASK_ID));
+
+        List<BatchItemResult> results = taskInitializeService.start(List.of(
+                new TaskInitializeBatchItem(CHAIN_DEAL_ID, TASK_INDEX),
+                new TaskInitializeBatchItem(CHAIN_DEAL_ID, 1),
+                new TaskInitializeBatchItem("0xbad", 2)));
+
+        Assertions.assertEquals(List.of(
+                BatchItemResult.accepted(CHAIN_TASK_ID),
+                BatchItemResult.rejected(rejectedArgs.getChainTaskId(), "failing on-chain checks"),
+                BatchItemResult.rejected("", "invalid arguments")), results);
+        verify(chainReadContext, times(1)).pinToHead(any());
+        verify(queueService, times(1)).addExecutionToQueue(any(), eq(false));
+    }
+
+    @Test
+    void shouldRejectDuplicatesInBatch() {
+        TaskInitializeArgs args = getArgs();
+        when(blockchainCheckerService.canSendBlockchainCommand(args)).thenReturn(true);
+        when(updaterService.updateAllToReceived(List.of(args))).thenReturn(Set.of(CHAIN_TASK_ID));
+
+        List<BatchItemResult> results = taskInitializeService.start(List.of(
+                new TaskInitializeBatchItem(CHAIN_DEAL_ID, TASK_INDEX),
+                new TaskInitializeBatchItem(CHAIN_DEAL_ID, TASK_INDEX)));
+
+        Assertions.assertEquals(List.of(
+                BatchItemResult.accepted(CHAIN_TASK_ID),
+                BatchItemResult.rejected(CHAIN_TASK_ID, "duplicate in batch")), results);
+        verify(blockchainCheckerService, times(1)).canSendBlockchainCommand(args);
+        verify(queueService, times(1)).addExecutionToQueue(any(), eq(false));
+    }
+
+    @Test
+    void shouldNotInitializeTasksInBatchSinceAlreadyReceived() {
+        TaskInitializeArgs args = getArgs();
+        when(blockchainCheckerService.canSendBlockchainCommand(args)).thenReturn(true);
+        when(updaterService.updateAllToReceived(List.of(args))).thenReturn(Set.of());
+
+        List<BatchItemResult> results = taskInitializeService.start(List.of(
+                new TaskInitializeBatchItem(CHAIN_DEAL_ID, TASK_INDEX)));
+
+        Assertions.assertEquals(List.of(BatchItemResult.rejected(CHAIN_TASK_ID, "already received")), results);
+        verify(queueService, times(0)).addExecutionToQueue(any(), anyBoolean());
+    }
+
     @Test
     void triggerInitializeTask() throws Exception {
         TransactionReceipt receipt = mock(TransactionReceipt.class);
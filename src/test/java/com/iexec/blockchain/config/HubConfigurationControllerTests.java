@@ -0,0 +1,71 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.config;
+
+import com.iexec.blockchain.tool.HubConstants;
+import com.iexec.blockchain.tool.IexecHubService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class HubConfigurationControllerTests {
+
+    @Mock
+    IexecHubService iexecHubService;
+
+    @InjectMocks
+    HubConfigurationController controller;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldReturnRefreshedHubConstants() {
+        HubConstants hubConstants = HubConstants.builder()
+                .maxNbOfPeriodsForConsensus(10)
+                .categories(Map.of())
+                .loadDate(Instant.now())
+                .build();
+        when(iexecHubService.refreshHubConstants()).thenReturn(Optional.of(hubConstants));
+
+        ResponseEntity<HubConstants> response = controller.refreshHubConstants();
+
+        assertThat(response.getBody()).isEqualTo(hubConstants);
+    }
+
+    @Test
+    void shouldReturnUnavailableWhenHubConstantsCannotBeLoaded() {
+        when(iexecHubService.getHubConstants()).thenReturn(Optional.empty());
+
+        assertThat(controller.getHubConstants().getStatusCode())
+                .isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+}
@@ -16,13 +16,15 @@
 
 package com.iexec.blockchain.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.iexec.blockchain.tool.ChainConfig;
 import com.iexec.common.config.PublicChainConfig;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.time.Duration;
@@ -35,16 +37,64 @@ class PublicConfigurationControllerTests {
     @Mock
     ChainConfig chainConfig;
 
-    @InjectMocks
+    final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+
+    PublicChainConfig expectedConfig;
     PublicConfigurationController controller;
 
     @BeforeEach
-    void init() {
+    void init() throws Exception {
         MockitoAnnotations.openMocks(this);
+        expectedConfig = mockChainConfig();
+        controller = new PublicConfigurationController(chainConfig, objectMapper);
+    }
+
+    @Test
+    void shouldReturnConfig() throws Exception {
+        ResponseEntity<byte[]> response = controller.getPublicChainConfig(null);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getETag()).isNotBlank();
+        assertThat(response.getHeaders().getCacheControl()).isEqualTo("max-age=5, public");
+        assertThat(response.getBody()).isNotNull();
+        assertThat(objectMapper.readValue(response.getBody(), PublicChainConfig.class))
+                .isEqualTo(expectedConfig);
     }
 
     @Test
-    void shouldReturnConfig() {
+    void shouldServeSameBytesOnEachCall() {
+        byte[] first = controller.getPublicChainConfig(null).getBody();
+        byte[] second = controller.getPublicChainConfig(null).getBody();
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenETagMatches() {
+        String eTag = controller.getPublicChainConfig(null).getHeaders().getETag();
+        ResponseEntity<byte[]> response = controller.getPublicChainConfig(eTag);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void shouldReturnNotModifiedWhenAnyETagMatches() {
+        String eTag = controller.getPublicChainConfig(null).getHeaders().getETag();
+        assertThat(controller.getPublicChainConfig("\"outdated\", " + eTag).getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(controller.getPublicChainConfig("*").getStatusCode())
+                .isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    void shouldReturnConfigWhenETagDiffers() {
+        ResponseEntity<byte[]> response = controller.getPublicChainConfig("\"outdated\"");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isNotNull();
+    }
+
+    private PublicChainConfig mockChainConfig() {
         int blockTime = 5;
         PublicChainConfig expectedConfig = PublicChainConfig
                 .builder()
@@ -59,10 +109,7 @@ class PublicConfigurationControllerTests {
         when(chainConfig.getNodeAddress()).thenReturn(expectedConfig.getChainNodeUrl());
         when(chainConfig.getHubAddress()).thenReturn(expectedConfig.getIexecHubContractAddress());
         when(chainConfig.getBlockTime()).thenReturn(blockTime);
-        ResponseEntity<PublicChainConfig> response = controller.getPublicChainConfig();
-        assertThat(response.getBody())
-                .isNotNull()
-                .isEqualTo(expectedConfig);
+        return expectedConfig;
     }
 
 }
@@ -0,0 +1,265 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.grpc;
+
+import com.iexec.blockchain.command.batch.BatchItemResult;
+import com.iexec.blockchain.command.generic.CommandSubmissionExecutor;
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.TaskCommandEngines;
+import com.iexec.blockchain.command.task.contribute.TaskContributeService;
+import com.iexec.blockchain.command.task.finalize.TaskFinalizeService;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeService;
+import com.iexec.blockchain.command.task.reveal.TaskRevealService;
+import com.iexec.blockchain.tool.Status;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TaskCommandGrpcServiceTests {
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "password";
+    private static final String CHAIN_DEAL_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000dea1";
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+
+    @Mock
+    private TaskInitializeService taskInitializeService;
+    @Mock
+    private TaskContributeService taskContributeService;
+    @Mock
+    private TaskRevealService taskRevealService;
+    @Mock
+    private TaskFinalizeService taskFinalizeService;
+
+    private CommandSubmissionExecutor commandSubmissionExecutor;
+    private TaskCommandGrpcService grpcService;
+    private Server server;
+    private ManagedChannel channel;
+    private final List<CommandUpdate> updates = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        commandSubmissionExecutor = spy(new CommandSubmissionExecutor(new SimpleMeterRegistry(), 1, 1));
+        grpcService = new TaskCommandGrpcService(taskInitializeService, taskContributeService,
+                taskRevealService, taskFinalizeService,
+                new TaskCommandEngines(taskInitializeService, taskContributeService,
+                        taskRevealService, taskFinalizeService),
+                commandSubmissionExecutor);
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(ServerInterceptors.intercept(grpcService, new BasicAuthInterceptor(USERNAME, PASSWORD)))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(serverName).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldSubmitThenStreamStatusUntilFinal() {
+        when(taskInitializeService.start(anyList())).thenReturn(List.of(BatchItemResult.accepted(CHAIN_TASK_ID)));
+        when(taskInitializeService.getStatusForCommand(CHAIN_TASK_ID)).thenReturn(Optional.of(Status.RECEIVED));
+
+        StreamObserver<CommandRequest> requests = authenticatedStub().submit(collectingObserver());
+        requests.onNext(CommandRequest.newBuilder()
+                .setRequestId(7)
+                .setInitialize(InitializeRequest.newBuilder()
+                        .setChainDealId(TaskCommandGrpcService.toBytes(CHAIN_DEAL_ID))
+                        .setTaskIndex(0))
+                .setFollow(true)
+                .build());
+        requests.onCompleted();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> updates.size() == 2);
+        assertThat(completed).isFalse();
+
+        grpcService.onCommandTransition(transition(Status.PROCESSING));
+        grpcService.onCommandTransition(transition(Status.SUCCESS));
+
+        await().atMost(5, TimeUnit.SECONDS).untilTrue(completed);
+        assertThat(updates).extracting(CommandUpdate::getRequestId).containsOnly(7L);
+        assertThat(updates.get(0).getAccepted()).isTrue();
+        assertThat(TaskCommandGrpcService.toHex(updates.get(0).getChainTaskId())).isEqualTo(CHAIN_TASK_ID);
+        assertThat(updates).extracting(CommandUpdate::getStatus).containsExactly(
+                CommandStatus.COMMAND_STATUS_UNSPECIFIED, CommandStatus.RECEIVED,
+                CommandStatus.PROCESSING, CommandStatus.SUCCESS);
+        assertThat(grpcService.getFollowerCount()).isZero();
+    }
+
+    @Test
+    void shouldReplyRejectedSubmission() {
+        when(taskInitializeService.start(anyList()))
+                .thenReturn(List.of(BatchItemResult.rejected(CHAIN_TASK_ID, "failing on-chain checks")));
+
+        StreamObserver<CommandRequest> requests = authenticatedStub().submit(collectingObserver());
+        requests.onNext(CommandRequest.newBuilder()
+                .setRequestId(1)
+                .setInitialize(InitializeRequest.newBuilder()
+                        .setChainDealId(TaskCommandGrpcService.toBytes(CHAIN_DEAL_ID)))
+                .setFollow(true)
+                .build());
+        requests.onCompleted();
+
+        await().atMost(5, TimeUnit.SECONDS).untilTrue(completed);
+        assertThat(updates).hasSize(1);
+        assertThat(updates.get(0).getAccepted()).isFalse();
+        assertThat(updates.get(0).getError()).isEqualTo("failing on-chain checks");
+        assertThat(grpcService.getFollowerCount()).isZero();
+    }
+
+    @Test
+    void shouldReplyRejectionWhenSubmissionPoolIsSaturated() {
+        doReturn(CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build()))
+                .when(commandSubmissionExecutor).submit(eq(TaskCommandType.INITIALIZE), any());
+
+        StreamObserver<CommandRequest> requests = authenticatedStub().submit(collectingObserver());
+        requests.onNext(CommandRequest.newBuilder()
+                .setRequestId(3)
+                .setInitialize(InitializeRequest.newBuilder()
+                        .setChainDealId(TaskCommandGrpcService.toBytes(CHAIN_DEAL_ID)))
+                .setFollow(true)
+                .build());
+        requests.onCompleted();
+
+        await().atMost(5, TimeUnit.SECONDS).untilTrue(completed);
+        assertThat(updates).hasSize(1);
+        assertThat(updates.get(0).getRequestId()).isEqualTo(3L);
+        assertThat(updates.get(0).getAccepted()).isFalse();
+        assertThat(updates.get(0).getError()).isEqualTo("submission pool is saturated");
+        assertThat(grpcService.getFollowerCount()).isZero();
+        verify(taskInitializeService, never()).start(anyList());
+    }
+
+    @Test
+    void shouldGetStatusesInQueryOrder() {
+        String unknownTaskId = "0x000000000000000000000000000000000000000000000000000000000000a002";
+        when(taskInitializeService.getStatusesForCommands(anyCollection()))
+                .thenReturn(Map.of(CHAIN_TASK_ID, Status.SUCCESS));
+
+        GetStatusesReply reply = TaskCommandServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(credentials()))
+                .getStatuses(GetStatusesRequest.newBuilder()
+                        .addQueries(query(unknownTaskId))
+                        .addQueries(query(CHAIN_TASK_ID))
+                        .build());
+
+        assertThat(reply.getStatusesList()).extracting(CommandUpdate::getStatus).containsExactly(
+                CommandStatus.COMMAND_STATUS_UNSPECIFIED, CommandStatus.SUCCESS);
+    }
+
+    @Test
+    void shouldRejectCallsWithoutCredentials() {
+        TaskCommandServiceGrpc.TaskCommandServiceBlockingStub stub = TaskCommandServiceGrpc.newBlockingStub(channel);
+        GetStatusesRequest request = GetStatusesRequest.getDefaultInstance();
+
+        assertThatThrownBy(() -> stub.getStatuses(request))
+                .isInstanceOf(StatusRuntimeException.class)
+                .extracting(e -> ((StatusRuntimeException) e).getStatus().getCode())
+                .isEqualTo(io.grpc.Status.Code.UNAUTHENTICATED);
+    }
+
+    private TaskCommandServiceGrpc.TaskCommandServiceStub authenticatedStub() {
+        return TaskCommandServiceGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(credentials()));
+    }
+
+    private static Metadata credentials() {
+        Metadata metadata = new Metadata();
+        metadata.put(BasicAuthInterceptor.AUTHORIZATION, BasicAuthInterceptor.getAuthorization(USERNAME, PASSWORD));
+        return metadata;
+    }
+
+    private static StatusQuery query(String chainTaskId) {
+        return StatusQuery.newBuilder()
+                .setCommandType(CommandType.INITIALIZE)
+                .setChainTaskId(TaskCommandGrpcService.toBytes(chainTaskId))
+                .build();
+    }
+
+    private static CommandTransition transition(Status status) {
+        return CommandTransition.builder()
+                .commandType("TaskInitialize")
+                .chainObjectId(CHAIN_TASK_ID)
+                .status(status)
+                .build();
+    }
+
+    private StreamObserver<CommandUpdate> collectingObserver() {
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(CommandUpdate update) {
+                updates.add(update);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                completed.set(true);
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.set(true);
+            }
+        };
+    }
+
+}
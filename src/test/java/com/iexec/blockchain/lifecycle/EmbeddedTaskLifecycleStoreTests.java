@@ -0,0 +1,140 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.lifecycle;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.command.generic.EmbeddedCommandStore;
+import com.iexec.blockchain.command.task.contribute.TaskContribute;
+import com.iexec.blockchain.command.task.initialize.TaskInitialize;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeArgs;
+import com.iexec.blockchain.tool.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedTaskLifecycleStoreTests {
+
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+    private static final String CHAIN_DEAL_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000dea1";
+
+    private final EmbeddedTaskLifecycleStore store = new EmbeddedTaskLifecycleStore(List.of());
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldProjectTransitionsOfSeveralCommands() {
+        Instant received = Instant.now();
+        Instant processing = received.plusSeconds(1);
+        Instant mined = received.plusSeconds(5);
+        store.apply(transition("TaskInitialize", Status.RECEIVED, received, null));
+        store.apply(transition("TaskInitialize", Status.PROCESSING, processing, null));
+        store.apply(transition("TaskInitialize", Status.SUCCESS, mined, "0xabc"));
+        store.apply(transition("TaskContribute", Status.RECEIVED, mined, null));
+
+        assertThat(store.findByChainTaskId(CHAIN_TASK_ID)).hasValueSatisfying(lifecycle -> {
+            assertThat(lifecycle.getChainDealId()).isEqualTo(CHAIN_DEAL_ID);
+            assertThat(lifecycle.getTaskIndex()).isZero();
+            assertThat(lifecycle.getInitialize()).isEqualTo(TaskLifecycleStage.builder()
+                    .status(Status.SUCCESS)
+                    .creationDate(received)
+                    .processingDate(processing)
+                    .finalDate(mined)
+                    .transactionHash("0xabc")
+                    .build());
+            assertThat(lifecycle.getContribute().getStatus()).isEqualTo(Status.RECEIVED);
+            assertThat(lifecycle.getReveal()).isNull();
+            assertThat(lifecycle.getFinalize()).isNull();
+            assertThat(lifecycle.getLastUpdate()).isEqualTo(mined);
+        });
+    }
+
+    @Test
+    void shouldRebuildLifecyclesFromCommandStores() throws IOException {
+        Instant received = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Instant mined = received.plusSeconds(5);
+        MongoConverter converter = EmbeddedCommandStore.createStandaloneConverter();
+        TaskInitialize initialize = new TaskInitialize();
+        initialize.setChainObjectId(CHAIN_TASK_ID);
+        initialize.setStatus(Status.SUCCESS);
+        initialize.setCreationDate(received);
+        initialize.setFinalDate(mined);
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setTransactionHash("0xabc");
+        initialize.setTransactionReceipt(receipt);
+        initialize.setArgs(new TaskInitializeArgs(CHAIN_TASK_ID, CHAIN_DEAL_ID, 0));
+        TaskContribute contribute = new TaskContribute();
+        contribute.setChainObjectId(CHAIN_TASK_ID);
+        contribute.setStatus(Status.RECEIVED);
+        contribute.setCreationDate(mined);
+
+        try (EmbeddedCommandStore<TaskInitialize> initializeStore =
+                     new EmbeddedCommandStore<>(TaskInitialize.class, converter, directory);
+             EmbeddedCommandStore<TaskContribute> contributeStore =
+                     new EmbeddedCommandStore<>(TaskContribute.class, converter, directory)) {
+            initializeStore.save(initialize);
+            initializeStore.archiveFinalCommands(Instant.MAX, 10);
+            contributeStore.save(contribute);
+
+            EmbeddedTaskLifecycleStore rebuiltStore =
+                    new EmbeddedTaskLifecycleStore(List.of(initializeStore, contributeStore));
+
+            assertThat(rebuiltStore.findByChainTaskId(CHAIN_TASK_ID)).hasValueSatisfying(lifecycle -> {
+                assertThat(lifecycle.getChainDealId()).isEqualTo(CHAIN_DEAL_ID);
+                assertThat(lifecycle.getInitialize()).isEqualTo(TaskLifecycleStage.builder()
+                        .status(Status.SUCCESS)
+                        .creationDate(received)
+                        .finalDate(mined)
+                        .transactionHash("0xabc")
+                        .build());
+                assertThat(lifecycle.getContribute().getStatus()).isEqualTo(Status.RECEIVED);
+                assertThat(lifecycle.getLastUpdate()).isEqualTo(mined);
+            });
+        }
+    }
+
+    @Test
+    void shouldIgnoreUnknownCommandType() {
+        store.apply(transition("Unknown", Status.RECEIVED, Instant.now(), null));
+
+        assertThat(store.findByChainTaskId(CHAIN_TASK_ID)).isEmpty();
+    }
+
+    private CommandTransition transition(String commandType, Status status,
+                                         Instant date, String transactionHash) {
+        return CommandTransition.builder()
+                .commandType(commandType)
+                .chainObjectId(CHAIN_TASK_ID)
+                .status(status)
+                .date(date)
+                .transactionHash(transactionHash)
+                .args(new TaskInitializeArgs(CHAIN_TASK_ID, CHAIN_DEAL_ID, 0))
+                .build();
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.metric;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoCommandMetricsListenerTests {
+
+    private static final ConnectionDescription CONNECTION = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress()));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoCommandMetricsListener listener = new MongoCommandMetricsListener(meterRegistry);
+
+    @Test
+    void shouldTagCommandWithCollectionAndCaller() {
+        BsonDocument command = new BsonDocument("find", new BsonString("taskInitialize"));
+
+        StorageCaller.run("updateToProcessing", () ->
+                listener.commandStarted(new CommandStartedEvent(1, CONNECTION, "db", "find", command)));
+        listener.commandSucceeded(new CommandSucceededEvent(1, CONNECTION, "find",
+                new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(3)));
+
+        Timer timer = meterRegistry.get(MongoCommandMetricsListener.METRIC_NAME)
+                .tag("collection", "taskInitialize")
+                .tag("command", "find")
+                .tag("caller", "updateToProcessing")
+                .tag("status", "success")
+                .timer();
+        assertThat(timer.count()).isOne();
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldTagFailedCommandWithoutCaller() {
+        BsonDocument command = new BsonDocument("insert", new BsonString("commandTransitionRecord"));
+
+        listener.commandStarted(new CommandStartedEvent(2, CONNECTION, "db", "insert", command));
+        listener.commandFailed(new CommandFailedEvent(2, CONNECTION, "insert", 0L,
+                new IllegalStateException("down")));
+
+        assertThat(meterRegistry.get(MongoCommandMetricsListener.METRIC_NAME)
+                .tag("collection", "commandTransitionRecord")
+                .tag("caller", StorageCaller.NONE)
+                .tag("status", "failure")
+                .timer().count()).isOne();
+    }
+
+    @Test
+    void shouldReadCollectionOfCursorIteration() {
+        BsonDocument command = new BsonDocument("getMore", new BsonInt64(42L))
+                .append("collection", new BsonString("taskReveal"));
+
+        assertThat(MongoCommandMetricsListener.getCollection("getMore", command))
+                .isEqualTo("taskReveal");
+        assertThat(MongoCommandMetricsListener.getCollection("ping",
+                new BsonDocument("ping", new BsonInt64(1L))))
+                .isEqualTo(StorageCaller.NONE);
+    }
+
+}
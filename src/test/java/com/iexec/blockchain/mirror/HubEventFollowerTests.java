@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.iexec.blockchain.mirror;
+
+import com.iexec.blockchain.tool.ChainConfig;
+import com.iexec.blockchain.tool.ChainHeadService;
+import com.iexec.blockchain.tool.NewChainHeadEvent;
+import com.iexec.blockchain.tool.Web3jService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+class HubEventFollowerTests {
+
+    private final TaskStateMirror taskStateMirror =
+            new TaskStateMirror(true, true, mock(ChainHeadService.class));
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Long> fromBlocks = new CopyOnWriteArrayList<>();
+    private HubEventFollower follower;
+
+    @BeforeEach
+    void init() {
+        ChainConfig chainConfig = ChainConfig.builder()
+                .hubAddress("0xC129e7917b7c7DeDfAa5Fff1FB18d5D7050fE8ca")
+                .build();
+        follower = new HubEventFollower(mock(Web3jService.class), taskStateMirror,
+                mock(ApplicationEventPublisher.class), chainConfig, 0, 1000) {
+            @Override
+            List<Log> getLogs(long fromBlock, long toBlock) {
+                fromBlocks.add(fromBlock);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return List.of();
+            }
+        };
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        follower.shutdown();
+    }
+
+    @Test
+    void shouldCoalesceHeadsReceivedDuringCatchUp() {
+        follower.onNewChainHead(new NewChainHeadEvent(10));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> fromBlocks.size() == 1);
+
+        // the catch-up is blocked, new heads must not wait for it
+        follower.onNewChainHead(new NewChainHeadEvent(11));
+        follower.onNewChainHead(new NewChainHeadEvent(12));
+        assertThat(taskStateMirror.getSyncedBlock()).isEqualTo(-1L);
+
+        release.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> taskStateMirror.getSyncedBlock() == 12L);
+        assertThat(fromBlocks).containsExactly(0L, 11L);
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.mirror;
+
+import com.iexec.blockchain.tool.ChainHeadService;
+import com.iexec.commons.poco.chain.ChainTaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.web3j.protocol.core.methods.response.Log;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+class TaskStateMirrorTests {
+
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+    private static final String CHAIN_DEAL_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000dea1";
+    private static final String WORKER = "0x1a69b2eb604db8eba185df03ea4f5288dcbbd248";
+    private static final String WORKER_TOPIC = "0x000000000000000000000000" + WORKER.substring(2);
+
+    @Mock
+    private ChainHeadService chainHeadService;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        when(chainHeadService.getHeadBlockNumber()).thenReturn(11L);
+    }
+
+    @Test
+    void shouldDecodeIndexedAndDataParameters() {
+        Log contributeLog = log(10, List.of(HubEventType.TASK_CONTRIBUTE.getTopic(), CHAIN_TASK_ID, WORKER_TOPIC),
+                "0x" + "ab".repeat(32));
+        Log noticeLog = log(10, List.of(HubEventType.SCHEDULER_NOTICE.getTopic(), WORKER_TOPIC),
+                CHAIN_DEAL_ID);
+
+        assertThat(HubEvent.fromLog(contributeLog)).contains(HubEvent.builder()
+                .type(HubEventType.TASK_CONTRIBUTE)
+                .blockNumber(10)
+                .chainTaskId(CHAIN_TASK_ID)
+                .account(WORKER)
+                .build());
+        assertThat(HubEvent.fromLog(noticeLog)).contains(HubEvent.builder()
+                .type(HubEventType.SCHEDULER_NOTICE)
+                .blockNumber(10)
+                .chainDealId(CHAIN_DEAL_ID)
+                .account(WORKER)
+                .build());
+        assertThat(HubEvent.fromLog(log(10, List.of("0x1234"), "0x"))).isEmpty();
+    }
+
+    @Test
+    void shouldDecodeAccountEvents() {
+        String recipientTopic = "0x000000000000000000000000" + "2".repeat(40);
+        Log transferLog = log(10, List.of(HubEventType.TRANSFER.getTopic(), WORKER_TOPIC, recipientTopic),
+                "0x" + "0".repeat(63) + "1");
+        Log lockLog = log(10, List.of(HubEventType.LOCK.getTopic()),
+                WORKER_TOPIC + "0".repeat(63) + "1");
+
+        assertThat(HubEvent.fromLog(transferLog)).hasValueSatisfying(event -> {
+            assertThat(event.getType().isAccountEvent()).isTrue();
+            assertThat(event.getAccount()).isEqualTo(WORKER);
+            assertThat(event.getRecipient()).isEqualTo("0x" + "2".repeat(40));
+        });
+        assertThat(HubEvent.fromLog(lockLog)).hasValueSatisfying(event ->
+                assertThat(event.getAccount()).isEqualTo(WORKER));
+    }
+
+    @Test
+    void shouldIgnoreAccountEventsInTaskIndex() {
+        TaskStateMirror mirror = new TaskStateMirror(true, false, chainHeadService);
+        mirror.apply(HubEvent.builder().type(HubEventType.REWARD).blockNumber(10).account(WORKER).build());
+        mirror.markSynced(10);
+
+        assertThat(mirror.getTaskStatus(CHAIN_TASK_ID)).contains(ChainTaskStatus.UNSET);
+    }
+
+    @Test
+    void shouldFollowTaskLifecycle() {
+        TaskStateMirror mirror = new TaskStateMirror(true, true, chainHeadService);
+        mirror.apply(event(HubEventType.TASK_INITIALIZE, null));
+        mirror.apply(event(HubEventType.TASK_CONTRIBUTE, WORKER));
+        mirror.apply(event(HubEventType.TASK_CONSENSUS, null));
+        mirror.markSynced(10);
+
+        assertThat(mirror.getTaskStatus(CHAIN_TASK_ID)).contains(ChainTaskStatus.REVEALING);
+        assertThat(mirror.hasContributed(CHAIN_TASK_ID, WORKER.toUpperCase())).contains(true);
+        assertThat(mirror.hasContributed(CHAIN_TASK_ID, "0x0000000000000000000000000000000000000001"))
+                .contains(false);
+
+        mirror.apply(event(HubEventType.TASK_FINALIZE, null));
+        assertThat(mirror.getTaskStatus(CHAIN_TASK_ID)).contains(ChainTaskStatus.COMPLETED);
+    }
+
+    @Test
+    void shouldFallbackForUnknownTask() {
+        TaskStateMirror mirror = new TaskStateMirror(true, true, chainHeadService);
+        mirror.markSynced(10);
+
+        assertThat(mirror.getTaskStatus(CHAIN_TASK_ID)).isEmpty();
+        assertThat(mirror.hasContributed(CHAIN_TASK_ID, WORKER)).isEmpty();
+    }
+
+    @Test
+    void shouldReportUnknownTaskAsUnsetWithoutFallback() {
+        TaskStateMirror mirror = new TaskStateMirror(true, false, chainHeadService);
+        mirror.markSynced(10);
+
+        assertThat(mirror.getTaskStatus(CHAIN_TASK_ID)).contains(ChainTaskStatus.UNSET);
+    }
+
+    @Test
+    void shouldNotAnswerWhenBehindHead() {
+        TaskStateMirror mirror = new TaskStateMirror(true, false, chainHeadService);
+        mirror.apply(event(HubEventType.TASK_INITIALIZE, null));
+        mirror.markSynced(9);
+
+        assertThat(mirror.isSynced()).isFalse();
+        assertThat(mirror.getTaskStatus(CHAIN_TASK_ID)).isEmpty();
+    }
+
+    private HubEvent event(HubEventType type, String account) {
+        return HubEvent.builder()
+                .type(type)
+                .blockNumber(10)
+                .chainTaskId(CHAIN_TASK_ID)
+                .account(account)
+                .build();
+    }
+
+    private Log log(long blockNumber, List<String> topics, String data) {
+        Log log = new Log();
+        log.setBlockNumber("0x" + BigInteger.valueOf(blockNumber).toString(16));
+        log.setTopics(topics);
+        log.setData(data);
+        return log;
+    }
+
+}
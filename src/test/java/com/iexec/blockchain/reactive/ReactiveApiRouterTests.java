@@ -0,0 +1,224 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.reactive;
+
+import com.iexec.blockchain.command.status.CommandStatusQuery;
+import com.iexec.blockchain.command.status.CommandStatusResult;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.TaskController;
+import com.iexec.blockchain.config.PublicConfigurationController;
+import com.iexec.blockchain.tool.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.Mockito.*;
+
+class ReactiveApiRouterTests {
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "whatever";
+    private static final String CHAIN_TASK_ID = "0x1";
+    private static final String OTHER_CHAIN_TASK_ID = "0x2";
+    private static final String CALLBACK_URL = "http://callback";
+
+    @Mock
+    private TaskController taskController;
+    @Mock
+    private PublicConfigurationController publicConfigurationController;
+    @Mock
+    private ReactiveCommandStatusReader commandStatusReader;
+
+    private ReactiveTaskHandler taskHandler;
+    private WebTestClient client;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        taskHandler = new ReactiveTaskHandler(taskController, commandStatusReader, 2);
+        ReactiveApiRouter router = new ReactiveApiRouter(taskHandler,
+                new ReactivePublicConfigurationHandler(publicConfigurationController), USERNAME, PASSWORD);
+        client = WebTestClient.bindToRouterFunction(router.routes()).build();
+    }
+
+    @AfterEach
+    void shutdown() {
+        taskHandler.shutdown();
+    }
+
+    @Test
+    void shouldRejectTaskRequestWithoutCredentials() {
+        client.get().uri("/tasks/initialize/{chainTaskId}/status", CHAIN_TASK_ID)
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().exists("WWW-Authenticate");
+        client.get().uri("/tasks/initialize/{chainTaskId}/status", CHAIN_TASK_ID)
+                .headers(headers -> headers.setBasicAuth(USERNAME, "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+        verifyNoInteractions(commandStatusReader);
+    }
+
+    @Test
+    void shouldServePublicChainConfigWithoutCredentials() throws Exception {
+        when(publicConfigurationController.getPublicChainConfig(null))
+                .thenReturn(ResponseEntity.ok()
+                        .eTag("\"config\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{}".getBytes(StandardCharsets.UTF_8)));
+        client.get().uri("/config/chain")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "\"config\"")
+                .expectBody().json("{}");
+    }
+
+    @Test
+    void shouldForwardIfNoneMatchOfPublicChainConfig() throws Exception {
+        when(publicConfigurationController.getPublicChainConfig("\"config\""))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"config\"").<byte[]>build());
+        client.get().uri("/config/chain")
+                .header("If-None-Match", "\"config\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void shouldGetStatus() {
+        when(commandStatusReader.getStatus(TaskCommandType.REVEAL, CHAIN_TASK_ID))
+                .thenReturn(Mono.just(Status.SUCCESS));
+        authenticated(client.get().uri("/tasks/reveal/{chainTaskId}/status", CHAIN_TASK_ID))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Status.class).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    void shouldNotFindUnknownStatus() {
+        when(commandStatusReader.getStatus(TaskCommandType.FINALIZE, CHAIN_TASK_ID))
+                .thenReturn(Mono.empty());
+        authenticated(client.get().uri("/tasks/finalize/{chainTaskId}/status", CHAIN_TASK_ID))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void shouldNotAwaitStatus() {
+        authenticated(client.get().uri("/tasks/initialize/{chainTaskId}/status?await=SUCCESS", CHAIN_TASK_ID))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.NOT_IMPLEMENTED);
+        verifyNoInteractions(commandStatusReader);
+    }
+
+    @Test
+    void shouldGetStatusesInQueryOrder() {
+        when(commandStatusReader.getStatuses(TaskCommandType.INITIALIZE, Set.of(CHAIN_TASK_ID, OTHER_CHAIN_TASK_ID)))
+                .thenReturn(Mono.just(Map.of(CHAIN_TASK_ID, Status.SUCCESS)));
+        when(commandStatusReader.getStatuses(TaskCommandType.CONTRIBUTE, Set.of(CHAIN_TASK_ID)))
+                .thenReturn(Mono.just(Map.of(CHAIN_TASK_ID, Status.PROCESSING)));
+        authenticated(client.post().uri("/tasks/status"))
+                .bodyValue(List.of(
+                        new CommandStatusQuery(TaskCommandType.CONTRIBUTE, CHAIN_TASK_ID),
+                        new CommandStatusQuery(TaskCommandType.INITIALIZE, OTHER_CHAIN_TASK_ID),
+                        new CommandStatusQuery(TaskCommandType.INITIALIZE, CHAIN_TASK_ID)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CommandStatusResult.class).isEqualTo(List.of(
+                        new CommandStatusResult(TaskCommandType.CONTRIBUTE, CHAIN_TASK_ID, Status.PROCESSING),
+                        new CommandStatusResult(TaskCommandType.INITIALIZE, OTHER_CHAIN_TASK_ID, null),
+                        new CommandStatusResult(TaskCommandType.INITIALIZE, CHAIN_TASK_ID, Status.SUCCESS)));
+    }
+
+    @Test
+    void shouldRejectStatusesWithoutCommandType() {
+        authenticated(client.post().uri("/tasks/status"))
+                .bodyValue(List.of(new CommandStatusQuery(null, CHAIN_TASK_ID)))
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(commandStatusReader);
+    }
+
+    @Test
+    void shouldDelegateInitialize() {
+        when(taskController.requestInitializeTask("0xdea1", 3, CALLBACK_URL))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(CHAIN_TASK_ID)));
+        authenticated(client.post().uri("/tasks/initialize?chainDealId=0xdea1&taskIndex=3&callbackUrl=" + CALLBACK_URL))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldRejectInitializeWithoutTaskIndex() {
+        authenticated(client.post().uri("/tasks/initialize?chainDealId=0xdea1"))
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(taskController);
+    }
+
+    @Test
+    void shouldDelegateContribute() {
+        when(taskController.contributeTask(eq(CHAIN_TASK_ID), any(), isNull()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok(CHAIN_TASK_ID)));
+        authenticated(client.post().uri("/tasks/contribute/{chainTaskId}", CHAIN_TASK_ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo(CHAIN_TASK_ID);
+    }
+
+    @Test
+    void shouldForwardRejectedSubmission() {
+        when(taskController.requestFinalizeTask(eq(CHAIN_TASK_ID), any(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).<String>build()));
+        authenticated(client.post().uri("/tasks/finalize/{chainTaskId}?callbackUrl=" + CALLBACK_URL, CHAIN_TASK_ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void shouldRejectSubmissionWithoutBody() {
+        authenticated(client.post().uri("/tasks/reveal/{chainTaskId}", CHAIN_TASK_ID))
+                .contentType(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(taskController);
+    }
+
+    private <S extends WebTestClient.RequestHeadersSpec<?>> S authenticated(S request) {
+        request.headers(headers -> headers.setBasicAuth(USERNAME, PASSWORD));
+        return request;
+    }
+
+}
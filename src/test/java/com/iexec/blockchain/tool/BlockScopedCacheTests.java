@@ -0,0 +1,129 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class BlockScopedCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BlockScopedCache<String, String> cache = new BlockScopedCache<>("test", meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void shouldLoadOncePerBlock() {
+        assertThat(cache.get("key", this::load)).isEqualTo("value-1");
+        assertThat(cache.get("key", this::load)).isEqualTo("value-1");
+
+        cache.clear();
+
+        assertThat(cache.get("key", this::load)).isEqualTo("value-2");
+        assertThat(count("hit")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReloadExpiredKeyOfBoundedCache() {
+        BlockScopedCache<String, String> boundedCache = new BlockScopedCache<>("bounded", meterRegistry,
+                10, Duration.ofMillis(100));
+        assertThat(boundedCache.get("key", this::load)).isEqualTo("value-1");
+        assertThat(boundedCache.get("key", this::load)).isEqualTo("value-1");
+
+        await().atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(boundedCache.get("key", this::load)).isNotEqualTo("value-1"));
+    }
+
+    @Test
+    void shouldReloadEvictedKey() {
+        cache.get("key", this::load);
+        cache.evict("key");
+
+        assertThat(cache.get("key", this::load)).isEqualTo("value-2");
+    }
+
+    @Test
+    void shouldEvictMatchingValuesOnly() {
+        cache.get("key", this::load);
+        cache.get("other", key -> "kept");
+
+        cache.evictIf(value -> value.startsWith("value"));
+
+        assertThat(cache.get("key", this::load)).isEqualTo("value-2");
+        assertThat(cache.get("other", this::load)).isEqualTo("kept");
+    }
+
+    @Test
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("key", key -> {
+            loading.countDown();
+            await(release);
+            return load(key);
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("key", this::load));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value-1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value-1");
+        assertThat(loads).hasValue(1);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheFailedLoad() {
+        assertThatThrownBy(() -> cache.get("key", key -> {
+            throw new IllegalStateException("rpc down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("key", this::load)).isEqualTo("value-1");
+    }
+
+    private String load(String key) {
+        return "value-" + loads.incrementAndGet();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get(BlockScopedCache.REQUESTS_METRIC)
+                .tag("cache", "test")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
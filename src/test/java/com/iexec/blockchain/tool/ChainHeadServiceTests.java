@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ChainHeadServiceTests {
+
+    @Mock
+    private Web3jService web3jService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private ChainHeadService chainHeadService;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldPublishOnlyWhenHeadMovesForward() {
+        when(web3jService.getLatestBlockNumber()).thenReturn(10L, 10L, 9L, 11L);
+
+        for (int i = 0; i < 4; i++) {
+            chainHeadService.pollHead();
+        }
+
+        verify(eventPublisher).publishEvent(new NewChainHeadEvent(10L));
+        verify(eventPublisher).publishEvent(new NewChainHeadEvent(11L));
+        verify(eventPublisher, times(2)).publishEvent(any(Object.class));
+        assertThat(chainHeadService.getHeadBlockNumber()).isEqualTo(11L);
+    }
+
+    @Test
+    void shouldAdvanceHeadFromMinedBlockAndIgnoreLaggingPoll() {
+        when(web3jService.getLatestBlockNumber()).thenReturn(10L, 12L);
+        chainHeadService.pollHead();
+
+        chainHeadService.advanceHead(11L);
+        assertThat(chainHeadService.getHeadBlockNumber()).isEqualTo(11L);
+        chainHeadService.advanceHead(10L);
+        assertThat(chainHeadService.getHeadBlockNumber()).isEqualTo(11L);
+        chainHeadService.pollHead();
+
+        verify(eventPublisher).publishEvent(new NewChainHeadEvent(10L));
+        verify(eventPublisher).publishEvent(new NewChainHeadEvent(11L));
+        verify(eventPublisher).publishEvent(new NewChainHeadEvent(12L));
+        verify(eventPublisher, times(3)).publishEvent(any(Object.class));
+        assertThat(chainHeadService.getHeadBlockNumber()).isEqualTo(12L);
+    }
+
+}
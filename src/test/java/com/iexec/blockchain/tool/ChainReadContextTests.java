@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class ChainReadContextTests {
+
+    @Mock
+    private ChainHeadService chainHeadService;
+    @InjectMocks
+    private ChainReadContext chainReadContext;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldPinReadsToHead() {
+        when(chainHeadService.getHeadBlockNumber()).thenReturn(255L, 256L);
+
+        String blockParameter = chainReadContext.pinToHead(() ->
+                chainReadContext.pinToHead(PinnedBlockParameter.INSTANCE::getValue));
+
+        assertThat(blockParameter).isEqualTo("0xff");
+        assertThat(ChainReadContext.getPinnedBlock()).isEmpty();
+        assertThat(PinnedBlockParameter.INSTANCE.getValue()).isEqualTo("latest");
+    }
+
+    @Test
+    void shouldNotPinReadsBeforeHeadIsKnown() {
+        when(chainHeadService.getHeadBlockNumber()).thenReturn(0L);
+
+        assertThat(chainReadContext.pinToHead(PinnedBlockParameter.INSTANCE::getValue))
+                .isEqualTo("latest");
+    }
+
+    @Test
+    void shouldAdvanceHeadToBlockOfMinedTransaction() {
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setBlockNumber("0x100");
+
+        chainReadContext.onTransactionMined(receipt);
+
+        verify(chainHeadService).advanceHead(256L);
+    }
+
+    @Test
+    void shouldNotAdvanceHeadWithoutBlockOfTransaction() {
+        chainReadContext.onTransactionMined(new TransactionReceipt());
+        chainReadContext.onTransactionMined(null);
+
+        verify(chainHeadService, never()).advanceHead(anyLong());
+    }
+
+}
@@ -16,7 +16,9 @@
 
 package com.iexec.blockchain.tool;
 
+import com.iexec.blockchain.mirror.TaskStateMirror;
 import com.iexec.commons.poco.contract.generated.IexecHubContract;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,14 +31,19 @@ import org.web3j.crypto.Keys;
 import org.web3j.protocol.core.RemoteFunctionCall;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 
+import java.io.IOException;
+import java.math.BigInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 class IexecHubServiceTests {
     private final ChainConfig chainConfig = ChainConfig
             .builder()
             .hubAddress("0xC129e7917b7c7DeDfAa5Fff1FB18d5D7050fE8ca")
+            .blockTime(5)
             .build();
     @Mock
     private CredentialsService credentialsService;
@@ -45,6 +52,10 @@ class IexecHubServiceTests {
     @Mock
     private Web3jService web3jService;
     @Mock
+    private TaskStateMirror taskStateMirror;
+    @Mock
+    private ChainHeadService chainHeadService;
+    @Mock
     private RemoteFunctionCall<TransactionReceipt> remoteFunctionCall;
     private IexecHubService iexecHubService;
 
@@ -53,7 +64,8 @@ class IexecHubServiceTests {
         MockitoAnnotations.openMocks(this);
         Credentials credentials = createEthereumCredentials();
         when(credentialsService.getCredentials()).thenReturn(credentials);
-        iexecHubService = new IexecHubService(credentialsService, web3jService, chainConfig);
+        iexecHubService = new IexecHubService(credentialsService, web3jService, chainConfig,
+                new SimpleMeterRegistry(), taskStateMirror, chainHeadService, 10, 10, 10);
         ReflectionTestUtils.setField(iexecHubService, "iexecHubContract", iexecHubContract);
     }
 
@@ -95,4 +107,17 @@ class IexecHubServiceTests {
         assertThatThrownBy(() -> iexecHubService.finalizeTask("chainTaskId", "resultLink", "callbackData"))
                 .isInstanceOf(Exception.class);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotReloadHubConstantsRightAfterFailure() throws Exception {
+        RemoteFunctionCall<BigInteger> countCategoryCall = mock(RemoteFunctionCall.class);
+        when(iexecHubContract.countCategory()).thenReturn(countCategoryCall);
+        when(countCategoryCall.send()).thenThrow(new IOException("RPC unavailable"));
+
+        assertThat(iexecHubService.getHubConstants()).isEmpty();
+        assertThat(iexecHubService.getHubConstants()).isEmpty();
+
+        verify(iexecHubContract, times(1)).countCategory();
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.tool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SingleFlightTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", meterRegistry);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void shouldShareInFlightCall() throws Exception {
+        CountDownLatch calling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> singleFlight.execute("key", key -> {
+            calling.countDown();
+            awaitLatch(release);
+            return calls.incrementAndGet();
+        }));
+        assertThat(calling.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute("key", key -> calls.incrementAndGet()));
+        await().atMost(5, TimeUnit.SECONDS).until(() -> coalescedCalls() == 1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isOne();
+        assertThat(second.get(5, TimeUnit.SECONDS)).isOne();
+        assertThat(coalescedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotKeepCompletedCall() {
+        assertThat(singleFlight.execute("key", key -> calls.incrementAndGet())).isOne();
+        assertThat(singleFlight.execute("key", key -> calls.incrementAndGet())).isEqualTo(2);
+        assertThat(coalescedCalls()).isZero();
+    }
+
+    private double coalescedCalls() {
+        return meterRegistry.get(SingleFlight.COALESCED_METRIC).tag("read", "test").counter().count();
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.tool.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CommandTransitionLogServiceTests {
+
+    private static final String COMMAND_TYPE = "TaskInitialize";
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+
+    @Mock
+    private CommandTransitionLog commandTransitionLog;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private CommandTransitionLogService commandTransitionLogService;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void shouldNotFailCommandWhenAppendFails() {
+        when(commandTransitionLog.append(any())).thenThrow(new IllegalStateException("down"));
+
+        assertThatNoException().isThrownBy(() -> commandTransitionLogService.onCommandTransition(
+                CommandTransition.builder().chainObjectId(CHAIN_TASK_ID).build()));
+    }
+
+    @Test
+    void shouldPublishAppendedTransition() {
+        CommandTransition transition = CommandTransition.builder()
+                .commandType(COMMAND_TYPE)
+                .chainObjectId(CHAIN_TASK_ID)
+                .status(Status.RECEIVED)
+                .build();
+        CommandTransitionRecord appended = record(7, Status.RECEIVED, Instant.EPOCH);
+        when(commandTransitionLog.append(transition)).thenReturn(appended);
+
+        commandTransitionLogService.onCommandTransition(transition);
+
+        verify(eventPublisher).publishEvent(new CommandTransitionAppended(appended, transition));
+    }
+
+    @Test
+    void shouldPublishAppendedTransitionsInSequenceOrder() throws InterruptedException {
+        AtomicLong lastSequence = new AtomicLong();
+        when(commandTransitionLog.append(any())).thenAnswer(invocation -> {
+            CommandTransitionRecord appended =
+                    record(lastSequence.incrementAndGet(), Status.RECEIVED, Instant.EPOCH);
+            Thread.sleep(1);
+            return appended;
+        });
+        List<Long> publishedSequences = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> publishedSequences.add(
+                invocation.<CommandTransitionAppended>getArgument(0).getRecord().getSequence()))
+                .when(eventPublisher).publishEvent(any(Object.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> commandTransitionLogService.onCommandTransition(
+                    CommandTransition.builder().chainObjectId(CHAIN_TASK_ID).build()));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(publishedSequences).hasSize(100).isSorted();
+    }
+
+    @Test
+    void shouldLimitTransitionsOfRange() {
+        when(commandTransitionLog.streamRange(1, 10)).thenReturn(Stream.of(
+                record(1, Status.RECEIVED, Instant.EPOCH),
+                record(2, Status.PROCESSING, Instant.EPOCH),
+                record(3, Status.SUCCESS, Instant.EPOCH)));
+
+        assertThat(commandTransitionLogService.getTransitions(1, 10, 2))
+                .extracting(CommandTransitionRecord::getSequence)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldDeriveTimeInStates() {
+        Instant received = Instant.now();
+        when(commandTransitionLog.streamCommand(COMMAND_TYPE, CHAIN_TASK_ID))
+                .thenAnswer(invocation -> Stream.of(
+                        record(1, Status.RECEIVED, received),
+                        record(4, Status.PROCESSING, received.plusSeconds(2)),
+                        record(9, Status.SUCCESS, received.plusSeconds(12))));
+
+        assertThat(commandTransitionLogService.getTimeInStates(COMMAND_TYPE, CHAIN_TASK_ID))
+                .isEqualTo(Map.of(
+                        Status.RECEIVED, Duration.ofSeconds(2),
+                        Status.PROCESSING, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    void shouldNotDeriveTimeInStatesOfUnknownCommand() {
+        when(commandTransitionLog.streamCommand(COMMAND_TYPE, CHAIN_TASK_ID))
+                .thenReturn(Stream.empty());
+
+        assertThat(commandTransitionLogService.getTimeInStates(COMMAND_TYPE, CHAIN_TASK_ID))
+                .isEmpty();
+    }
+
+    private CommandTransitionRecord record(long sequence, Status status, Instant date) {
+        return CommandTransitionRecord.builder()
+                .sequence(sequence)
+                .commandType(COMMAND_TYPE)
+                .chainObjectId(CHAIN_TASK_ID)
+                .status(status)
+                .date(date)
+                .build();
+    }
+
+}
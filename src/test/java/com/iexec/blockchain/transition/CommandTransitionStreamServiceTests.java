@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.command.status.TaskCommandType;
+import com.iexec.blockchain.command.task.initialize.TaskInitializeArgs;
+import com.iexec.blockchain.lifecycle.TaskLifecycleService;
+import com.iexec.blockchain.tool.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class CommandTransitionStreamServiceTests {
+
+    private static final String CHAIN_DEAL_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000dea1";
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+
+    @Mock
+    private CommandTransitionLogService commandTransitionLogService;
+    @Mock
+    private TaskLifecycleService taskLifecycleService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CommandTransitionStreamService streamService;
+
+    @BeforeEach
+    void init() {
+        MockitoAnnotations.openMocks(this);
+        streamService = new CommandTransitionStreamService(commandTransitionLogService,
+                taskLifecycleService, meterRegistry, 1, Duration.ofMinutes(1), 2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void shouldReplayTransitionsAfterLastEventId() {
+        streamService.subscribe(CommandTransitionFilter.builder().build(), 41L);
+
+        verify(commandTransitionLogService, timeout(5000))
+                .getTransitions(42L, Long.MAX_VALUE, CommandTransitionStreamService.REPLAY_PAGE_SIZE);
+        assertThat(streamService.getSubscriberCount()).isOne();
+    }
+
+    @Test
+    void shouldDisconnectSlowSubscriber() throws InterruptedException {
+        CountDownLatch replaying = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(commandTransitionLogService.getTransitions(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            replaying.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        streamService.subscribe(CommandTransitionFilter.builder().build(), 0L);
+        assertThat(replaying.await(5, TimeUnit.SECONDS)).isTrue();
+
+        streamService.onCommandTransitionAppended(appended(1, "TaskInitialize"));
+        streamService.onCommandTransitionAppended(appended(2, "TaskInitialize"));
+        release.countDown();
+
+        assertThat(streamService.getSubscriberCount()).isZero();
+        assertThat(meterRegistry.counter("command.events.dropped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotBufferFilteredOutTransitions() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        when(commandTransitionLogService.getTransitions(anyLong(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        streamService.subscribe(CommandTransitionFilter.builder()
+                .commandType(TaskCommandType.FINALIZE)
+                .build(), 0L);
+
+        streamService.onCommandTransitionAppended(appended(1, "TaskInitialize"));
+        streamService.onCommandTransitionAppended(appended(2, "TaskContribute"));
+        release.countDown();
+
+        assertThat(streamService.getSubscriberCount()).isOne();
+    }
+
+    @Test
+    void shouldMatchFilterCriteria() {
+        CommandTransitionRecord record = appended(1, "TaskInitialize").getRecord();
+
+        assertThat(CommandTransitionFilter.builder().build().matchesCommand(record)).isTrue();
+        assertThat(CommandTransitionFilter.builder().commandType(TaskCommandType.INITIALIZE).build()
+                .matchesCommand(record)).isTrue();
+        assertThat(CommandTransitionFilter.builder().commandType(TaskCommandType.REVEAL).build()
+                .matchesCommand(record)).isFalse();
+        assertThat(CommandTransitionFilter.builder().chainTaskId("0x01").build()
+                .matchesCommand(record)).isFalse();
+        assertThat(CommandTransitionFilter.builder().chainDealId(CHAIN_DEAL_ID).build()
+                .matchesDeal(() -> CHAIN_DEAL_ID)).isTrue();
+        assertThat(CommandTransitionFilter.builder().chainDealId(CHAIN_DEAL_ID).build()
+                .matchesDeal(() -> null)).isFalse();
+    }
+
+    @Test
+    void shouldCompleteSubscribersOnShutdown() {
+        streamService.subscribe(CommandTransitionFilter.builder().build(), null);
+
+        streamService.shutdown();
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> streamService.getSubscriberCount() == 0);
+    }
+
+    private static CommandTransitionAppended appended(long sequence, String commandType) {
+        CommandTransition transition = CommandTransition.builder()
+                .commandType(commandType)
+                .chainObjectId(CHAIN_TASK_ID)
+                .status(Status.RECEIVED)
+                .date(Instant.now())
+                .args(new TaskInitializeArgs(CHAIN_TASK_ID, CHAIN_DEAL_ID, 0))
+                .build();
+        return new CommandTransitionAppended(CommandTransitionRecord.of(sequence, transition), transition);
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.transition;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.command.generic.EmbeddedCommandStore;
+import com.iexec.blockchain.tool.Status;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddedCommandTransitionLogTests {
+
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+    private static final String OTHER_CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a002";
+
+    private final MongoConverter converter = EmbeddedCommandStore.createStandaloneConverter();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldAppendWithIncreasingSequenceNumbers() throws IOException {
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, false, Duration.ZERO)) {
+            assertThat(transitionLog.getLastSequence()).isZero();
+            assertThat(transitionLog.append(transition(CHAIN_TASK_ID, Status.RECEIVED)).getSequence())
+                    .isEqualTo(1L);
+            assertThat(transitionLog.append(transition(CHAIN_TASK_ID, Status.PROCESSING)).getSequence())
+                    .isEqualTo(2L);
+            assertThat(transitionLog.getLastSequence()).isEqualTo(2L);
+        }
+    }
+
+    @Test
+    void shouldStreamSequenceRange() throws IOException {
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, false, Duration.ZERO)) {
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.RECEIVED));
+            transitionLog.append(transition(OTHER_CHAIN_TASK_ID, Status.RECEIVED));
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.PROCESSING));
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.SUCCESS));
+
+            try (Stream<CommandTransitionRecord> records = transitionLog.streamRange(2, 4)) {
+                assertThat(records.map(CommandTransitionRecord::getSequence))
+                        .containsExactly(2L, 3L);
+            }
+            try (Stream<CommandTransitionRecord> records =
+                         transitionLog.streamCommand("TaskInitialize", CHAIN_TASK_ID)) {
+                assertThat(records.map(CommandTransitionRecord::getStatus))
+                        .containsExactly(Status.RECEIVED, Status.PROCESSING, Status.SUCCESS);
+            }
+        }
+    }
+
+    @Test
+    void shouldResumeSequenceAfterRestart() throws IOException {
+        CommandTransition transition = transition(CHAIN_TASK_ID, Status.SUCCESS);
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, false, Duration.ZERO)) {
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.RECEIVED));
+            transitionLog.append(transition);
+        }
+
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, false, Duration.ZERO)) {
+            assertThat(transitionLog.getLastSequence()).isEqualTo(2L);
+            assertThat(transitionLog.append(transition(OTHER_CHAIN_TASK_ID, Status.RECEIVED)).getSequence())
+                    .isEqualTo(3L);
+            List<CommandTransitionRecord> records;
+            try (Stream<CommandTransitionRecord> stream = transitionLog.streamRange(2, 3)) {
+                records = stream.collect(Collectors.toList());
+            }
+            assertThat(records).containsExactly(CommandTransitionRecord.of(2L, transition));
+        }
+    }
+
+    @Test
+    void shouldTruncateTornLastLineAfterRestart() throws IOException {
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, false, Duration.ZERO)) {
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.RECEIVED));
+        }
+        Path logFile = directory.resolve(EmbeddedCommandTransitionLog.LOG_FILE_NAME);
+        long completeSize = Files.size(logFile);
+        Files.writeString(logFile, "{\"sequence\": 2, \"chainOb", StandardOpenOption.APPEND);
+
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, false, Duration.ZERO)) {
+            assertThat(Files.size(logFile)).isEqualTo(completeSize);
+            assertThat(transitionLog.getLastSequence()).isEqualTo(1L);
+            assertThat(transitionLog.append(transition(CHAIN_TASK_ID, Status.PROCESSING)).getSequence())
+                    .isEqualTo(2L);
+            try (Stream<CommandTransitionRecord> records = transitionLog.streamRange(1, Long.MAX_VALUE)) {
+                assertThat(records.map(CommandTransitionRecord::getStatus))
+                        .containsExactly(Status.RECEIVED, Status.PROCESSING);
+            }
+        }
+    }
+
+    @Test
+    void shouldStreamRangeFromIndexedOffsetAfterRestart() throws IOException {
+        int count = 2 * EmbeddedCommandTransitionLog.INDEX_INTERVAL + 500;
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, false, Duration.ZERO)) {
+            for (int i = 0; i < count; i++) {
+                transitionLog.append(transition(CHAIN_TASK_ID, Status.RECEIVED));
+            }
+        }
+
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, false, Duration.ZERO);
+             Stream<CommandTransitionRecord> records = transitionLog.streamRange(2100, 2103)) {
+            assertThat(records.map(CommandTransitionRecord::getSequence))
+                    .containsExactly(2100L, 2101L, 2102L);
+        }
+    }
+
+    @Test
+    void shouldCompactEntriesOlderThanRetention() throws IOException {
+        Instant expired = Instant.now().minus(Duration.ofDays(31)).truncatedTo(ChronoUnit.MILLIS);
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, true, Duration.ofDays(30))) {
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.RECEIVED, expired));
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.SUCCESS, expired));
+            transitionLog.append(transition(OTHER_CHAIN_TASK_ID, Status.RECEIVED));
+
+            transitionLog.compact();
+
+            try (Stream<CommandTransitionRecord> records = transitionLog.streamRange(1, Long.MAX_VALUE)) {
+                assertThat(records.map(CommandTransitionRecord::getSequence)).containsExactly(3L);
+            }
+            assertThat(transitionLog.append(transition(OTHER_CHAIN_TASK_ID, Status.PROCESSING)).getSequence())
+                    .isEqualTo(4L);
+        }
+    }
+
+    @Test
+    void shouldKeepLastEntryWhenEveryEntryExpired() throws IOException {
+        Instant expired = Instant.now().minus(Duration.ofDays(31)).truncatedTo(ChronoUnit.MILLIS);
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, true, Duration.ofDays(30))) {
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.RECEIVED, expired));
+            transitionLog.append(transition(CHAIN_TASK_ID, Status.SUCCESS, expired));
+            transitionLog.compact();
+        }
+
+        try (EmbeddedCommandTransitionLog transitionLog =
+                     new EmbeddedCommandTransitionLog(converter, directory, true, Duration.ofDays(30))) {
+            assertThat(transitionLog.getLastSequence()).isEqualTo(2L);
+            assertThat(transitionLog.append(transition(CHAIN_TASK_ID, Status.RECEIVED)).getSequence())
+                    .isEqualTo(3L);
+        }
+    }
+
+    private CommandTransition transition(String chainTaskId, Status status) {
+        return transition(chainTaskId, status, Instant.now().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    private CommandTransition transition(String chainTaskId, Status status, Instant date) {
+        return CommandTransition.builder()
+                .commandType("TaskInitialize")
+                .chainObjectId(chainTaskId)
+                .status(status)
+                .date(date)
+                .transactionHash(status == Status.SUCCESS ? "0xabc" : null)
+                .build();
+    }
+
+}
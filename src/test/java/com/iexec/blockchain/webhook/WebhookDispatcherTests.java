@@ -0,0 +1,180 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.iexec.blockchain.tool.Status;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class WebhookDispatcherTests {
+
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final WebhookStore webhookStore = new EmbeddedWebhookStore();
+    private final List<JsonNode> receivedBatches = new CopyOnWriteArrayList<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+    private final CountDownLatch slowResponse = new CountDownLatch(1);
+    private final ExecutorService callbackExecutor = Executors.newCachedThreadPool();
+    private HttpServer callbackServer;
+    private String callbackUrl;
+    private WebhookDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        callbackServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        callbackServer.createContext("/callback", exchange -> {
+            receivedBatches.add(objectMapper.readTree(exchange.getRequestBody()));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        callbackServer.createContext("/slow", exchange -> {
+            try {
+                slowResponse.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        callbackServer.setExecutor(callbackExecutor);
+        callbackServer.start();
+        callbackUrl = "http://localhost:" + callbackServer.getAddress().getPort() + "/callback";
+        dispatcher = new WebhookDispatcher(webhookStore, objectMapper, new SimpleMeterRegistry(),
+                BATCH_SIZE, MAX_ATTEMPTS, Duration.ofMinutes(1), Duration.ofMinutes(5), 1, 2, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowResponse.countDown();
+        dispatcher.shutdown();
+        callbackServer.stop(0);
+        callbackExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldPostDueDeliveriesInBatches() {
+        webhookStore.enqueueDeliveries(getDeliveries(3));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> {
+            dispatcher.dispatch();
+            return webhookStore.findDueDeliveries(Instant.MAX, Set.of(), Set.of(), 10).isEmpty();
+        });
+
+        assertThat(receivedBatches).hasSize(2);
+        assertThat(receivedBatches.get(0)).hasSize(BATCH_SIZE);
+        assertThat(receivedBatches.get(0).get(0).get("status").asText()).isEqualTo(Status.SUCCESS.name());
+        assertThat(receivedBatches.get(1)).hasSize(1);
+    }
+
+    @Test
+    void shouldRescheduleThenGiveUpFailedDeliveries() {
+        responseStatus.set(500);
+        WebhookDelivery delivery = getDeliveries(1).get(0);
+        webhookStore.enqueueDeliveries(List.of(delivery));
+
+        dispatcher.dispatch();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> delivery.getNextAttemptDate().isAfter(Instant.now()));
+        assertThat(delivery.getAttempts()).isOne();
+        assertThat(webhookStore.findDueDeliveries(Instant.now(), Set.of(), Set.of(), 10)).isEmpty();
+        assertThat(webhookStore.findDueDeliveries(Instant.now().plus(Duration.ofMinutes(2)),
+                Set.of(), Set.of(), 10))
+                .containsExactly(delivery);
+
+        delivery.setNextAttemptDate(Instant.now());
+        await().atMost(5, TimeUnit.SECONDS).until(() -> {
+            dispatcher.dispatch();
+            return webhookStore.findDueDeliveries(Instant.MAX, Set.of(), Set.of(), 10).isEmpty();
+        });
+        assertThat(receivedBatches).hasSize(MAX_ATTEMPTS);
+    }
+
+    @Test
+    void shouldNotDelayOtherUrlsBehindSaturatedUrl() {
+        String slowCallbackUrl = callbackUrl.replace("/callback", "/slow");
+        List<WebhookDelivery> slowDeliveries = getDeliveries(WebhookDispatcher.FETCH_SIZE + 1);
+        slowDeliveries.forEach(delivery -> {
+            delivery.setId("slow-" + delivery.getId());
+            delivery.setCallbackUrl(slowCallbackUrl);
+            delivery.setNextAttemptDate(delivery.getNextAttemptDate().minusSeconds(60));
+        });
+        webhookStore.enqueueDeliveries(slowDeliveries);
+        webhookStore.enqueueDeliveries(getDeliveries(1));
+
+        await().atMost(5, TimeUnit.SECONDS).until(() -> {
+            dispatcher.dispatch();
+            return webhookStore.findDueDeliveries(Instant.MAX, Set.of(), Set.of(), Integer.MAX_VALUE).stream()
+                    .allMatch(delivery -> delivery.getCallbackUrl().equals(slowCallbackUrl));
+        });
+
+        assertThat(receivedBatches).hasSize(1);
+    }
+
+    @Test
+    void shouldDoubleBackoffUpToMaximum() {
+        Duration initial = Duration.ofSeconds(5);
+        Duration max = Duration.ofMinutes(1);
+
+        assertThat(WebhookDispatcher.getBackoff(initial, max, 1)).isEqualTo(initial);
+        assertThat(WebhookDispatcher.getBackoff(initial, max, 3)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(WebhookDispatcher.getBackoff(initial, max, 50)).isEqualTo(max);
+    }
+
+    private List<WebhookDelivery> getDeliveries(int count) {
+        Instant now = Instant.now();
+        return IntStream.range(0, count)
+                .mapToObj(index -> WebhookDelivery.builder()
+                        .id("delivery-" + index)
+                        .callbackUrl(callbackUrl)
+                        .event(WebhookEvent.builder()
+                                .commandType("TaskInitialize")
+                                .chainObjectId("0x" + index)
+                                .status(Status.SUCCESS)
+                                .date(now)
+                                .build())
+                        .nextAttemptDate(now.minusSeconds(count - index))
+                        .creationDate(now)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+}
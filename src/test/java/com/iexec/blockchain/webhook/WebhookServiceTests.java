@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 IEXEC BLOCKCHAIN TECH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.iexec.blockchain.webhook;
+
+import com.iexec.blockchain.command.generic.CommandTransition;
+import com.iexec.blockchain.tool.Status;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebhookServiceTests {
+
+    private static final String CALLBACK_URL = "http://localhost:8080/callback";
+    private static final String CHAIN_TASK_ID =
+            "0x000000000000000000000000000000000000000000000000000000000000a001";
+
+    private final WebhookStore webhookStore = new EmbeddedWebhookStore();
+    private final WebhookService webhookService = new WebhookService(webhookStore);
+
+    @Test
+    void shouldRejectInvalidCallbackUrls() {
+        assertThat(WebhookService.isValidCallbackUrl("https://example.com/hook")).isTrue();
+        assertThat(WebhookService.isValidCallbackUrl("ftp://example.com/hook")).isFalse();
+        assertThat(WebhookService.isValidCallbackUrl("/hook")).isFalse();
+        assertThat(WebhookService.isValidCallbackUrl("not a url")).isFalse();
+        assertThat(webhookService.subscribe("not a url", null, null)).isEmpty();
+    }
+
+    @Test
+    void shouldEnqueueDeliveryForMatchingSubscriptions() {
+        webhookService.subscribe(CALLBACK_URL, "TaskInitialize", null);
+        webhookService.subscribe("http://localhost:8080/other", "TaskContribute", null);
+
+        webhookService.onCommandTransition(transition(Status.SUCCESS));
+
+        List<WebhookDelivery> deliveries = webhookStore.findDueDeliveries(Instant.now(), Set.of(), Set.of(), 10);
+        assertThat(deliveries).hasSize(1);
+        assertThat(deliveries.get(0).getCallbackUrl()).isEqualTo(CALLBACK_URL);
+        assertThat(deliveries.get(0).getEvent().getChainObjectId()).isEqualTo(CHAIN_TASK_ID);
+        assertThat(deliveries.get(0).getEvent().getStatus()).isEqualTo(Status.SUCCESS);
+    }
+
+    @Test
+    void shouldIgnoreNonFinalTransitions() {
+        webhookService.subscribe(CALLBACK_URL, null, null);
+
+        webhookService.onCommandTransition(transition(Status.PROCESSING));
+
+        assertThat(webhookStore.findDueDeliveries(Instant.now(), Set.of(), Set.of(), 10)).isEmpty();
+    }
+
+    @Test
+    void shouldRemoveOneShotCallbackOnceFinal() {
+        webhookService.registerCallback(CALLBACK_URL, "TaskInitialize", CHAIN_TASK_ID);
+        assertThat(webhookService.getSubscriptions()).isEmpty();
+
+        webhookService.onCommandTransition(transition(Status.FAILURE));
+        webhookService.onCommandTransition(transition(Status.FAILURE));
+
+        assertThat(webhookStore.findDueDeliveries(Instant.now(), Set.of(), Set.of(), 10)).hasSize(1);
+        assertThat(webhookStore.findMatchingSubscriptions("TaskInitialize", CHAIN_TASK_ID)).isEmpty();
+    }
+
+    @Test
+    void shouldRegisterCallbackOnlyWithUrl() {
+        assertThat(webhookService.registerCallback(null, "TaskInitialize", CHAIN_TASK_ID)).isEmpty();
+
+        assertThat(webhookService.registerCallback(CALLBACK_URL, "TaskInitialize", CHAIN_TASK_ID))
+                .hasValueSatisfying(subscription -> assertThat(subscription.isOneShot()).isTrue());
+        assertThat(webhookStore.findMatchingSubscriptions("TaskInitialize", CHAIN_TASK_ID)).hasSize(1);
+    }
+
+    @Test
+    void shouldRemoveOneShotCallbackOnlyAsRejected() {
+        WebhookSubscription callback =
+                webhookService.registerCallback(CALLBACK_URL, "TaskInitialize", CHAIN_TASK_ID).orElseThrow();
+        WebhookSubscription subscription = webhookService.subscribe(CALLBACK_URL, null, null).orElseThrow();
+
+        assertThat(webhookService.getSubscription(callback.getId())).isEmpty();
+        assertThat(webhookService.unsubscribe(callback.getId())).isFalse();
+        assertThat(webhookService.unsubscribe(subscription.getId())).isTrue();
+        assertThat(webhookStore.findMatchingSubscriptions("TaskInitialize", CHAIN_TASK_ID))
+                .containsExactly(callback);
+
+        webhookService.removeCallback(callback);
+        assertThat(webhookStore.findMatchingSubscriptions("TaskInitialize", CHAIN_TASK_ID)).isEmpty();
+    }
+
+    private static CommandTransition transition(Status status) {
+        return CommandTransition.builder()
+                .commandType("TaskInitialize")
+                .chainObjectId(CHAIN_TASK_ID)
+                .status(status)
+                .date(Instant.now())
+                .build();
+    }
+
+}